@@ -0,0 +1,52 @@
+-- diary 범위 조회 인덱스 전/후 비교 (MariaDB 10.3+, Sequence 엔진 필요)
+-- 실행: mariadb -u hj -p weather_bench < benchmark/diary_range_read.sql
+-- 빈 스키마에 V1, V2 마이그레이션이 적용된 상태에서 실행
+
+-- 1. 데이터 준비: 도시 1개 x 약 27년치 날씨, 일기 1,000만건 (하루 1,000건, 2010-06-15 는 id 3818001 ~ 3819000)
+-- 적재가 빠르도록 V2 의 FK 와 인덱스를 먼저 지우고 3 에서 다시 만듦
+ALTER TABLE diary DROP FOREIGN KEY fk_diary_weather;
+DROP INDEX idx_diary_date_id ON diary;
+DROP INDEX idx_diary_weather ON diary;
+
+INSERT INTO date_weather (city, date, weather, icon, temperature)
+SELECT 'seoul', DATE '2000-01-01' + INTERVAL seq DAY, ELT(1 + seq % 4, 'Clear', 'Clouds', 'Rain', 'Snow'), '01d', 273.15 + seq % 30
+FROM seq_0_to_9999;
+
+INSERT INTO diary (id, text, date, weather_city, weather_date)
+SELECT seq, CONCAT('일기 ', seq), DATE '2000-01-01' + INTERVAL ((seq - 1) DIV 1000) DAY, 'seoul', DATE '2000-01-01' + INTERVAL ((seq - 1) DIV 1000) DAY
+FROM seq_1_to_10000000;
+
+ANALYZE TABLE diary, date_weather;
+
+-- 2. 인덱스 없이 (V2 이전 상태)
+-- findAllByDateBetween (한달) / findAllByDate / keyset 페이지
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text, w.weather FROM diary d JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date
+WHERE d.date BETWEEN '2010-06-01' AND '2010-06-30' ORDER BY d.date, d.id;
+
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text FROM diary d WHERE d.date = '2010-06-15' ORDER BY d.id;
+
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text FROM diary d
+WHERE d.date BETWEEN '2010-06-01' AND '2010-12-31' AND (d.date > '2010-06-15' OR (d.date = '2010-06-15' AND d.id > 3818500))
+ORDER BY d.date, d.id LIMIT 101;
+
+-- 3. V2 인덱스 적용 후
+CREATE INDEX idx_diary_date_id ON diary (date, id);
+CREATE INDEX idx_diary_weather ON diary (weather_city, weather_date);
+ALTER TABLE diary ADD CONSTRAINT fk_diary_weather FOREIGN KEY (weather_city, weather_date) REFERENCES date_weather (city, date);
+
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text, w.weather FROM diary d JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date
+WHERE d.date BETWEEN '2010-06-01' AND '2010-06-30' ORDER BY d.date, d.id;
+
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text FROM diary d WHERE d.date = '2010-06-15' ORDER BY d.id;
+
+ANALYZE FORMAT=JSON
+SELECT d.id, d.date, d.text FROM diary d
+WHERE d.date BETWEEN '2010-06-01' AND '2010-12-31' AND (d.date > '2010-06-15' OR (d.date = '2010-06-15' AND d.id > 3818500))
+ORDER BY d.date, d.id LIMIT 101;
+
+-- 각 결과의 query_block.r_total_time_ms (전체 실행 시간) 와 table.r_rows (읽은 행 수) 를 비교
@@ -0,0 +1,28 @@
+#!/usr/bin/env bash
+# 로깅 설정 전/후 응답시간 비교 (hey 필요: https://github.com/rakyll/hey)
+# 실행: ./benchmark/load_test.sh [host] [동시 요청 수] [시간]
+#   1. 이전 설정 (동기 appender + show-sql) 으로 서버를 띄우고 실행
+#   2. 현재 설정 (async appender, show-sql 없음) 으로 서버를 띄우고 실행
+#   3. 두 결과의 99% latency 비교
+# 조회할 일기가 있어야 하므로 먼저 /create/diaries 로 데이터를 넣어둘 것
+# 1 CPU 에서 측정한 결과는 README 의 벤치마크 참고
+
+set -euo pipefail
+
+HOST=${1:-http://localhost:8080}
+CONCURRENCY=${2:-50}
+DURATION=${3:-60s}
+
+run() {
+  local name=$1
+  shift
+  echo "== ${name}"
+  hey -z "${DURATION}" -c "${CONCURRENCY}" "$@" | grep -E "Requests/sec|50% in|95% in|99% in"
+}
+
+# 일기 한 건씩 쓰는 요청 (INFO 로그 2줄 + insert)
+run "create diary" -m POST -T "application/json" \
+  -d '{"date":"2024-06-28","text":"부하 테스트"}' "${HOST}/create/diary"
+
+# 조회 요청 (select 여러 건)
+run "read diaries" "${HOST}/read/diaries?startDate=2024-06-01&endDate=2024-06-30"
@@ -0,0 +1,15 @@
+package zerobase.projectweather.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// 블로킹 앱과 같은 DB, 같은 API 경로를 WebFlux + R2DBC 로 처리 (스키마는 블로킹 앱의 flyway 가 관리)
+// 날짜 변환기(config)는 블로킹 앱과 같은 것을 사용
+@SpringBootApplication(scanBasePackages = {"zerobase.projectweather.reactive", "zerobase.projectweather.config"})
+public class ReactiveWeatherApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveWeatherApplication.class, args);
+    }
+
+}
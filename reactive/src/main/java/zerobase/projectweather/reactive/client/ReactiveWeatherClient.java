@@ -0,0 +1,54 @@
+package zerobase.projectweather.reactive.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.Duration;
+
+@Slf4j
+@Component
+public class ReactiveWeatherClient {
+    private final WebClient webClient;
+    private final String apiKey;
+    private final Duration readTimeout;
+
+    public ReactiveWeatherClient(WebClient.Builder webClientBuilder,
+                                 @Value("${weather.api.base-url}") String baseUrl,
+                                 @Value("${apiKey}") String apiKey,
+                                 @Value("${weather.api.read-timeout-millis:3000}") long readTimeoutMillis) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.apiKey = apiKey;
+        this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+    }
+
+    // 응답을 기다리는 동안 이벤트 루프 스레드를 잡고 있지 않음, 실패하면 블로킹 앱과 같은 에러 코드로 바꿈
+    public Mono<WeatherData> fetchCurrentWeather(String city) {
+        return webClient.get()
+                .uri(builder -> builder.queryParam("q", city).queryParam("appid", apiKey).build())
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(readTimeout)
+                .map(ReactiveWeatherClient::toWeatherData)
+                .onErrorMap(e -> !(e instanceof WeatherException), e -> {
+                    log.warn("Failed to get weather: {}", e.toString());
+                    return new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE);
+                });
+    }
+
+    static WeatherData toWeatherData(JsonNode json) {
+        JsonNode weather = json.path("weather").path(0);
+        JsonNode main = weather.path("main");
+        JsonNode icon = weather.path("icon");
+        JsonNode temperature = json.path("main").path("temp");
+        if (!main.isTextual() || !icon.isTextual() || !temperature.isNumber()) {
+            throw new WeatherException(ErrorCode.WEATHER_PAYLOAD_MALFORMED);
+        }
+        return new WeatherData(main.asText(), icon.asText(), temperature.asDouble());
+    }
+}
@@ -0,0 +1,5 @@
+package zerobase.projectweather.reactive.client;
+
+// open weather map 응답에서 사용하는 값만 담음 (weather[0].main, weather[0].icon, main.temp)
+public record WeatherData(String weather, String icon, double temperature) {
+}
@@ -0,0 +1,50 @@
+package zerobase.projectweather.reactive.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.reactive.dto.DeletedDiary;
+import zerobase.projectweather.reactive.dto.DiaryRequest;
+import zerobase.projectweather.reactive.dto.DiaryResponse;
+import zerobase.projectweather.reactive.service.ReactiveDiaryService;
+
+import java.time.LocalDate;
+
+// 블로킹 앱의 DiaryController 와 같은 경로, 같은 요청/응답 형식
+@RestController
+@RequiredArgsConstructor
+public class ReactiveDiaryController {
+    private final ReactiveDiaryService diaryService;
+
+    @PostMapping("/create/diary")
+    public Mono<DiaryResponse> createDiary(@RequestBody @Valid DiaryRequest request) {
+        return diaryService.createDiary(request.getDate(), request.getText());
+    }
+
+    @GetMapping("/read/diary")
+    public Flux<DiaryResponse> readDiary(@RequestParam("date") LocalDate date) {
+        return diaryService.getDiariesByDate(date);
+    }
+
+    // application/json 이면 JSON 배열, application/x-ndjson 이면 한 줄에 일기 하나씩
+    // 둘 다 클라이언트가 읽는 속도에 맞춰 DB 에서 가져옴 (backpressure)
+    @GetMapping(value = "/read/diaries", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<DiaryResponse> readDiaries(@RequestParam("startDate") LocalDate startDate,
+                                           @RequestParam("endDate") LocalDate endDate) {
+        return diaryService.getDiariesByDatePeriod(startDate, endDate);
+    }
+
+    @PutMapping("/update/diary")
+    public Mono<DiaryResponse> updateDiary(@RequestBody @Valid DiaryRequest request) {
+        return diaryService.updateDiary(request.getDate(), request.getText());
+    }
+
+    @DeleteMapping("/delete/diary")
+    public Mono<DeletedDiary> deleteDiary(@RequestParam("date") LocalDate date) {
+        return diaryService.deleteDiary(date);
+    }
+
+}
@@ -0,0 +1,15 @@
+package zerobase.projectweather.reactive.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+// 블로킹 앱의 DeleteDiary.Response 와 같은 형식
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DeletedDiary {
+    private LocalDate date;
+}
@@ -0,0 +1,18 @@
+package zerobase.projectweather.reactive.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaryRequest {
+
+    @NotNull
+    private LocalDate date;
+    @NotNull
+    private String text;
+}
@@ -0,0 +1,20 @@
+package zerobase.projectweather.reactive.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+// 블로킹 앱의 DiaryInfo 와 같은 형식에 version 을 더함
+// 블로킹 앱에서 id 로 수정 (PUT /update/diary/{id}) 할 때 version 을 If-Match 로 보내면 됨
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryResponse {
+    private Long id;
+    private Long version;
+    private LocalDate date;
+    private String text;
+    private String weather;
+}
@@ -0,0 +1,47 @@
+package zerobase.projectweather.reactive.exception;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ServerWebInputException;
+import zerobase.projectweather.dto.ErrorResponse;
+import zerobase.projectweather.exception.WeatherException;
+
+import static zerobase.projectweather.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static zerobase.projectweather.type.ErrorCode.INVALID_REQUEST_BODY;
+
+// 블로킹 앱의 GlobalExceptionHandler 와 같은 에러 응답
+@Slf4j
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(WeatherException.class)
+    public ErrorResponse handleWeatherException(WeatherException e) {
+        log.error("{} is occurred", e.getErrorCode());
+
+        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+    }
+
+    // 요청 값을 바인딩하거나 검증(@NotNull)하다 난 에러, 날짜 파서가 던진 에러는 그대로 응답
+    @ExceptionHandler(ServerWebInputException.class)
+    public ErrorResponse handleInputException(ServerWebInputException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        if (cause instanceof WeatherException) {
+            return handleWeatherException((WeatherException) cause);
+        }
+        log.error("{} is occurred", INVALID_REQUEST_BODY);
+
+        return new ErrorResponse(INVALID_REQUEST_BODY, INVALID_REQUEST_BODY.getDescription());
+    }
+
+    @ExceptionHandler(Exception.class)
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handleException(Exception e) {
+        log.error("Exception is occurred", e);
+
+        return new ErrorResponse(INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription());
+    }
+}
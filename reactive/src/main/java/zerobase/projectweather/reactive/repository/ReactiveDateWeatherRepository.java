@@ -0,0 +1,57 @@
+package zerobase.projectweather.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.reactive.client.WeatherData;
+
+import java.time.LocalDate;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDateWeatherRepository {
+
+    private static final String SELECT_WEATHER_SQL = "SELECT city, date, weather FROM date_weather ";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<StoredWeather> findByCityAndDate(String city, LocalDate date) {
+        return databaseClient.sql(SELECT_WEATHER_SQL + "WHERE city = :city AND date = :date")
+                .bind("city", city)
+                .bind("date", date)
+                .map(ReactiveDateWeatherRepository::toStoredWeather)
+                .one();
+    }
+
+    // 날씨 api 를 쓸 수 없을 때 일기를 연결할 그 도시의 가장 최근 날씨
+    public Mono<StoredWeather> findLatestByCity(String city) {
+        return databaseClient.sql(SELECT_WEATHER_SQL + "WHERE city = :city ORDER BY date DESC LIMIT 1")
+                .bind("city", city)
+                .map(ReactiveDateWeatherRepository::toStoredWeather)
+                .one();
+    }
+
+    // 같은 날씨를 동시에 저장하려고 하면 먼저 저장된 것을 남기고 나머지는 무시
+    public Mono<Long> insertIgnore(String city, LocalDate date, WeatherData weatherData) {
+        return databaseClient.sql("INSERT IGNORE INTO date_weather (city, date, weather, icon, temperature) "
+                        + "VALUES (:city, :date, :weather, :icon, :temperature)")
+                .bind("city", city)
+                .bind("date", date)
+                .bind("weather", weatherData.weather())
+                .bind("icon", weatherData.icon())
+                .bind("temperature", weatherData.temperature())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static StoredWeather toStoredWeather(Readable row) {
+        return new StoredWeather(row.get("city", String.class), row.get("date", LocalDate.class),
+                row.get("weather", String.class));
+    }
+
+    // 일기가 연결되는 날씨 행 (다른 날짜의 날씨에 연결될 수 있으므로 날짜도 같이)
+    public record StoredWeather(String city, LocalDate date, String weather) {
+    }
+}
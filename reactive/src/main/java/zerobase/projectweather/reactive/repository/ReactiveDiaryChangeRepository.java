@@ -0,0 +1,24 @@
+package zerobase.projectweather.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+// 블로킹 앱이 날짜별 일기 캐시와 검색 색인에 반영하도록 남기는 변경 기록 (diary_change)
+// 일기를 쓰는 트랜잭션 안에서 남겨야 롤백된 변경은 남지 않고, 커밋된 변경은 빠지지 않음
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDiaryChangeRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> insert(long diaryId, LocalDate diaryDate) {
+        return databaseClient.sql("INSERT INTO diary_change (diary_id, diary_date) VALUES (:diaryId, :diaryDate)")
+                .bind("diaryId", diaryId)
+                .bind("diaryDate", diaryDate)
+                .then();
+    }
+}
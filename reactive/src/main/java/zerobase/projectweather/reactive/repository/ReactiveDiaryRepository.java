@@ -0,0 +1,111 @@
+package zerobase.projectweather.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.reactive.dto.DiaryResponse;
+
+import java.time.LocalDate;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDiaryRepository {
+
+    private static final String SELECT_DIARY_SQL = "SELECT d.id, d.version, d.date, w.weather, d.text FROM diary d "
+            + "LEFT JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date ";
+
+    private final DatabaseClient databaseClient;
+
+    @Value("${diary.stream.fetch-size:500}")
+    private int fetchSize;
+
+    // 구독자가 요청한 만큼만 DB 에서 행을 받아옴 (한번에 최대 fetchSize 개)
+    public Flux<DiaryResponse> findAllByDateBetween(LocalDate startDate, LocalDate endDate) {
+        return databaseClient.sql(SELECT_DIARY_SQL + "WHERE d.date BETWEEN :startDate AND :endDate ORDER BY d.date, d.id")
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .map(ReactiveDiaryRepository::toResponse)
+                .all()
+                .limitRate(fetchSize);
+    }
+
+    public Mono<DiaryResponse> findById(long id) {
+        return databaseClient.sql(SELECT_DIARY_SQL + "WHERE d.id = :id")
+                .bind("id", id)
+                .map(ReactiveDiaryRepository::toResponse)
+                .one();
+    }
+
+    public Mono<Long> findFirstIdByDate(LocalDate date) {
+        return databaseClient.sql("SELECT id FROM diary WHERE date = :date ORDER BY id LIMIT 1")
+                .bind("date", date)
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    // 집계에서 뺄 일기들의 id 와 날씨, 지우기 전에 같은 날짜에 일기가 새로 생기지 않도록 잠금
+    public Flux<WeatherOfDiary> findWeatherIdsByDateForUpdate(LocalDate date) {
+        return databaseClient.sql("SELECT id, weather_city, weather_date FROM diary WHERE date = :date FOR UPDATE")
+                .bind("date", date)
+                .map(row -> new WeatherOfDiary(row.get("id", Long.class),
+                        new WeatherId(row.get("weather_city", String.class), row.get("weather_date", LocalDate.class))))
+                .all();
+    }
+
+    // 블로킹 앱(hibernate pooled optimizer)은 sequence 값 N 을 받으면 (N - 50, N] 을 사용하므로
+    // 여기서 받은 값 N 을 그대로 id 로 써도 겹치지 않음
+    public Mono<Long> nextId() {
+        return databaseClient.sql("SELECT NEXT VALUE FOR diary_seq")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Long> insert(long id, LocalDate date, String text, String weatherCity, LocalDate weatherDate) {
+        return databaseClient.sql("INSERT INTO diary (id, text, date, weather_city, weather_date) "
+                        + "VALUES (:id, :text, :date, :weatherCity, :weatherDate)")
+                .bind("id", id)
+                .bind("text", text)
+                .bind("date", date)
+                .bind("weatherCity", weatherCity)
+                .bind("weatherDate", weatherDate)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // 블로킹 앱의 조건부 수정(If-Match)이 알 수 있도록 version 도 올림
+    public Mono<Long> updateText(long id, String text) {
+        return databaseClient.sql("UPDATE diary SET text = :text, version = version + 1 WHERE id = :id")
+                .bind("text", text)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteAllByDate(LocalDate date) {
+        return databaseClient.sql("DELETE FROM diary WHERE date = :date")
+                .bind("date", date)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DiaryResponse toResponse(Readable row) {
+        return DiaryResponse.builder()
+                .id(row.get("id", Long.class))
+                .version(row.get("version", Long.class))
+                .date(row.get("date", LocalDate.class))
+                .weather(row.get("weather", String.class))
+                .text(row.get("text", String.class))
+                .build();
+    }
+
+    public record WeatherOfDiary(long id, WeatherId weather) {
+    }
+
+    // 일기가 붙어 있는 날씨 행의 PK (city, date)
+    public record WeatherId(String city, LocalDate date) {
+    }
+}
@@ -0,0 +1,82 @@
+package zerobase.projectweather.reactive.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+
+// 블로킹 앱의 RollupRepository 와 같은 집계 upsert, 일/월/연 행을 차례대로 고침
+@Repository
+@RequiredArgsConstructor
+public class ReactiveRollupRepository {
+
+    public static final String WEATHER = "weather";
+    public static final String ICON = "icon";
+
+    private static final String ADD_WEATHER_SQL = "INSERT INTO weather_rollup (city, period_type, period_key, days, temperature_sum) "
+            + "VALUES (:city, :periodType, :periodKey, :days, :temperature) "
+            + "ON DUPLICATE KEY UPDATE days = days + VALUES(days), temperature_sum = temperature_sum + VALUES(temperature_sum)";
+
+    private static final String ADD_WEATHER_COUNT_SQL = "INSERT INTO weather_count_rollup (city, period_type, period_key, category, item, days) "
+            + "VALUES (:city, :periodType, :periodKey, :category, :item, :days) "
+            + "ON DUPLICATE KEY UPDATE days = days + VALUES(days)";
+
+    private static final String ADD_DIARIES_SQL = "INSERT INTO diary_rollup (period_type, period_key, weather, diaries) "
+            + "VALUES (:periodType, :periodKey, :weather, :diaries) "
+            + "ON DUPLICATE KEY UPDATE diaries = diaries + VALUES(diaries)";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Void> addWeather(String city, LocalDate date, int days, double temperature) {
+        return Flux.fromArray(PeriodType.values())
+                .concatMap(period -> databaseClient.sql(ADD_WEATHER_SQL)
+                        .bind("city", city)
+                        .bind("periodType", period.name())
+                        .bind("periodKey", period.key(date))
+                        .bind("days", days)
+                        .bind("temperature", temperature)
+                        .then())
+                .then();
+    }
+
+    public Mono<Void> addWeatherCount(String city, LocalDate date, String category, String item, int days) {
+        return Flux.fromArray(PeriodType.values())
+                .concatMap(period -> databaseClient.sql(ADD_WEATHER_COUNT_SQL)
+                        .bind("city", city)
+                        .bind("periodType", period.name())
+                        .bind("periodKey", period.key(date))
+                        .bind("category", category)
+                        .bind("item", item == null ? "" : item)
+                        .bind("days", days)
+                        .then())
+                .then();
+    }
+
+    public Mono<Void> addDiaries(LocalDate date, String weather, int diaries) {
+        return Flux.fromArray(PeriodType.values())
+                .concatMap(period -> databaseClient.sql(ADD_DIARIES_SQL)
+                        .bind("periodType", period.name())
+                        .bind("periodKey", period.key(date))
+                        .bind("weather", weather == null ? "" : weather)
+                        .bind("diaries", diaries)
+                        .then())
+                .then();
+    }
+
+    // 일기 수를 더하는 동안 날씨가 덮어써지지 않도록 날씨 행을 잠그고 읽음, 날씨가 없으면 ""
+    public Mono<String> findWeatherForUpdate(String city, LocalDate date) {
+        return databaseClient.sql("SELECT weather FROM date_weather WHERE city = :city AND date = :date FOR UPDATE")
+                .bind("city", city)
+                .bind("date", date)
+                .map(row -> {
+                    String weather = row.get("weather", String.class);
+                    return weather == null ? "" : weather;
+                })
+                .one()
+                .defaultIfEmpty("");
+    }
+}
@@ -0,0 +1,128 @@
+package zerobase.projectweather.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.reactive.client.ReactiveWeatherClient;
+import zerobase.projectweather.reactive.dto.DeletedDiary;
+import zerobase.projectweather.reactive.dto.DiaryResponse;
+import zerobase.projectweather.reactive.repository.ReactiveDateWeatherRepository;
+import zerobase.projectweather.reactive.repository.ReactiveDateWeatherRepository.StoredWeather;
+import zerobase.projectweather.reactive.repository.ReactiveDiaryChangeRepository;
+import zerobase.projectweather.reactive.repository.ReactiveDiaryRepository;
+import zerobase.projectweather.reactive.repository.ReactiveDiaryRepository.WeatherOfDiary;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+// 블로킹 앱의 DiaryService 와 같은 규칙 (글자 수, 기간 검증, 일기가 없으면 DIARY_NOT_FOUND, 오늘 날짜로만 api 날씨 저장)
+// 쓰기는 블로킹 앱과 같이 같은 트랜잭션에서 집계를 고치고, 블로킹 앱의 캐시와 검색 색인은 diary_change 로 알림
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveDiaryService {
+    private final ReactiveDiaryRepository diaryRepository;
+    private final ReactiveDateWeatherRepository dateWeatherRepository;
+    private final ReactiveDiaryChangeRepository diaryChangeRepository;
+    private final ReactiveRollupService rollupService;
+    private final ReactiveWeatherClient weatherClient;
+    private final TransactionalOperator transactionalOperator;
+
+    // 일기에 붙일 날씨를 가져오는 도시
+    @Value("${weather.default-city}")
+    private String defaultCity;
+
+    // 날씨 조회(api 호출, 날씨 저장)는 일기 트랜잭션을 열기 전에 끝냄 (api 를 기다리는 동안 커넥션을 잡고 있지 않음)
+    public Mono<DiaryResponse> createDiary(LocalDate date, String text) {
+        return checkTextLength(text)
+                .then(getWeather(date))
+                .flatMap(weather -> diaryRepository.nextId()
+                        .flatMap(id -> diaryRepository.insert(id, date, text, weather.city(), weather.date())
+                                .then(rollupService.addDiaries(weather.city(), weather.date(), date, 1))
+                                .then(diaryChangeRepository.insert(id, date))
+                                .thenReturn(DiaryResponse.builder()
+                                        .id(id)
+                                        .version(0L)
+                                        .date(date)
+                                        .text(text)
+                                        .weather(weather.weather())
+                                        .build()))
+                        .as(transactionalOperator::transactional));
+    }
+
+    private Mono<Void> checkTextLength(String text) {
+        if (text.length() > 255) {
+            return Mono.error(new WeatherException(ErrorCode.TEXT_TOO_LONG));
+        }
+        return Mono.empty();
+    }
+
+    // DB 에 없는 경우에만 API 에서 가져와 오늘 날짜로 저장, 다른 요청이 먼저 저장했으면 DB 에 있는 날씨를 사용
+    // 오늘이 아닌 날짜에 저장된 날씨가 없으면 오늘 날씨에 연결 (api 는 지금 날씨만 주므로 그날 날씨로 저장하지 않음)
+    // 날씨 api 를 쓸 수 없으면 DB 에 저장된 그 도시의 가장 최근 날씨에 연결
+    private Mono<StoredWeather> getWeather(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        Mono<StoredWeather> todayWeather = dateWeatherRepository.findByCityAndDate(defaultCity, today)
+                .switchIfEmpty(Mono.defer(() -> weatherClient.fetchCurrentWeather(defaultCity)
+                        .flatMap(weather -> rollupService.insertWeatherIfAbsent(defaultCity, today, weather))
+                        .then(dateWeatherRepository.findByCityAndDate(defaultCity, today))));
+        Mono<StoredWeather> weather = date.equals(today)
+                ? todayWeather
+                : dateWeatherRepository.findByCityAndDate(defaultCity, date).switchIfEmpty(todayWeather);
+        return weather.onErrorResume(e -> e instanceof WeatherException
+                        && ((WeatherException) e).getErrorCode() == ErrorCode.WEATHER_API_UNAVAILABLE,
+                e -> dateWeatherRepository.findLatestByCity(defaultCity)
+                        .doOnNext(latest -> log.warn("Use weather of {} for {} {}", latest.date(), defaultCity, date))
+                        .switchIfEmpty(Mono.error(e)));
+    }
+
+    public Flux<DiaryResponse> getDiariesByDate(LocalDate date) {
+        return diaryRepository.findAllByDateBetween(date, date)
+                .switchIfEmpty(Flux.error(() -> new WeatherException(ErrorCode.DIARY_NOT_FOUND)));
+    }
+
+    // 결과를 List 로 모으지 않고 구독자가 요청하는 만큼 흘려보냄
+    // 비어있는지는 첫 행을 받아봐야 알 수 있지만, 그때까지는 아무것도 쓰지 않았으므로 에러 응답으로 바꿀 수 있음
+    public Flux<DiaryResponse> getDiariesByDatePeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return Flux.error(new WeatherException(ErrorCode.INVALID_DATE_PERIOD));
+        }
+        return diaryRepository.findAllByDateBetween(startDate, endDate)
+                .switchIfEmpty(Flux.error(() -> new WeatherException(ErrorCode.DIARY_NOT_FOUND)));
+    }
+
+    // 해당 날짜의 첫번째 일기의 내용을 수정
+    public Mono<DiaryResponse> updateDiary(LocalDate date, String text) {
+        return checkTextLength(text)
+                .then(diaryRepository.findFirstIdByDate(date))
+                .switchIfEmpty(Mono.error(() -> new WeatherException(ErrorCode.DIARY_NOT_FOUND)))
+                .flatMap(id -> diaryRepository.updateText(id, text)
+                        .then(diaryChangeRepository.insert(id, date))
+                        .then(diaryRepository.findById(id)))
+                .as(transactionalOperator::transactional);
+    }
+
+    // 삭제된 건수로 일기가 있었는지 확인, 지운 일기 수는 붙어 있던 날씨별로 집계에서 뺌
+    public Mono<DeletedDiary> deleteDiary(LocalDate date) {
+        return diaryRepository.findWeatherIdsByDateForUpdate(date)
+                .collectList()
+                .flatMap(diaries -> diaryRepository.deleteAllByDate(date)
+                        .flatMap(deleted -> deleted == 0
+                                ? Mono.error(new WeatherException(ErrorCode.DIARY_NOT_FOUND))
+                                : Flux.fromIterable(diaries.stream()
+                                        .collect(Collectors.groupingBy(WeatherOfDiary::weather, Collectors.counting()))
+                                        .entrySet())
+                                .concatMap(count -> rollupService.addDiaries(count.getKey().city(),
+                                        count.getKey().date(), date, -count.getValue().intValue()))
+                                .thenMany(Flux.fromIterable(diaries))
+                                .concatMap(diary -> diaryChangeRepository.insert(diary.id(), date))
+                                .then(Mono.just(DeletedDiary.builder().date(date).build()))))
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -0,0 +1,45 @@
+package zerobase.projectweather.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.reactive.client.WeatherData;
+import zerobase.projectweather.reactive.repository.ReactiveDateWeatherRepository;
+import zerobase.projectweather.reactive.repository.ReactiveRollupRepository;
+
+import java.time.LocalDate;
+
+// 블로킹 앱의 RollupService 와 같이 날씨, 일기를 저장하는 트랜잭션 안에서 일/월/연 집계를 바뀐 만큼만 고침
+// 트랜잭션 안에서 호출하면 그 트랜잭션에 참여함
+@Service
+@RequiredArgsConstructor
+public class ReactiveRollupService {
+    private final ReactiveRollupRepository rollupRepository;
+    private final ReactiveDateWeatherRepository dateWeatherRepository;
+    private final TransactionalOperator transactionalOperator;
+
+    // 다른 요청이 먼저 저장해서 insert 가 무시된 경우는 집계에 더하지 않음
+    public Mono<Boolean> insertWeatherIfAbsent(String city, LocalDate date, WeatherData weatherData) {
+        return dateWeatherRepository.insertIgnore(city, date, weatherData)
+                .flatMap(inserted -> inserted == 0
+                        ? Mono.just(false)
+                        : rollupRepository.addWeather(city, date, 1, weatherData.temperature())
+                        .then(rollupRepository.addWeatherCount(city, date, ReactiveRollupRepository.WEATHER, weatherData.weather(), 1))
+                        .then(rollupRepository.addWeatherCount(city, date, ReactiveRollupRepository.ICON, weatherData.icon(), 1))
+                        .thenReturn(true))
+                .as(transactionalOperator::transactional);
+    }
+
+    // 일기를 만들면 +, 지우면 - (해당 날씨 행을 잠그고 읽어서 그 사이에 날씨가 바뀌지 않음)
+    // 일기 수는 일기 날짜로 집계 (날씨 api 를 쓸 수 없을 때 작성한 일기는 다른 날짜의 날씨에 붙어 있음)
+    // 날씨가 없는 일기 (flyway 이전에 쓴 일기) 는 블로킹 앱과 같이 날씨 "" 로 집계
+    public Mono<Void> addDiaries(String weatherCity, LocalDate weatherDate, LocalDate diaryDate, int diaries) {
+        Mono<String> weatherOfDiaries = weatherCity == null || weatherDate == null
+                ? Mono.just("")
+                : rollupRepository.findWeatherForUpdate(weatherCity, weatherDate);
+        return weatherOfDiaries
+                .flatMap(weather -> rollupRepository.addDiaries(diaryDate, weather, diaries))
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -0,0 +1,150 @@
+package zerobase.projectweather.reactive.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.reactive.dto.DiaryRequest;
+import zerobase.projectweather.reactive.dto.DiaryResponse;
+import zerobase.projectweather.reactive.service.ReactiveDiaryService;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@WebFluxTest(ReactiveDiaryController.class)
+class ReactiveDiaryControllerTest {
+
+    @MockBean
+    private ReactiveDiaryService diaryService;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void successCreateDiary() {
+        //given
+        given(diaryService.createDiary(any(), anyString()))
+                .willReturn(Mono.just(DiaryResponse.builder()
+                        .id(1L)
+                        .version(0L)
+                        .date(LocalDate.parse("2024-06-29"))
+                        .text("안녕")
+                        .weather("Clear").build()));
+
+        //when
+
+        //then
+        webTestClient.post().uri("/create/diary")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new DiaryRequest(LocalDate.parse("2024-06-29"), "안녕"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.date").isEqualTo("2024-06-29")
+                .jsonPath("$.text").isEqualTo("안녕")
+                .jsonPath("$.weather").isEqualTo("Clear")
+                .jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    void failCreateDiary_missingText() {
+        //given
+
+        //when
+
+        //then
+        webTestClient.post().uri("/create/diary")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"date\":\"2024-06-29\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo(ErrorCode.INVALID_REQUEST_BODY.name());
+        verifyNoInteractions(diaryService);
+    }
+
+    @Test
+    void successReadDiaries() {
+        //given
+        given(diaryService.getDiariesByDatePeriod(any(), any()))
+                .willReturn(Flux.just(
+                        DiaryResponse.builder().id(1L).version(0L).date(LocalDate.parse("2024-06-29")).text("안녕").weather("Clear").build(),
+                        DiaryResponse.builder().id(2L).version(3L).date(LocalDate.parse("2024-06-30")).text("하이").weather("Rain").build()));
+
+        //when
+
+        //then
+        webTestClient.get().uri("/read/diaries?startDate=2024-06-29&endDate=2024-06-30")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].date").isEqualTo("2024-06-30")
+                .jsonPath("$[1].weather").isEqualTo("Rain")
+                .jsonPath("$[1].id").isEqualTo(2)
+                .jsonPath("$[1].version").isEqualTo(3);
+    }
+
+    @Test
+    void successReadDiaries_ndjson() {
+        //given
+        given(diaryService.getDiariesByDatePeriod(any(), any()))
+                .willReturn(Flux.just(
+                        DiaryResponse.builder().date(LocalDate.parse("2024-06-29")).text("안녕").weather("Clear").build(),
+                        DiaryResponse.builder().date(LocalDate.parse("2024-06-30")).text("하이").weather("Rain").build()));
+
+        //when
+
+        //then
+        webTestClient.get().uri("/read/diaries?startDate=2024-06-29&endDate=2024-06-30")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(DiaryResponse.class)
+                .hasSize(2);
+    }
+
+    @Test
+    void failReadDiaries_diaryNotFound() {
+        //given
+        given(diaryService.getDiariesByDatePeriod(any(), any()))
+                .willReturn(Flux.error(new WeatherException(ErrorCode.DIARY_NOT_FOUND)));
+
+        //when
+
+        //then
+        webTestClient.get().uri("/read/diaries?startDate=2024-06-29&endDate=2024-06-30")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo(ErrorCode.DIARY_NOT_FOUND.name());
+    }
+
+    @Test
+    void failReadDiary_invalidDateFormat() {
+        //given
+
+        //when
+
+        //then
+        webTestClient.get().uri("/read/diary?date=2024-13-01")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo(ErrorCode.INVALID_DATE_FORMAT.name());
+        verifyNoInteractions(diaryService);
+    }
+}
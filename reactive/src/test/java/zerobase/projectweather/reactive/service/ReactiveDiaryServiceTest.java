@@ -0,0 +1,284 @@
+package zerobase.projectweather.reactive.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.reactive.client.ReactiveWeatherClient;
+import zerobase.projectweather.reactive.client.WeatherData;
+import zerobase.projectweather.reactive.repository.ReactiveDateWeatherRepository;
+import zerobase.projectweather.reactive.repository.ReactiveDiaryChangeRepository;
+import zerobase.projectweather.reactive.repository.ReactiveDiaryRepository;
+import zerobase.projectweather.reactive.repository.ReactiveRollupRepository;
+import zerobase.projectweather.type.ErrorCode;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// 블로킹 앱의 flyway 스크립트로 만든 H2 에 실제로 읽고 씀 (조회할 일기는 블로킹 앱이 쓴 것처럼 SQL 로 넣어둠)
+// 쓰기는 블로킹 앱과 같은 집계 행과, 블로킹 앱의 캐시/검색 색인에 반영될 diary_change 행을 확인
+@DataR2dbcTest
+@Import({ReactiveDiaryService.class, ReactiveRollupService.class, ReactiveDiaryRepository.class,
+        ReactiveDateWeatherRepository.class, ReactiveRollupRepository.class, ReactiveDiaryChangeRepository.class})
+class ReactiveDiaryServiceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private ReactiveDiaryService diaryService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @MockBean
+    private ReactiveWeatherClient weatherClient;
+
+    @BeforeEach
+    void setUp() {
+        Flux.just("diary", "date_weather", "diary_change", "diary_rollup", "weather_rollup", "weather_count_rollup")
+                .concatMap(table -> databaseClient.sql("DELETE FROM " + table).then())
+                .blockLast();
+        given(weatherClient.fetchCurrentWeather("seoul"))
+                .willReturn(Mono.just(new WeatherData("Clear", "01d", 303.91)));
+    }
+
+    @Test
+    @DisplayName("일기 작성 - 오늘 날씨는 API 에서 한번만 가져와 저장, 날씨/일기 집계와 변경 기록을 같이 남김")
+    void createDiary() {
+        //given
+
+        //when
+        List<Long> ids = diaryService.createDiary(TODAY, "안녕")
+                .concatWith(diaryService.createDiary(TODAY, "하이"))
+                .map(diary -> diary.getId())
+                .collectList()
+                .block();
+
+        //then
+        StepVerifier.create(diaryService.getDiariesByDate(TODAY).map(diary -> diary.getText() + "/" + diary.getWeather()))
+                .expectNext("안녕/Clear", "하이/Clear")
+                .verifyComplete();
+        verify(weatherClient, times(1)).fetchCurrentWeather("seoul");
+        assertEquals(1, queryLong("SELECT days FROM weather_rollup WHERE city = 'seoul' AND period_type = 'DAY' "
+                + "AND period_key = :key", PeriodType.DAY.key(TODAY)));
+        assertEquals(1, queryLong("SELECT days FROM weather_count_rollup WHERE city = 'seoul' AND period_type = 'MONTH' "
+                + "AND period_key = :key AND category = 'icon' AND item = '01d'", PeriodType.MONTH.key(TODAY)));
+        assertEquals(2, diaries(TODAY, "Clear"));
+        assertEquals(ids, changedDiaryIds(TODAY));
+    }
+
+    @Test
+    @DisplayName("일기 작성 - 오늘이 아닌 날짜에 저장된 날씨가 없으면 오늘 날씨에 연결, 일기 수는 일기 날짜로 집계")
+    void createDiary_notToday() {
+        //given
+
+        //when
+        StepVerifier.create(diaryService.createDiary(DATE, "안녕").map(diary -> diary.getDate() + "/" + diary.getWeather()))
+                .expectNext(DATE + "/Clear")
+                .verifyComplete();
+
+        //then
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM date_weather WHERE date = :key", DATE));
+        assertEquals(TODAY, databaseClient.sql("SELECT weather_date FROM diary").map(row -> row.get(0, LocalDate.class)).one().block());
+        assertEquals(1, diaries(DATE, "Clear"));
+        assertEquals(1, changedDiaryIds(DATE).size());
+    }
+
+    @Test
+    @DisplayName("일기 작성 - 날씨 API 를 쓸 수 없으면 저장된 가장 최근 날씨에 연결")
+    void createDiary_weatherApiUnavailable() {
+        //given
+        saveDiary(1, DATE, "어제").block();
+        given(weatherClient.fetchCurrentWeather("seoul"))
+                .willReturn(Mono.error(new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE)));
+
+        //when
+        StepVerifier.create(diaryService.createDiary(TODAY, "안녕").map(diary -> diary.getWeather()))
+                .expectNext("Clear")
+                .verifyComplete();
+
+        //then
+        assertEquals(0, queryLong("SELECT COUNT(*) FROM date_weather WHERE date = :key", TODAY));
+        assertEquals(1, diaries(TODAY, "Clear"));
+    }
+
+    @Test
+    @DisplayName("일기 작성 실패 - 글자 수 초과, 아무것도 남기지 않음")
+    void createDiary_textTooLong() {
+        //given
+
+        //when
+
+        //then
+        StepVerifier.create(diaryService.createDiary(TODAY, "a".repeat(256)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, ErrorCode.TEXT_TOO_LONG))
+                .verify();
+        assertEquals(0, changedDiaryIds(TODAY).size());
+    }
+
+    @Test
+    @DisplayName("일기 조회 - 해당 날짜의 일기를 작성 순서대로, id, version, 날씨와 함께")
+    void getDiariesByDate() {
+        //given
+        saveDiary(1, DATE, "안녕").then(saveDiary(2, DATE, "하이")).then(saveDiary(3, DATE.plusDays(1), "내일")).block();
+
+        //when
+        Flux<String> diaries = diaryService.getDiariesByDate(DATE)
+                .map(diary -> diary.getId() + "/" + diary.getVersion() + "/" + diary.getText() + "/" + diary.getWeather());
+
+        //then
+        StepVerifier.create(diaries)
+                .expectNext("1/0/안녕/Clear", "2/0/하이/Clear")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("기간 내 일기 조회 - 구독자가 요청한 만큼만 받음")
+    void getDiariesByDatePeriod_backpressure() {
+        //given
+        Flux.range(0, 5)
+                .concatMap(i -> saveDiary(i + 1, DATE.plusDays(i), "일기" + i))
+                .blockLast();
+
+        //when
+        Flux<String> texts = diaryService.getDiariesByDatePeriod(DATE, DATE.plusDays(4)).map(diary -> diary.getText());
+
+        //then
+        StepVerifier.create(texts, 2)
+                .expectNext("일기0", "일기1")
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(3)
+                .expectNext("일기2", "일기3", "일기4")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("기간 내 일기 조회 실패 - 일기 없음")
+    void getDiariesByDatePeriod_diaryNotFound() {
+        //given
+
+        //when
+
+        //then
+        StepVerifier.create(diaryService.getDiariesByDatePeriod(DATE, DATE.plusDays(1)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, ErrorCode.DIARY_NOT_FOUND))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("기간 내 일기 조회 실패 - 시작일이 끝날보다 늦음")
+    void getDiariesByDatePeriod_invalidPeriod() {
+        //given
+
+        //when
+
+        //then
+        StepVerifier.create(diaryService.getDiariesByDatePeriod(DATE.plusDays(1), DATE))
+                .expectErrorSatisfies(e -> assertErrorCode(e, ErrorCode.INVALID_DATE_PERIOD))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("일기 수정 - 첫번째 일기만 수정하고 version 을 올림, 변경 기록을 남김")
+    void updateDiary() {
+        //given
+        saveDiary(1, DATE, "안녕").then(saveDiary(2, DATE, "하이")).block();
+
+        //when
+        StepVerifier.create(diaryService.updateDiary(DATE, "수정")
+                        .map(diary -> diary.getId() + "/" + diary.getVersion() + "/" + diary.getText() + "/" + diary.getWeather()))
+                .expectNext("1/1/수정/Clear")
+                .verifyComplete();
+
+        //then
+        StepVerifier.create(diaryService.getDiariesByDate(DATE).map(diary -> diary.getText()))
+                .expectNext("수정", "하이")
+                .verifyComplete();
+        assertEquals(List.of(1L), changedDiaryIds(DATE));
+    }
+
+    @Test
+    @DisplayName("일기 삭제 - 해당 날짜 일기 모두 삭제하고 집계에서 뺌, 지운 일기마다 변경 기록, 다시 삭제하면 일기 없음")
+    void deleteDiary() {
+        //given
+        saveDiary(1, DATE, "안녕").then(saveDiary(2, DATE, "하이")).then(saveDiary(3, DATE.plusDays(1), "내일")).block();
+        databaseClient.sql("INSERT INTO diary_rollup (period_type, period_key, weather, diaries) VALUES ('DAY', 20240629, 'Clear', 2)")
+                .then().block();
+
+        //when
+        StepVerifier.create(diaryService.deleteDiary(DATE))
+                .expectNextMatches(diary -> diary.getDate().equals(DATE))
+                .verifyComplete();
+
+        //then
+        assertEquals(0, diaries(DATE, "Clear"));
+        assertEquals(List.of(1L, 2L), changedDiaryIds(DATE));
+        StepVerifier.create(diaryService.getDiariesByDate(DATE.plusDays(1)).map(diary -> diary.getText()))
+                .expectNext("내일")
+                .verifyComplete();
+        StepVerifier.create(diaryService.deleteDiary(DATE))
+                .expectErrorSatisfies(e -> assertErrorCode(e, ErrorCode.DIARY_NOT_FOUND))
+                .verify();
+    }
+
+    private long queryLong(String sql, Object key) {
+        return databaseClient.sql(sql)
+                .bind("key", key)
+                .map(row -> ((Number) row.get(0)).longValue())
+                .one()
+                .defaultIfEmpty(0L)
+                .block();
+    }
+
+    // 일기 날짜의 일 단위 날씨별 일기 수
+    private long diaries(LocalDate date, String weather) {
+        return queryLong("SELECT diaries FROM diary_rollup WHERE period_type = 'DAY' AND period_key = :key AND weather = '"
+                + weather + "'", PeriodType.DAY.key(date));
+    }
+
+    // 블로킹 앱이 캐시와 검색 색인에 반영할 일기 id
+    private List<Long> changedDiaryIds(LocalDate date) {
+        return databaseClient.sql("SELECT diary_id FROM diary_change WHERE diary_date = :date ORDER BY id")
+                .bind("date", date)
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .block();
+    }
+
+    // 블로킹 앱이 날씨와 일기를 저장한 것과 같은 행
+    private Mono<Void> saveDiary(long id, LocalDate date, String text) {
+        return databaseClient.sql("MERGE INTO date_weather (city, date, weather, icon, temperature) KEY (city, date) "
+                        + "VALUES ('seoul', :date, 'Clear', '01d', 303.91)")
+                .bind("date", date)
+                .then()
+                .then(databaseClient.sql("INSERT INTO diary (id, text, date, weather_city, weather_date) "
+                                + "VALUES (:id, :text, :date, 'seoul', :date)")
+                        .bind("id", id)
+                        .bind("text", text)
+                        .bind("date", date)
+                        .then());
+    }
+
+    private static void assertErrorCode(Throwable e, ErrorCode errorCode) {
+        assertInstanceOf(WeatherException.class, e);
+        assertEquals(errorCode, ((WeatherException) e).getErrorCode());
+    }
+}
@@ -0,0 +1,25 @@
+package zerobase.projectweather.client;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WeatherPayloadParserBenchmark {
+
+    // 실제 open weather map 응답과 같은 크기/구조
+    private static final String RESPONSE = "{\"coord\":{\"lon\":126.9778,\"lat\":37.5683},"
+            + "\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"base\":\"stations\",\"main\":{\"temp\":303.91,\"feels_like\":306.1,\"temp_min\":302.84,"
+            + "\"temp_max\":304.84,\"pressure\":1008,\"humidity\":55,\"sea_level\":1008,\"grnd_level\":1002},"
+            + "\"visibility\":10000,\"wind\":{\"speed\":3.6,\"deg\":250},\"clouds\":{\"all\":0},\"dt\":1719731200,"
+            + "\"sys\":{\"type\":1,\"id\":8105,\"country\":\"KR\",\"sunrise\":1719692091,\"sunset\":1719745032},"
+            + "\"timezone\":32400,\"id\":1835848,\"name\":\"Seoul\",\"cod\":200}";
+
+    @Benchmark
+    public WeatherPayload parseWeather() {
+        return WeatherPayloadParser.parse(RESPONSE);
+    }
+}
@@ -0,0 +1,99 @@
+package zerobase.projectweather.controller;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import zerobase.projectweather.ProjectWeatherApplication;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// 일기가 있는 날짜(hit) 와 없는 날짜(miss) 조회를 컨트롤러, 예외 처리, json 변환까지 포함해서 측정, 두 경우의 응답 시간이 같아야 함
+// 짝수 날짜에만 일기를 넣어둠, 네트워크 시간이 섞이지 않도록 포트를 열지 않고 MockMvc 로 요청
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryReadBenchmark {
+
+    private static final LocalDate START_DATE = LocalDate.parse("2020-01-01");
+    private static final int DAYS = 1000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProjectWeatherApplication.class)
+                // application.properties 보다 우선하도록 커맨드라인 인자로 넘김
+                .run("--server.port=-1",
+                        "--spring.datasource.url=jdbc:h2:mem:read-bench;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--diary.search.index-dir=",
+                        "--logging.level.root=WARN",
+                        "--apiKey=bench");
+        seed(context.getBean(JdbcTemplate.class));
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("INSERT INTO date_weather (city, date, weather, icon, temperature) VALUES ('seoul', ?, 'Clear', '01d', 303.91)",
+                IntStream.range(0, DAYS)
+                        .mapToObj(i -> new Object[]{Date.valueOf(START_DATE.plusDays(i))})
+                        .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate("INSERT INTO diary (id, text, date, weather_city, weather_date) VALUES (NEXT VALUE FOR diary_seq, ?, ?, 'seoul', ?)",
+                IntStream.range(0, DAYS / 2)
+                        .mapToObj(i -> {
+                            Date date = Date.valueOf(START_DATE.plusDays(i * 2L));
+                            return new Object[]{"일기 " + i, date, date};
+                        })
+                        .collect(Collectors.toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String readDiaryHit() throws Exception {
+        return get("/read/diary?date=" + randomDate(0));
+    }
+
+    @Benchmark
+    public String readDiaryMiss() throws Exception {
+        return get("/read/diary?date=" + randomDate(1));
+    }
+
+    @Benchmark
+    public String readDiariesHit() throws Exception {
+        LocalDate date = randomDate(0);
+        return get("/read/diaries?startDate=" + date + "&endDate=" + date);
+    }
+
+    @Benchmark
+    public String readDiariesMiss() throws Exception {
+        LocalDate date = randomDate(1);
+        return get("/read/diaries?startDate=" + date + "&endDate=" + date);
+    }
+
+    // parity 0: 일기가 있는 날짜, 1: 없는 날짜
+    private static LocalDate randomDate(int parity) {
+        return START_DATE.plusDays(ThreadLocalRandom.current().nextInt(DAYS / 2) * 2L + parity);
+    }
+
+    private String get(String path) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(path))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,52 @@
+package zerobase.projectweather.dto;
+
+import org.openjdk.jmh.annotations.*;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.Diary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// 조회 결과 엔티티 -> DiaryDto (서비스) -> DiaryInfo (컨트롤러) 변환 비용
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryMappingBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<Diary> diaries;
+    private List<DiaryDto> diaryDtos;
+
+    @Setup
+    public void setUp() {
+        diaries = new ArrayList<>(size);
+        LocalDate start = LocalDate.parse("2024-01-01");
+        for (int i = 0; i < size; i++) {
+            LocalDate date = start.plusDays(i % 365);
+            DateWeather weather = DateWeather.builder()
+                    .city("seoul").date(date).weather("Clear").icon("01d").temperature(303.91).build();
+            diaries.add(Diary.builder().id((long) i).date(date).weather(weather).text("오늘의 날씨는 맑음 " + i).build());
+        }
+        diaryDtos = diaries.stream().map(DiaryDto::from).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<DiaryDto> diaryDtoFrom() {
+        return diaries.stream().map(DiaryDto::from).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<DiaryInfo> diaryInfoFromDto() {
+        return diaryDtos.stream().map(DiaryInfo::from).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<DiaryInfo> entityToDiaryInfo() {
+        return diaries.stream().map(DiaryDto::from).map(DiaryInfo::from).collect(Collectors.toList());
+    }
+}
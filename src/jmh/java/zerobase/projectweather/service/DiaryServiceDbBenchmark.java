@@ -0,0 +1,81 @@
+package zerobase.projectweather.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import zerobase.projectweather.ProjectWeatherApplication;
+import zerobase.projectweather.dto.DiaryDto;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// 내장 DB(H2) 에 rows 건의 일기를 넣어두고 실제 서비스 빈으로 생성/기간 조회를 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DiaryServiceDbBenchmark {
+
+    private static final LocalDate START_DATE = LocalDate.parse("2020-01-01");
+    private static final int DAYS = 1000;
+
+    @Param({"10000", "100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private DiaryService diaryService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ProjectWeatherApplication.class)
+                .web(WebApplicationType.NONE)
+                // application.properties 보다 우선하도록 커맨드라인 인자로 넘김
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN",
+                        "--apiKey=bench");
+        diaryService = context.getBean(DiaryService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    // 모든 날짜에 날씨를 넣어둬서 createDiary 가 외부 api 를 호출하지 않도록 함
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.batchUpdate("INSERT INTO date_weather (city, date, weather, icon, temperature) VALUES ('seoul', ?, 'Clear', '01d', 303.91)",
+                IntStream.range(0, DAYS)
+                        .mapToObj(i -> new Object[]{Date.valueOf(START_DATE.plusDays(i))})
+                        .collect(Collectors.toList()));
+        jdbcTemplate.batchUpdate("INSERT INTO diary (id, text, date, weather_city, weather_date) VALUES (NEXT VALUE FOR diary_seq, ?, ?, 'seoul', ?)",
+                IntStream.range(0, rows)
+                        .mapToObj(i -> {
+                            Date date = Date.valueOf(START_DATE.plusDays(i % DAYS));
+                            return new Object[]{"일기 " + i, date, date};
+                        })
+                        .collect(Collectors.toList()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DiaryDto createDiary() {
+        LocalDate date = START_DATE.plusDays(ThreadLocalRandom.current().nextInt(DAYS));
+        return diaryService.createDiary(date, "벤치마크 일기");
+    }
+
+    // 한달치 기간 조회
+    @Benchmark
+    public List<DiaryDto> getDiariesByDatePeriod() {
+        LocalDate start = START_DATE.plusDays(ThreadLocalRandom.current().nextInt(DAYS - 30));
+        return diaryService.getDiariesByDatePeriod(start, start.plusDays(29));
+    }
+}
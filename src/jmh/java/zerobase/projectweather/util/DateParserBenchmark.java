@@ -0,0 +1,44 @@
+package zerobase.projectweather.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateParserBenchmark {
+
+    @Benchmark
+    public LocalDate dateParser() {
+        return DateParser.parse("2024-06-29");
+    }
+
+    @Benchmark
+    public LocalDate dateParserInvalid() {
+        return DateParser.parseOrNull("2024/06/29");
+    }
+
+    // 이전 방식 : SimpleDateFormat 으로 검사한 뒤 LocalDate.parse 로 다시 읽음
+    @Benchmark
+    public LocalDate simpleDateFormat() throws ParseException {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+        formatter.setLenient(false);
+        formatter.parse("2024-06-29");
+        return LocalDate.parse("2024-06-29");
+    }
+
+    @Benchmark
+    public Object simpleDateFormatInvalid() {
+        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
+        formatter.setLenient(false);
+        try {
+            return formatter.parse("2024/06/29");
+        } catch (ParseException e) {
+            return e;
+        }
+    }
+}
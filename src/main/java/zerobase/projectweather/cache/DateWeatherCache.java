@@ -0,0 +1,110 @@
+package zerobase.projectweather.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+@Component
+public class DateWeatherCache implements MeterBinder {
+
+    private final AsyncCache<DateWeatherId, DateWeather> cache;
+    private final Executor loadExecutor;
+
+    // loader 를 호출한 스레드에서 바로 실행
+    public DateWeatherCache(long expireAfterWriteSeconds, long maximumSize) {
+        this(expireAfterWriteSeconds, maximumSize, Runnable::run);
+    }
+
+    // virtual thread 를 쓰는 경우 loader 를 새 virtual thread 에서 실행
+    // caffeine 은 loader 를 ConcurrentHashMap.compute 의 synchronized 안에서 호출하므로
+    // 그 안에서 날씨 api 를 기다리면 virtual thread 가 carrier 스레드를 붙잡고 있게 됨 (pinning)
+    @Autowired
+    public DateWeatherCache(@Value("${weather.cache.expire-after-write-seconds:600}") long expireAfterWriteSeconds,
+                            @Value("${weather.cache.maximum-size:1000}") long maximumSize,
+                            Environment environment) {
+        this(expireAfterWriteSeconds, maximumSize, Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("weather-cache-") : Runnable::run);
+    }
+
+    private DateWeatherCache(long expireAfterWriteSeconds, long maximumSize, Executor loadExecutor) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        this.loadExecutor = loadExecutor;
+    }
+
+    // 같은 (도시, 날짜)로 동시에 들어온 요청은 하나의 loader 호출 결과를 함께 기다림 (single-flight)
+    // loader 가 예외를 던지면 캐시에 저장되지 않고 호출한 쪽으로 그대로 전달됨, null 을 반환하면 저장하지 않고 null 반환
+    public DateWeather get(DateWeatherId id, Function<DateWeatherId, DateWeather> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return getInTransaction(id, loader);
+        }
+        try {
+            return cache.get(id, (key, executor) -> CompletableFuture.supplyAsync(() -> loader.apply(key), loadExecutor))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    // 트랜잭션 안에서 읽은 날씨는 loader 가 저장한 날씨 행과 함께 롤백될 수 있으므로 커밋된 뒤에 캐시에 넣음
+    // loader 는 호출한 스레드에서 같은 트랜잭션(같은 커넥션)으로 실행하고, 다른 요청과 결과를 공유하지 않음
+    private DateWeather getInTransaction(DateWeatherId id, Function<DateWeatherId, DateWeather> loader) {
+        CompletableFuture<DateWeather> cached = cache.getIfPresent(id);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            return cached.join();
+        }
+        DateWeather dateWeather = loader.apply(id);
+        if (dateWeather != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().asMap().putIfAbsent(id, dateWeather);
+                }
+            });
+        }
+        return dateWeather;
+    }
+
+    public void invalidate(DateWeatherId id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    // hit/miss/eviction 을 cache.* 메트릭으로 노출
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dateWeather");
+    }
+}
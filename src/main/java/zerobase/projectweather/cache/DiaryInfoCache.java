@@ -0,0 +1,119 @@
+package zerobase.projectweather.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import zerobase.projectweather.dto.DiaryInfo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// 날짜별 일기 목록 캐시, 저장소는 spring.cache.type 으로 고름 (caffeine: 서버 한대, redis: 여러 대가 공유)
+@Component
+public class DiaryInfoCache {
+
+    public static final String CACHE_NAME = "diariesByDate";
+
+    // 날짜 hash 별 evict 횟수, 같은 칸을 쓰는 다른 날짜가 지워져도 캐시에 넣지 않을 뿐이라 크기를 고정해둠
+    private static final int STRIPES = 1024;
+
+    private final Cache cache;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public DiaryInfoCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    // Cache.get(key, loader) 는 caffeine 에서 loader 를 synchronized 안에서 실행하므로 (virtual thread pinning)
+    // 조회와 저장을 나눠서 호출, 같은 날짜가 동시에 없으면 DB 를 여러번 읽을 수 있음
+    @SuppressWarnings("unchecked")
+    public List<DiaryInfo> get(LocalDate date, Function<LocalDate, List<DiaryInfo>> loader) {
+        List<DiaryInfo> diaries = cache.get(date, List.class);
+        if (diaries == null) {
+            long generation = generation(date);
+            diaries = loader.apply(date);
+            putIfNotEvicted(date, generation, diaries);
+        }
+        return diaries;
+    }
+
+    // 캐시에 없는 날짜들만 모아서 loader 를 한번 호출하고, 읽어온 목록은 날짜별로 캐시에 넣음
+    @SuppressWarnings("unchecked")
+    public Map<LocalDate, List<DiaryInfo>> getAll(Collection<LocalDate> dates,
+                                                  Function<List<LocalDate>, Map<LocalDate, List<DiaryInfo>>> loader) {
+        Map<LocalDate, List<DiaryInfo>> result = new TreeMap<>();
+        List<LocalDate> misses = new ArrayList<>();
+        for (LocalDate date : dates) {
+            List<DiaryInfo> diaries = cache.get(date, List.class);
+            if (diaries == null) {
+                misses.add(date);
+            } else {
+                result.put(date, diaries);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<LocalDate, Long> generations = new HashMap<>();
+            misses.forEach(date -> generations.put(date, generation(date)));
+            loader.apply(misses).forEach((date, diaries) -> {
+                putIfNotEvicted(date, generations.get(date), diaries);
+                result.put(date, diaries);
+            });
+        }
+        return result;
+    }
+
+    // 트랜잭션 안에서 호출하면 커밋된 뒤에 지움
+    // 커밋 전에 지우면 다른 요청이 커밋 전 데이터를 다시 캐시에 넣을 수 있음
+    public void evict(LocalDate date) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(date);
+                }
+            });
+        } else {
+            evictNow(date);
+        }
+    }
+
+    // 읽기 시작한 뒤에 evict 가 있었으면 읽은 목록은 수정 전 내용일 수 있으므로 캐시에 남기지 않음
+    // 넣은 다음에 다시 확인해서, 확인과 넣기 사이에 evict 된 경우도 지움 (evict 는 세대를 올린 다음 지움)
+    // 쓰기 트랜잭션 안에서 읽은 목록은 커밋 전 내용일 수 있으므로 넣지 않음
+    // (redis 로 여러 대가 공유하면 다른 서버의 evict 는 알 수 없으므로 TTL 까지 남을 수 있음)
+    private void putIfNotEvicted(LocalDate date, long generation, List<DiaryInfo> diaries) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        if (generation(date) != generation) {
+            return;
+        }
+        cache.put(date, diaries);
+        if (generation(date) != generation) {
+            cache.evict(date);
+        }
+    }
+
+    private void evictNow(LocalDate date) {
+        generations.incrementAndGet(stripe(date));
+        cache.evict(date);
+    }
+
+    private long generation(LocalDate date) {
+        return generations.get(stripe(date));
+    }
+
+    private static int stripe(LocalDate date) {
+        return Math.floorMod(date.hashCode(), STRIPES);
+    }
+}
@@ -0,0 +1,9 @@
+package zerobase.projectweather.client;
+
+// circuit 이 열려 있어 날씨 api 를 호출하지 않고 바로 실패한 경우
+public class CircuitBreakerOpenException extends IllegalStateException {
+
+    public CircuitBreakerOpenException() {
+        super("weather api circuit is open");
+    }
+}
@@ -0,0 +1,30 @@
+package zerobase.projectweather.client;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 호스트마다 초당 permitsPerSecond 번까지만 요청이 나가도록 다음 요청 시각을 예약하고 그때까지 대기
+public class HostRateLimiter {
+
+    private final long intervalNanos;
+    private final ConcurrentMap<String, AtomicLong> nextFreeNanos = new ConcurrentHashMap<>();
+
+    public HostRateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire(String host) throws InterruptedException {
+        AtomicLong next = nextFreeNanos.computeIfAbsent(host, h -> new AtomicLong(System.nanoTime()));
+        long now = System.nanoTime();
+        long reserved = Math.max(next.getAndUpdate(prev -> Math.max(prev, now) + intervalNanos), now);
+        long waitNanos = reserved - now;
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package zerobase.projectweather.client;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Component
+@PropertySource(value = "classpath:application-security.properties", ignoreResourceNotFound = true)
+public class HttpWeatherClient implements WeatherClient {
+
+    // HttpClient 하나를 재사용해야 keep-alive 커넥션 풀이 유지됨
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String apiKey;
+    private final Duration readTimeout;
+
+    @Autowired
+    public HttpWeatherClient(@Value("${weather.api.base-url}") String baseUrl,
+                             @Value("${apiKey}") String apiKey,
+                             @Value("${weather.api.connect-timeout-millis:2000}") long connectTimeoutMillis,
+                             @Value("${weather.api.read-timeout-millis:3000}") long readTimeoutMillis) {
+        this(HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                        .build(),
+                baseUrl, apiKey, Duration.ofMillis(readTimeoutMillis));
+    }
+
+    public HttpWeatherClient(HttpClient httpClient, String baseUrl, String apiKey, Duration readTimeout) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.apiKey = apiKey;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public CompletableFuture<String> fetchCurrentWeather(String city) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl
+                        + "?q=" + URLEncoder.encode(city, StandardCharsets.UTF_8)
+                        + "&appid=" + apiKey))
+                .timeout(readTimeout)
+                .GET()
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new CompletionException(new WeatherApiException(response.statusCode()));
+                    }
+                    return response.body();
+                });
+    }
+}
@@ -0,0 +1,124 @@
+package zerobase.projectweather.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// HttpWeatherClient 앞에서 실패한 호출을 재시도하고, 계속 실패하면 circuit 을 열어 api 를 호출하지 않고 바로 실패시킴
+@Slf4j
+@Primary
+@Component
+public class ResilientWeatherClient implements WeatherClient, MeterBinder {
+
+    private final WeatherClient delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public ResilientWeatherClient(HttpWeatherClient delegate,
+                                  @Value("${weather.api.retry.max-attempts:3}") int maxAttempts,
+                                  @Value("${weather.api.retry.base-delay-millis:100}") long baseDelayMillis,
+                                  @Value("${weather.api.retry.max-delay-millis:1000}") long maxDelayMillis,
+                                  @Value("${weather.api.retry.budget-ratio:0.2}") double budgetRatio,
+                                  @Value("${weather.api.retry.budget-max-retries:10}") int budgetMaxRetries,
+                                  @Value("${weather.api.circuit.failure-threshold:5}") int failureThreshold,
+                                  @Value("${weather.api.circuit.open-millis:30000}") long openMillis) {
+        this(delegate, new CircuitBreaker(failureThreshold, Duration.ofMillis(openMillis), System::nanoTime),
+                new RetryBudget(budgetRatio, budgetMaxRetries), maxAttempts, baseDelayMillis, maxDelayMillis);
+    }
+
+    public ResilientWeatherClient(WeatherClient delegate, CircuitBreaker circuitBreaker, RetryBudget retryBudget,
+                                  int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    @Override
+    public CompletableFuture<String> fetchCurrentWeather(String city) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new CircuitBreakerOpenException());
+        }
+        retryBudget.onRequest();
+        return attempt(city, 1);
+    }
+
+    private CompletableFuture<String> attempt(String city, int attempt) {
+        return delegate.fetchCurrentWeather(city)
+                .thenApply(body -> {
+                    circuitBreaker.onSuccess();
+                    return body;
+                })
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!isRetryable(cause)) {
+                        // 4xx 같은 응답은 api 는 살아있는 것이므로 circuit 에 실패로 세지 않음
+                        circuitBreaker.onSuccess();
+                        return CompletableFuture.failedFuture(cause);
+                    }
+                    // 다른 요청들의 실패로 circuit 이 열렸거나 재시도 예산을 다 쓰면 더 시도하지 않음
+                    if (attempt < maxAttempts && circuitBreaker.getState() != CircuitBreaker.State.OPEN
+                            && retryBudget.tryRetry()) {
+                        retries.incrementAndGet();
+                        return CompletableFuture.runAsync(() -> { },
+                                        CompletableFuture.delayedExecutor(backoffMillis(attempt), TimeUnit.MILLISECONDS))
+                                .thenCompose(ignored -> attempt(city, attempt + 1));
+                    }
+                    if (circuitBreaker.onFailure()) {
+                        log.warn("Weather api circuit opened: {}", cause.toString());
+                    }
+                    return CompletableFuture.failedFuture(cause);
+                });
+    }
+
+    // 연결 실패, 시간 초과, 5xx/429 만 재시도
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof WeatherApiException) {
+            return ((WeatherApiException) cause).isRetryable();
+        }
+        return cause instanceof IOException;
+    }
+
+    // full jitter: 0 ~ min(max, base * 2^(attempt-1)) 중 랜덤, 동시에 실패한 요청들이 같은 시각에 다시 몰리지 않음
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // 0: CLOSED, 1: OPEN, 2: HALF_OPEN
+        Gauge.builder("weather.api.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .register(registry);
+        FunctionCounter.builder("weather.api.retries", retries, AtomicLong::get).register(registry);
+        FunctionCounter.builder("weather.api.circuit.rejected", rejected, AtomicLong::get).register(registry);
+    }
+}
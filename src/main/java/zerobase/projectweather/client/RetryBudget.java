@@ -0,0 +1,32 @@
+package zerobase.projectweather.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// 요청마다 ratio 만큼 쌓이고 재시도마다 1 씩 쓰는 토큰
+// api 가 계속 실패해도 재시도는 전체 요청의 ratio 비율 (+ 쌓아둔 maxRetries) 을 넘지 않아 장애난 서버에 요청이 몰리지 않음
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    public RetryBudget(double ratio, int maxRetries) {
+        if (ratio < 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("ratio and maxRetries must not be negative");
+        }
+        this.deposit = (long) (ratio * SCALE);
+        this.maxTokens = maxRetries * SCALE;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    public void onRequest() {
+        tokens.getAndUpdate(t -> Math.min(maxTokens, t + deposit));
+    }
+
+    // 남은 토큰이 있으면 하나 쓰고 true
+    public boolean tryRetry() {
+        return tokens.getAndUpdate(t -> t >= SCALE ? t - SCALE : t) >= SCALE;
+    }
+}
@@ -0,0 +1,20 @@
+package zerobase.projectweather.client;
+
+// 날씨 api 가 200 이 아닌 응답을 준 경우, 5xx/429 는 잠깐 뒤에 다시 시도하면 될 수 있음
+public class WeatherApiException extends IllegalStateException {
+
+    private final int statusCode;
+
+    public WeatherApiException(int statusCode) {
+        super("weather api responded " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isRetryable() {
+        return statusCode >= 500 || statusCode == 429;
+    }
+}
@@ -0,0 +1,9 @@
+package zerobase.projectweather.client;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface WeatherClient {
+
+    // 도시의 현재 날씨 응답(json) 을 비동기로 가져옴, 실패하면 future 가 예외로 완료됨
+    CompletableFuture<String> fetchCurrentWeather(String city);
+}
@@ -0,0 +1,19 @@
+package zerobase.projectweather.client;
+
+import zerobase.projectweather.domain.DateWeather;
+
+import java.time.LocalDate;
+
+// open weather map 응답에서 사용하는 값만 담음 (weather[0].main, weather[0].icon, main.temp)
+public record WeatherPayload(String weather, String icon, double temperature) {
+
+    public DateWeather toDateWeather(String city, LocalDate date) {
+        return DateWeather.builder()
+                .city(city)
+                .date(date)
+                .weather(weather)
+                .icon(icon)
+                .temperature(temperature)
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package zerobase.projectweather.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.io.IOException;
+
+// 트리(JSONObject, Map)를 만들지 않고 토큰 단위로 읽으면서 필요한 세 값만 꺼냄
+public final class WeatherPayloadParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private WeatherPayloadParser() {
+    }
+
+    public static WeatherPayload parse(String json) {
+        if (json == null || json.isEmpty()) {
+            throw malformed();
+        }
+
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw malformed();
+            }
+
+            Double temperature = null;
+            String[] weather = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("main".equals(field) && token == JsonToken.START_OBJECT) {
+                    temperature = readTemperature(parser);
+                } else if ("weather".equals(field) && token == JsonToken.START_ARRAY) {
+                    weather = readFirstWeather(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (temperature == null || weather == null || weather[0] == null || weather[1] == null) {
+                throw malformed();
+            }
+            return new WeatherPayload(weather[0], weather[1], temperature);
+        } catch (IOException e) {
+            throw malformed();
+        }
+    }
+
+    // "main": { "temp": 303.91, ... }
+    private static Double readTemperature(JsonParser parser) throws IOException {
+        Double temperature = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ("temp".equals(field) && token.isNumeric()) {
+                temperature = parser.getDoubleValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return temperature;
+    }
+
+    // "weather": [ { "main": "Clear", "icon": "01d", ... }, ... ] 첫번째 원소만 읽고 나머지는 건너뜀
+    private static String[] readFirstWeather(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw malformed();
+        }
+
+        String[] weather = new String[2];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("main".equals(field) && value == JsonToken.VALUE_STRING) {
+                weather[0] = parser.getText();
+            } else if ("icon".equals(field) && value == JsonToken.VALUE_STRING) {
+                weather[1] = parser.getText();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw malformed();
+            }
+            parser.skipChildren();
+        }
+        return weather;
+    }
+
+    private static WeatherException malformed() {
+        return new WeatherException(ErrorCode.WEATHER_PAYLOAD_MALFORMED);
+    }
+}
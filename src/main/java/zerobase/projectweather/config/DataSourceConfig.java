@@ -0,0 +1,55 @@
+package zerobase.projectweather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+// diary.datasource.replica.jdbc-url 이 있으면 읽기 전용 트랜잭션 (@Transactional(readOnly = true)) 을 replica 로 보냄
+// 없으면 spring.datasource 하나만 사용 (boot 기본 설정)
+@Configuration
+@ConditionalOnProperty("diary.datasource.replica.jdbc-url")
+public class DataSourceConfig {
+
+    // spring.datasource.url/username/password, 커넥션 풀 설정은 spring.datasource.hikari.*
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // diary.datasource.replica.jdbc-url/username/password, 커넥션 풀 설정도 같은 prefix (maximum-pool-size 등)
+    @Bean
+    @ConfigurationProperties("diary.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return DataSourceBuilder.create().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource,
+                                               HikariDataSource replicaDataSource,
+                                               @Value("${diary.ingest.node:local}") String node,
+                                               @Value("${diary.datasource.replica-lag.max-millis:1000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(new JdbcTemplate(primaryDataSource), new JdbcTemplate(replicaDataSource),
+                node, maxLagMillis, System::currentTimeMillis);
+    }
+
+    // jpa, flyway, JdbcTemplate 은 모두 이 DataSource 를 사용
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor));
+    }
+}
@@ -0,0 +1,176 @@
+package zerobase.projectweather.config;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import zerobase.projectweather.ProjectWeatherApplication;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// flyway 이전에 ddl-auto=update 로 만든 DB 를 V1 스키마 모양으로 바꿈 (migrate 할 때마다 확인하고, 이미 바뀌었으면 아무것도 안함)
+// 그 DB 는 baseline(0) 으로 표시된 뒤 V1 의 CREATE ... IF NOT EXISTS 가 모두 건너뛰므로 V2 의 FK 전에 여기서 맞춰야 함
+// - date_weather : PK (date) -> (city, date), city 가 없거나 비어있으면 기본 도시로 채움
+// - diary : weather_city 를 추가하고 weather_date 가 있는 일기는 기본 도시로 채움, 예전 날씨 FK 는 지움 (V2 가 새로 만듦)
+// - diary_seq : IDENTITY 로 발급된 id 와 겹치지 않도록 MAX(id) 위에서 시작
+@Component
+public class DdlAutoSchemaUpgrade implements Callback {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class);
+
+    // Diary 의 @SequenceGenerator allocationSize 와 같아야 함
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    private final String defaultCity;
+
+    public DdlAutoSchemaUpgrade(@Value("${weather.default-city}") String defaultCity) {
+        this.defaultCity = defaultCity;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        try {
+            upgrade(context.getConnection());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to upgrade ddl-auto schema", e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "ddlAutoSchemaUpgrade";
+    }
+
+    private void upgrade(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String dateWeather = table(metaData, "date_weather");
+        String diary = table(metaData, "diary");
+        if (dateWeather == null || diary == null) {
+            // 빈 DB, V1 이 만듦
+            return;
+        }
+
+        boolean upgraded = false;
+        if (!primaryKey(metaData, dateWeather).equals(List.of("city", "date"))) {
+            logger.info("Upgrade ddl-auto schema: date_weather primary key (city, date), city {}", defaultCity);
+            // PK 를 바꾸기 전에 예전 PK 를 참조하는 FK (hibernate 가 만든 diary.weather_date FK) 를 지움
+            for (String foreignKey : foreignKeys(metaData, dateWeather)) {
+                execute(connection, "ALTER TABLE diary DROP FOREIGN KEY " + foreignKey);
+            }
+            if (!hasColumn(metaData, dateWeather, "city")) {
+                execute(connection, "ALTER TABLE date_weather ADD COLUMN city VARCHAR(255)");
+            }
+            update(connection, "UPDATE date_weather SET city = ? WHERE city IS NULL", defaultCity);
+            execute(connection, "ALTER TABLE date_weather MODIFY city VARCHAR(255) NOT NULL");
+            execute(connection, "ALTER TABLE date_weather DROP PRIMARY KEY");
+            execute(connection, "ALTER TABLE date_weather ADD PRIMARY KEY (city, date)");
+            upgraded = true;
+        }
+
+        if (!hasColumn(metaData, diary, "weather_city")) {
+            logger.info("Upgrade ddl-auto schema: diary.weather_city, city {}", defaultCity);
+            execute(connection, "ALTER TABLE diary ADD COLUMN weather_city VARCHAR(255)");
+            upgraded = true;
+        }
+        // 도시별 날씨 이전에 쓴 일기 (ddl-auto 가 weather_city 를 먼저 추가했으면 비어 있음)
+        if (upgraded) {
+            update(connection, "UPDATE diary SET weather_city = ? WHERE weather_city IS NULL AND weather_date IS NOT NULL", defaultCity);
+        }
+
+        // pooled optimizer 는 nextval 아래 allocationSize 만큼을 쓸 수도 있으므로 그만큼 더 띄움
+        long start = maxDiaryId(connection) + ID_ALLOCATION_SIZE + 1;
+        execute(connection, "CREATE SEQUENCE IF NOT EXISTS diary_seq START WITH " + start + " INCREMENT BY " + ID_ALLOCATION_SIZE);
+    }
+
+    // 테이블 이름의 대소문자는 DB 마다 다르므로 (H2 는 대문자) 실제 이름을 찾음
+    private static String table(DatabaseMetaData metaData, String name) throws SQLException {
+        try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(), metaData.getConnection().getSchema(),
+                null, null)) {
+            while (tables.next()) {
+                if (tables.getString("TABLE_NAME").equalsIgnoreCase(name)) {
+                    return tables.getString("TABLE_NAME");
+                }
+            }
+        }
+        return null;
+    }
+
+    // PK 컬럼 (소문자, KEY_SEQ 순서)
+    private static List<String> primaryKey(DatabaseMetaData metaData, String table) throws SQLException {
+        Map<Short, String> columns = new TreeMap<>();
+        try (ResultSet keys = metaData.getPrimaryKeys(metaData.getConnection().getCatalog(), metaData.getConnection().getSchema(), table)) {
+            while (keys.next()) {
+                columns.put(keys.getShort("KEY_SEQ"), keys.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        return new ArrayList<>(columns.values());
+    }
+
+    // table 을 참조하는 FK 이름
+    private static List<String> foreignKeys(DatabaseMetaData metaData, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (ResultSet keys = metaData.getExportedKeys(metaData.getConnection().getCatalog(), metaData.getConnection().getSchema(), table)) {
+            while (keys.next()) {
+                String name = keys.getString("FK_NAME");
+                if (keys.getString("FKTABLE_NAME").equalsIgnoreCase("diary") && !names.contains(name)) {
+                    names.add(name);
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean hasColumn(DatabaseMetaData metaData, String table, String column) throws SQLException {
+        try (ResultSet columns = metaData.getColumns(metaData.getConnection().getCatalog(), metaData.getConnection().getSchema(), table, null)) {
+            while (columns.next()) {
+                if (columns.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long maxDiaryId(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM diary")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void update(Connection connection, String sql, String value) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, value);
+            statement.executeUpdate();
+        }
+    }
+}
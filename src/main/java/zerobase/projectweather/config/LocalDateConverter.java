@@ -0,0 +1,17 @@
+package zerobase.projectweather.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+import zerobase.projectweather.util.DateParser;
+
+import java.time.LocalDate;
+
+// @RequestParam 으로 받는 날짜를 LocalDate 로 바로 바꿈
+@Component
+public class LocalDateConverter implements Converter<String, LocalDate> {
+
+    @Override
+    public LocalDate convert(String source) {
+        return DateParser.parse(source);
+    }
+}
@@ -0,0 +1,24 @@
+package zerobase.projectweather.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.springframework.boot.jackson.JsonComponent;
+import zerobase.projectweather.util.DateParser;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+// 요청 body 의 날짜도 같은 파서로 읽어서 잘못된 형식은 INVALID_DATE_FORMAT 으로 응답
+@JsonComponent
+public class LocalDateDeserializer extends JsonDeserializer<LocalDate> {
+
+    @Override
+    public LocalDate deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            return (LocalDate) ctxt.handleUnexpectedToken(LocalDate.class, p);
+        }
+        return DateParser.parse(p.getText());
+    }
+}
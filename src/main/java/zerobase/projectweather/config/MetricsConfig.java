@@ -0,0 +1,36 @@
+package zerobase.projectweather.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import zerobase.projectweather.exception.WeatherException;
+
+@Configuration
+public class MetricsConfig {
+
+    private static final KeyValue NO_ERROR_CODE = KeyValue.of("error.code", "none");
+
+    // WeatherException 은 200 으로 응답하므로 http.server.requests 에 에러 코드 태그를 붙여서 구분
+    @Bean
+    public ServerRequestObservationConvention errorCodeObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(errorCode(context.getError()));
+            }
+        };
+    }
+
+    private static KeyValue errorCode(Throwable error) {
+        Throwable cause = error == null ? null : NestedExceptionUtils.getMostSpecificCause(error);
+        if (cause instanceof WeatherException) {
+            return KeyValue.of("error.code", ((WeatherException) cause).getErrorCode().name());
+        }
+        return NO_ERROR_CODE;
+    }
+}
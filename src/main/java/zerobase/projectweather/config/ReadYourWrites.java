@@ -0,0 +1,75 @@
+package zerobase.projectweather.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// 트랜잭션이 읽고 쓰는 키 (일기 날짜 LocalDate, 일기 id Long, 날씨 DateWeatherId) 를 트랜잭션에 기록함
+// ReplicaRoutingDataSource 는 쓰기 트랜잭션이 commit 되면 쓴 키와 시각을 남기고,
+// 읽기 트랜잭션은 읽는 키 중 replica 에 아직 반영되지 않은 것이 있을 때만 primary 에서 읽음
+// 읽는 키는 첫 쿼리 전에 (연결을 고르기 전에) 기록해야 함, 트랜잭션 밖에서는 아무것도 하지 않음
+public final class ReadYourWrites {
+
+    private static final Object READ_KEYS = new Object();
+    private static final Object WRITTEN_KEYS = new Object();
+
+    private ReadYourWrites() {
+    }
+
+    public static void read(Object key) {
+        read(Collections.singleton(key));
+    }
+
+    public static void read(Collection<?> keys) {
+        Set<Object> bound = bind(READ_KEYS);
+        if (bound != null) {
+            bound.addAll(keys);
+        }
+    }
+
+    public static void wrote(Object key) {
+        wrote(Collections.singleton(key));
+    }
+
+    public static void wrote(Collection<?> keys) {
+        Set<Object> bound = bind(WRITTEN_KEYS);
+        if (bound != null) {
+            bound.addAll(keys);
+        }
+    }
+
+    static Set<Object> readKeys() {
+        Set<Object> bound = bind(READ_KEYS);
+        return bound == null ? Set.of() : bound;
+    }
+
+    // commit 될 때까지 기록되는 키가 모두 들어가는 set, 트랜잭션 밖이면 null
+    static Set<Object> writtenKeys() {
+        return bind(WRITTEN_KEYS);
+    }
+
+    // 트랜잭션이 끝나면 풀리도록 처음 기록할 때 같이 등록
+    @SuppressWarnings("unchecked")
+    private static Set<Object> bind(Object resourceKey) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Set<Object> keys = (Set<Object>) TransactionSynchronizationManager.getResource(resourceKey);
+        if (keys == null) {
+            keys = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(resourceKey, keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+                }
+            });
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,140 @@
+package zerobase.projectweather.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import zerobase.projectweather.ProjectWeatherApplication;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// replica 복제 지연을 heartbeat 로 잼
+// 주기마다 replica 에서 이 서버의 heartbeat 를 읽고, primary 에는 현재 시각을 씀
+// replica 에서 읽은 값(replicatedUntil)까지의 primary 변경은 replica 에 반영된 것으로 봄
+public class ReplicaLagMonitor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class);
+
+    private static final String SELECT_SQL = "SELECT beat_millis FROM replication_heartbeat WHERE node = ?";
+
+    private static final String UPSERT_SQL = "INSERT INTO replication_heartbeat (node, beat_millis) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)";
+
+    // 지연을 모를 때 (처음 띄웠을 때, replica 에 연결할 수 없을 때)
+    private static final long UNKNOWN = Long.MAX_VALUE;
+    private static final int MAX_BEATS = 10000;
+    private static final int MAX_WRITTEN_KEYS = 10000;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String node;
+    private final long maxLagMillis;
+    private final LongSupplier clock;
+
+    // primary 에 썼지만 replica 에서 아직 읽지 못한 heartbeat (오래된 순서)
+    private final Deque<Long> beats = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    // 이 서버가 쓴 키별 마지막 commit 시각, replica 에 반영된 키는 check 에서 지움
+    private final ConcurrentHashMap<Object, Long> writtenKeys = new ConcurrentHashMap<>();
+
+    private volatile long lagMillis = UNKNOWN;
+    private volatile long replicatedUntil = Long.MIN_VALUE;
+    // 쓴 키를 모르는 쓰기 (또는 키가 너무 많이 쌓였을 때) 를 마지막으로 commit 한 시각, 키를 읽는 모든 조회에 적용
+    private volatile long lastWriteMillis = Long.MIN_VALUE;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, String node, long maxLagMillis, LongSupplier clock) {
+        this.primary = primary;
+        this.replica = replica;
+        this.node = node;
+        this.maxLagMillis = maxLagMillis;
+        this.clock = clock;
+    }
+
+    // replica 를 먼저 읽고 primary 에 써야 방금 쓴 heartbeat 를 읽은 것으로 착각하지 않음
+    @Scheduled(fixedDelayString = "${diary.datasource.replica-lag.check-millis:500}")
+    public void check() {
+        lock.lock();
+        try {
+            List<Long> replicated = replica.queryForList(SELECT_SQL, Long.class, node);
+            long now = clock.getAsLong();
+            if (!replicated.isEmpty()) {
+                replicatedUntil = replicated.get(0);
+                long until = replicatedUntil;
+                writtenKeys.values().removeIf(millis -> millis < until);
+            }
+            // replica 에 없는 가장 오래된 heartbeat 를 쓴 뒤로 지난 시간이 지연
+            // 이 서버가 쓴 heartbeat 가 없으면 (처음 띄웠을 때 replica 에 남아 있던 값) 지연을 모르는 채로 둠
+            if (!beats.isEmpty()) {
+                while (!beats.isEmpty() && beats.peekFirst() <= replicatedUntil) {
+                    beats.pollFirst();
+                }
+                lagMillis = beats.isEmpty() ? 0 : now - beats.peekFirst();
+            }
+
+            primary.update(UPSERT_SQL, node, now);
+            // 복제가 멈춘 동안 계속 쌓이지 않도록, 가장 오래된 heartbeat 만 있으면 지연은 잴 수 있음
+            if (beats.size() < MAX_BEATS) {
+                beats.addLast(now);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to check replica lag, read from primary: {}", e.toString());
+            lagMillis = UNKNOWN;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 지연이 max-lag-millis 이하이고, 읽는 키를 이 서버가 마지막으로 쓴 내용까지 replica 에 반영됐을 때만 replica 에서 읽음
+    // 방금 수정한 일기를 replica 에서 이전 내용으로 읽어 캐시에 다시 넣는 일이 없도록
+    // 다른 키를 계속 쓰고 있어도 읽는 키와 상관없으면 replica 에서 읽음, 키를 기록하지 않은 조회는 max-lag-millis 로만 제한
+    public boolean isReplicaUsable(Collection<?> readKeys) {
+        if (lagMillis > maxLagMillis) {
+            return false;
+        }
+        if (readKeys.isEmpty()) {
+            return true;
+        }
+        long until = replicatedUntil;
+        if (lastWriteMillis >= until) {
+            return false;
+        }
+        for (Object key : readKeys) {
+            Long written = writtenKeys.get(key);
+            if (written != null && written >= until) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // primary 트랜잭션이 commit 된 뒤 호출
+    public void markWrite(Collection<?> keys) {
+        long now = clock.getAsLong();
+        if (keys.isEmpty() || writtenKeys.size() + keys.size() > MAX_WRITTEN_KEYS) {
+            lastWriteMillis = now;
+            return;
+        }
+        keys.forEach(key -> writtenKeys.merge(key, now, Math::max));
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    // 지연을 모르면 NaN
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.replica.lag", this, monitor -> monitor.lagMillis == UNKNOWN ? Double.NaN : monitor.lagMillis)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
@@ -0,0 +1,50 @@
+package zerobase.projectweather.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Set;
+
+// readOnly 트랜잭션은 replica, 나머지 (쓰기 트랜잭션, 트랜잭션 밖의 쿼리) 는 primary 로 보냄
+// replica 가 max-lag-millis 보다 늦거나, 읽는 키 (ReadYourWrites) 를 이 서버가 쓴 내용까지 아직 못 따라왔으면 readOnly 도 primary 에서 읽음
+// 트랜잭션을 시작할 때는 readOnly 여부가 아직 정해지지 않으므로 LazyConnectionDataSourceProxy 로 감싸서
+// 첫 쿼리를 실행할 때 연결을 고르도록 해야 함
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return replicaLagMonitor.isReplicaUsable(ReadYourWrites.readKeys()) ? Route.REPLICA : Route.PRIMARY;
+        }
+        // 쓰기 트랜잭션은 commit 된 시각을 쓴 키마다 남겨서 replica 가 따라올 때까지 그 키를 읽을 때는 primary 에서
+        Set<Object> written = ReadYourWrites.writtenKeys();
+        if (written != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicaLagMonitor.markWrite(written);
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+}
@@ -1,34 +1,23 @@
 package zerobase.projectweather.config;
 
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.info.Info;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import springfox.documentation.builders.ApiInfoBuilder;
-import springfox.documentation.builders.PathSelectors;
-import springfox.documentation.builders.RequestHandlerSelectors;
-import springfox.documentation.service.ApiInfo;
-import springfox.documentation.spi.DocumentationType;
-import springfox.documentation.spring.web.plugins.Docket;
-import springfox.documentation.swagger2.annotations.EnableSwagger2;
 
+// springdoc : /swagger-ui.html, /v3/api-docs (문서화할 패키지는 springdoc.packages-to-scan)
 @Configuration
-@EnableSwagger2
 public class SwaggerConfig {
     @Bean
-    public Docket api() {
-        return new Docket(DocumentationType.SWAGGER_2)
-                .select()
-                .apis(RequestHandlerSelectors.basePackage("zerobase.projectweather"))
-                .paths(PathSelectors.any())
-                .build().apiInfo(apiInfo());
+    public OpenAPI openAPI() {
+        return new OpenAPI().info(apiInfo());
     }
 
-
-    private ApiInfo apiInfo() {
-        return new ApiInfoBuilder()
+    private Info apiInfo() {
+        return new Info()
                 .title("날씨 일기 프로젝트")
                 .description("날씨 일기를 CRUD 할 수 있는 백엔드 API 입니다")
-                .version("1.0")
-                .build();
+                .version("1.0");
     }
 
 }
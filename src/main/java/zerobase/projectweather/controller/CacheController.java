@@ -0,0 +1,20 @@
+package zerobase.projectweather.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.dto.CacheStatsInfo;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+    private final DateWeatherCache dateWeatherCache;
+
+    @Operation(summary = "날씨 캐시 통계", description = "날씨 캐시의 hit/miss/load 시간 통계를 확인합니다")
+    @GetMapping("/cache/weather/stats")
+    public CacheStatsInfo weatherCacheStats() {
+        return CacheStatsInfo.from(dateWeatherCache.stats(), dateWeatherCache.size());
+    }
+}
@@ -1,18 +1,45 @@
 package zerobase.projectweather.controller;
 
-import io.swagger.annotations.ApiOperation;
-import io.swagger.annotations.ApiParam;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import zerobase.projectweather.dto.BulkCreateDiary;
 import zerobase.projectweather.dto.CreateDiary;
 import zerobase.projectweather.dto.DeleteDiary;
 import zerobase.projectweather.dto.DiaryDto;
 import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.dto.DiaryPage;
+import zerobase.projectweather.dto.ErrorResponse;
+import zerobase.projectweather.dto.IngestTicket;
+import zerobase.projectweather.dto.UpdateDiary;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.service.DiaryIngestService;
 import zerobase.projectweather.service.DiaryService;
+import zerobase.projectweather.type.ErrorCode;
 
-import javax.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -20,50 +47,149 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DiaryController {
     private final DiaryService diaryService;
+    private final DiaryIngestService diaryIngestService;
+    private final ObjectMapper objectMapper;
 
-    @ApiOperation(value = "날씨 일기 생성", notes = "날짜와 일기 내용을 작성해주세요")
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final Pattern VERSION_ETAG = Pattern.compile("\"\\d{1,18}\"");
+
+    // 일기가 없는 날짜는 크롤러 등이 많이 조회하므로 예외를 던지지 않고 (스택 트레이스, ERROR 로그 없이) 미리 만들어둔 응답을 그대로 돌려줌
+    private static final ErrorResponse DIARY_NOT_FOUND = new ErrorResponse(ErrorCode.DIARY_NOT_FOUND, ErrorCode.DIARY_NOT_FOUND.getDescription());
+
+    @Operation(summary = "날씨 일기 생성", description = "날짜와 일기 내용을 작성해주세요 \n 비동기 접수(diary.ingest.async=true)인 경우 저장을 기다리지 않고 202 와 접수 번호를 돌려줍니다.")
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = CreateDiary.Response.class)))
+    @ApiResponse(responseCode = "202", content = @Content(schema = @Schema(implementation = IngestTicket.class)))
     @PostMapping("/create/diary")
-    public CreateDiary.Response createDiary(@RequestBody @Valid CreateDiary.Request request) {
-        return CreateDiary.Response.from(diaryService.createDiary(request.getDate(), request.getText()));
+    public ResponseEntity<Object> createDiary(@RequestBody @Valid CreateDiary.Request request) {
+        if (diaryIngestService.isEnabled()) {
+            IngestTicket ticket = diaryIngestService.submit(request.getDate(), request.getText());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/create/diary/tickets/" + ticket.getTicket()))
+                    .body(ticket);
+        }
+        return ResponseEntity.ok(CreateDiary.Response.from(diaryService.createDiary(request.getDate(), request.getText())));
+    }
+
+    @Operation(summary = "비동기 접수한 일기 상태", description = "접수 번호의 일기가 저장됐는지(PERSISTED) 기다리는 중인지(PENDING) 알려줍니다 \n 접수한 서버에서만 확인할 수 있습니다.")
+    @GetMapping("/create/diary/tickets/{ticket}")
+    public IngestTicket readIngestTicket(@PathVariable("ticket") long ticket) {
+        return diaryIngestService.getStatus(ticket);
+    }
+
+    @Operation(summary = "날씨 일기 여러개 생성", description = "날짜와 일기 내용 목록을 JSON 배열로 보내주세요 \n 하나라도 잘못되면 모두 저장되지 않습니다.")
+    @PostMapping(value = "/create/diaries", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkCreateDiary.Response createDiaries(@RequestBody List<CreateDiary.Request> requests) {
+        return BulkCreateDiary.Response.from(diaryService.createDiaries(requests.iterator()));
     }
 
-    @ApiOperation(value = "날씨 일기 특정 날짜 읽어오기", notes = "보고 싶은 일기들의 날짜를 입력해주세요")
+    @Operation(summary = "날씨 일기 여러개 생성 (NDJSON)", description = "한 줄에 일기 하나씩 보내주세요 \n 요청 전체를 메모리에 올리지 않고 읽으면서 저장합니다.")
+    @PostMapping(value = "/create/diaries", consumes = APPLICATION_NDJSON)
+    public BulkCreateDiary.Response createDiariesStream(HttpServletRequest request) throws IOException {
+        try (MappingIterator<CreateDiary.Request> requests = objectMapper.readerFor(CreateDiary.Request.class)
+                .readValues(request.getInputStream())) {
+            return BulkCreateDiary.Response.from(diaryService.createDiaries(requests));
+        } catch (RuntimeJsonMappingException e) {
+            // 날짜 형식이 잘못된 경우는 파서가 던진 에러를 그대로 응답
+            Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+            if (cause instanceof WeatherException) {
+                throw (WeatherException) cause;
+            }
+            throw new WeatherException(ErrorCode.INVALID_REQUEST_BODY);
+        }
+    }
+
+    @Operation(summary = "날씨 일기 특정 날짜 읽어오기", description = "보고 싶은 일기들의 날짜를 입력해주세요 \n 일기가 없으면 DIARY_NOT_FOUND 에러 응답을 돌려줍니다.")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = DiaryInfo.class))))
     @GetMapping("/read/diary")
-    public List<DiaryInfo> readDiary(@RequestParam("date") @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-06-29") String date) {
-        List<DiaryDto> diaryInfos = diaryService.getDiariesByDate(date);
-        return diaryInfos.stream().map(diaryDto ->
-                        DiaryInfo.builder()
-                                .date(diaryDto.getDate())
-                                .weather(diaryDto.getWeather())
-                                .text(diaryDto.getText())
-                                .build())
-                .collect(Collectors.toList());
+    public ResponseEntity<?> readDiary(@RequestParam("date") @Parameter(description = "날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate date) {
+        List<DiaryInfo> diaries = diaryService.getDiariesByDate(date);
+        return diaries.isEmpty() ? ResponseEntity.ok(DIARY_NOT_FOUND) : ResponseEntity.ok(diaries);
     }
 
-    @ApiOperation(value = "날씨 일기 기간 내 읽어오기", notes = "보고 싶은 일기의 기간중 시작날짜와 끝날짜를 입력해주세요")
+    @Operation(summary = "날씨 일기 하나 읽어오기", description = "일기 id 로 읽어옵니다 \n 응답의 ETag 를 수정할 때 If-Match 헤더로 보내주세요.")
+    @GetMapping("/read/diary/{id}")
+    public ResponseEntity<DiaryInfo> readDiaryById(@PathVariable("id") long id) {
+        DiaryDto diary = diaryService.getDiary(id);
+        return ResponseEntity.ok().eTag(String.valueOf(diary.getVersion())).body(DiaryInfo.from(diary));
+    }
+
+    @Operation(summary = "날씨 일기 여러 날짜 읽어오기", description = "보고 싶은 날짜들을 쉼표로 구분해서 입력해주세요 (최대 366개) \n 날짜별로 묶어서 돌려주고 일기가 없는 날짜는 빈 목록입니다.")
+    @GetMapping("/read/diaries/dates")
+    public Map<LocalDate, List<DiaryInfo>> readDiariesByDates(@RequestParam(value = "dates", required = false) @Parameter(description = "날짜 형식 : yyyy-MM-dd", example = "2024-06-28,2024-06-29") List<LocalDate> dates) {
+        return diaryService.getDiariesByDates(dates == null ? List.of() : dates);
+    }
+
+    @Operation(summary = "날씨 일기 기간 내 읽어오기", description = "보고 싶은 일기의 기간중 시작날짜와 끝날짜를 입력해주세요")
+    @ApiResponse(responseCode = "200", content = @Content(array = @ArraySchema(schema = @Schema(implementation = DiaryInfo.class))))
     @GetMapping("/read/diaries")
-    public List<DiaryInfo> readDiaries(@RequestParam("startDate") @ApiParam(value = "조회할 기간의 첫번째 날 \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-29") String startDate,
-                                       @RequestParam("endDate") @ApiParam(value = "조회할 기간의 마지막 날 \n날짜 형식 : yyyy-MM-dd", example = "2024-06-29") String endDate) {
+    public ResponseEntity<?> readDiaries(@RequestParam("startDate") @Parameter(description = "조회할 기간의 첫번째 날 \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate startDate,
+                                         @RequestParam("endDate") @Parameter(description = "조회할 기간의 마지막 날 \n날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate endDate) {
         List<DiaryDto> diaryInfos = diaryService.getDiariesByDatePeriod(startDate, endDate);
-        return diaryInfos.stream().map(diaryDto ->
-                        DiaryInfo.builder()
-                                .date(diaryDto.getDate())
-                                .weather(diaryDto.getWeather())
-                                .text(diaryDto.getText())
-                                .build())
-                .collect(Collectors.toList());
+        if (diaryInfos.isEmpty()) {
+            return ResponseEntity.ok(DIARY_NOT_FOUND);
+        }
+        return ResponseEntity.ok(diaryInfos.stream().map(DiaryInfo::from).collect(Collectors.toList()));
+    }
+
+    @Operation(summary = "날씨 일기 기간 내 페이지 단위로 읽어오기", description = "첫 페이지는 cursor 없이 요청하고, 다음 페이지는 응답의 nextCursor 를 넣어주세요")
+    @GetMapping("/read/diaries/page")
+    public DiaryPage readDiaryPage(@RequestParam("startDate") @Parameter(description = "조회할 기간의 첫번째 날 \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate startDate,
+                                   @RequestParam("endDate") @Parameter(description = "조회할 기간의 마지막 날 \n날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate endDate,
+                                   @RequestParam(value = "cursor", required = false) @Parameter(description = "이전 응답의 nextCursor") String cursor,
+                                   @RequestParam(value = "size", defaultValue = "100") @Parameter(description = "페이지 크기 (1 ~ 1000)", example = "100") int size) {
+        return diaryService.getDiaryPageByDatePeriod(startDate, endDate, cursor, size);
+    }
+
+    @Operation(summary = "날씨 일기 기간 내 스트리밍으로 읽어오기", description = "기간 내 일기를 한 줄에 하나씩 (NDJSON) 내려줍니다")
+    @GetMapping(value = "/read/diaries/stream", produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamDiaries(@RequestParam("startDate") @Parameter(description = "조회할 기간의 첫번째 날 \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate startDate,
+                                                               @RequestParam("endDate") @Parameter(description = "조회할 기간의 마지막 날 \n날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate endDate) {
+        // 응답을 쓰기 시작하면 에러 응답으로 바꿀 수 없으므로 기간 검증은 먼저 함
+        diaryService.checkDatePeriod(startDate, endDate);
+
+        StreamingResponseBody body = outputStream -> diaryService.streamDiariesByDatePeriod(startDate, endDate, diaryInfo -> {
+            try {
+                // writeValue(OutputStream) 는 쓰고 나서 스트림을 닫으므로 byte[] 로 써야 함
+                outputStream.write(objectMapper.writeValueAsBytes(diaryInfo));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().body(body);
     }
 
-    @ApiOperation(value = "날씨 일기 수정", notes = "수정하고 싶은 일기의 날짜와 수정할 내용을 입력해주세요 \n 해당 날짜의 첫번째 일기의 내용이 수정됩니다.")
+    @Operation(summary = "날씨 일기 수정", description = "수정하고 싶은 일기의 날짜와 수정할 내용을 입력해주세요 \n 해당 날짜의 첫번째 일기의 내용이 수정됩니다.")
     @PutMapping("/update/diary")
     public CreateDiary.Response updateDiary(@RequestBody @Valid CreateDiary.Request request) {
         return CreateDiary.Response.from(diaryService.updateDiary(request.getDate(), request.getText()));
 
     }
 
-    @ApiOperation(value = "날씨 일기 삭제", notes = "삭제하고 싶은 일기의 날짜를 입력해주세요 \n 해당 날짜의 일기를 모두 삭제합니다.")
+    @Operation(summary = "날씨 일기 id 로 수정", description = "읽어올 때 받은 ETag 를 If-Match 헤더로 보내주세요 \n 그 사이 다른 요청이 먼저 수정했으면 412 를 돌려주므로 다시 읽어서 수정해주세요.")
+    @PutMapping("/update/diary/{id}")
+    public ResponseEntity<DiaryInfo> updateDiaryById(@PathVariable("id") long id,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "일기 ETag", example = "\"0\"") String ifMatch,
+                                                     @RequestBody @Valid UpdateDiary.Request request) {
+        DiaryDto diary = diaryService.updateDiary(id, parseVersion(ifMatch), request.getText());
+        return ResponseEntity.ok().eTag(String.valueOf(diary.getVersion())).body(DiaryInfo.from(diary));
+    }
+
+    // ETag 는 일기 버전을 따옴표로 감싼 값 ("3"), If-Match 는 강한 비교라서 약한 ETag (W/"3") 나 * 는 일치하지 않는 것으로 봄
+    private static long parseVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new WeatherException(ErrorCode.DIARY_VERSION_REQUIRED);
+        }
+        String tag = ifMatch.trim();
+        if (!VERSION_ETAG.matcher(tag).matches()) {
+            throw new WeatherException(ErrorCode.DIARY_VERSION_CONFLICT);
+        }
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+    }
+
+    @Operation(summary = "날씨 일기 삭제", description = "삭제하고 싶은 일기의 날짜를 입력해주세요 \n 해당 날짜의 일기를 모두 삭제합니다.")
     @DeleteMapping(value = "/delete/diary")
-    public DeleteDiary.Response deleteDiary(@RequestParam("date") String date) {
+    public DeleteDiary.Response deleteDiary(@RequestParam("date") LocalDate date) {
         return DeleteDiary.Response.from(diaryService.deleteDiary(date));
     }
 
@@ -0,0 +1,29 @@
+package zerobase.projectweather.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.service.DiarySearchService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SearchController {
+    private final DiarySearchService diarySearchService;
+
+    @Operation(summary = "일기 내용 검색", description = "일기 내용에 검색어가 들어간 일기를 관련도 순으로 가져옵니다 \n 여러 단어는 모두 포함, \"...\" 는 구문, -단어 는 제외")
+    @GetMapping("/search/diaries")
+    public List<DiaryInfo> searchDiaries(@RequestParam(value = "q", required = false) @Parameter(description = "검색어", example = "산책") String query,
+                                         @RequestParam(value = "startDate", required = false) @Parameter(description = "검색할 기간의 첫번째 날 (없으면 처음부터) \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-01") LocalDate startDate,
+                                         @RequestParam(value = "endDate", required = false) @Parameter(description = "검색할 기간의 마지막 날 (없으면 끝까지) \n 날짜 형식 : yyyy-MM-dd", example = "2024-06-30") LocalDate endDate,
+                                         @RequestParam(value = "weather", required = false) @Parameter(description = "날씨 (없으면 전체)", example = "Rain") String weather,
+                                         @RequestParam(value = "size", defaultValue = "20") @Parameter(description = "가져올 일기 수 (1 ~ 100)", example = "20") int size) {
+        return diarySearchService.searchDiaries(query, startDate, endDate, weather, size);
+    }
+}
@@ -0,0 +1,35 @@
+package zerobase.projectweather.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import zerobase.projectweather.dto.DiaryStatistics;
+import zerobase.projectweather.dto.WeatherStatistics;
+import zerobase.projectweather.service.RollupService;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+
+@RestController
+@RequiredArgsConstructor
+public class StatisticsController {
+    private final RollupService rollupService;
+
+    @Operation(summary = "날씨 통계", description = "도시의 일/월/연 단위 평균 기온, 날씨 종류별/아이콘별 일 수 \n date 가 속한 기간의 통계를 돌려줍니다.")
+    @GetMapping("/stats/weather")
+    public WeatherStatistics weatherStatistics(@RequestParam(value = "city", defaultValue = "${weather.default-city}") @Parameter(description = "도시 (없으면 기본 도시)", example = "seoul") String city,
+                                               @RequestParam("period") @Parameter(description = "DAY, MONTH, YEAR", example = "MONTH") PeriodType period,
+                                               @RequestParam("date") @Parameter(description = "날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate date) {
+        return rollupService.getWeatherStatistics(city, period, date);
+    }
+
+    @Operation(summary = "일기 통계", description = "일/월/연 단위 날씨 종류별 일기 수 \n date 가 속한 기간의 통계를 돌려줍니다.")
+    @GetMapping("/stats/diaries")
+    public DiaryStatistics diaryStatistics(@RequestParam("period") @Parameter(description = "DAY, MONTH, YEAR", example = "MONTH") PeriodType period,
+                                           @RequestParam("date") @Parameter(description = "날짜 형식 : yyyy-MM-dd", example = "2024-06-29") LocalDate date) {
+        return rollupService.getDiaryStatistics(period, date);
+    }
+}
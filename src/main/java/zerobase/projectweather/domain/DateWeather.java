@@ -2,20 +2,28 @@ package zerobase.projectweather.domain;
 
 import lombok.*;
 
-import javax.persistence.Entity;
-import javax.persistence.Id;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
 import java.time.LocalDate;
 
 @Getter
 @Entity(name = "date_weather")
+@IdClass(DateWeatherId.class)
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
 public class DateWeather {
 
+    @Id
+    private String city;
     @Id
     private LocalDate date;
     private String weather;
     private String icon;
     private double temperature;
-}
\ No newline at end of file
+
+    public DateWeatherId getId() {
+        return new DateWeatherId(city, date);
+    }
+}
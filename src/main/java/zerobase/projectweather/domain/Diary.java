@@ -2,7 +2,7 @@ package zerobase.projectweather.domain;
 
 import lombok.*;
 
-import javax.persistence.*;
+import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Getter
@@ -12,13 +12,25 @@ import java.time.LocalDate;
 @Builder
 public class Diary {
 
+    // IDENTITY 는 insert 마다 id 를 받아와야 해서 batch insert 가 안되므로 sequence 에서 50개씩 미리 할당받음
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "diary_seq")
+    @SequenceGenerator(name = "diary_seq", sequenceName = "diary_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // 목록 조회는 repository 에서 fetch join 으로 한번에 가져옴
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumns({
+            @JoinColumn(name = "weather_city", referencedColumnName = "city"),
+            @JoinColumn(name = "weather_date", referencedColumnName = "date")
+    })
     private DateWeather weather;
     private String text;
     private LocalDate date;
 
+    // 수정할 때마다 올라가는 버전, DiaryRepository.updateText 의 조건부 update 와 ETag 에 사용
+    // 새로 만든 일기는 null 이므로 save 시 merge 를 위한 select 없이 바로 insert 함
+    @Version
+    private Long version;
+
 }
\ No newline at end of file
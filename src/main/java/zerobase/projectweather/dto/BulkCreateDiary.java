@@ -0,0 +1,21 @@
+package zerobase.projectweather.dto;
+
+import lombok.*;
+
+public class BulkCreateDiary {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private int count;
+
+        public static Response from(int count) {
+            return Response.builder()
+                    .count(count)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package zerobase.projectweather.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.*;
+
+import java.util.concurrent.TimeUnit;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsInfo {
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMillis;
+    private long totalLoadTimeMillis;
+    private long evictionCount;
+
+    public static CacheStatsInfo from(CacheStats stats, long size) {
+        return CacheStatsInfo.builder()
+                .size(size)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadSuccessCount(stats.loadSuccessCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMillis(stats.averageLoadPenalty() / TimeUnit.MILLISECONDS.toNanos(1))
+                .totalLoadTimeMillis(TimeUnit.NANOSECONDS.toMillis(stats.totalLoadTime()))
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
@@ -1,6 +1,6 @@
 package zerobase.projectweather.dto;
 
-import com.sun.istack.NotNull;
+import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
 import java.time.LocalDate;
@@ -13,7 +13,7 @@ public class CreateDiary {
     public static class Request {
 
         @NotNull
-        private String date;
+        private LocalDate date;
         @NotNull
         private String text;
     }
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @Builder
 public class DateWeatherDto {
+    private String city;
     private LocalDate date;
     private String weather;
     private String icon;
@@ -18,6 +19,7 @@ public class DateWeatherDto {
 
     public static DateWeatherDto from(DateWeather dateWeather) {
         return DateWeatherDto.builder()
+                .city(dateWeather.getCity())
                 .date(dateWeather.getDate())
                 .weather(dateWeather.getWeather())
                 .icon(dateWeather.getIcon())
@@ -0,0 +1,35 @@
+package zerobase.projectweather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// 마지막으로 읽은 일기의 (date, id), 클라이언트에는 base64 문자열로 전달
+@Getter
+@AllArgsConstructor
+public class DiaryCursor {
+    private LocalDate date;
+    private long id;
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static DiaryCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new DiaryCursor(LocalDate.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new WeatherException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
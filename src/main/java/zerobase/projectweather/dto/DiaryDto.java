@@ -16,13 +16,15 @@ public class DiaryDto {
     private String weather;
     private String text;
     private LocalDate date;
+    private Long version;
 
     public static DiaryDto from(Diary diary) {
         return DiaryDto.builder()
                 .id(diary.getId())
                 .weather(diary.getWeather().getWeather())
                 .text(diary.getText())
-                .date(diary.getWeather().getDate())
+                .date(diary.getDate())
+                .version(diary.getVersion())
                 .build();
     }
 
@@ -1,7 +1,9 @@
 package zerobase.projectweather.dto;
 
 import lombok.*;
+import zerobase.projectweather.domain.Diary;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 
 @Getter
@@ -9,8 +11,29 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class DiaryInfo {
+// 날짜별 일기 캐시에 저장되므로 redis 같은 외부 캐시에서도 직렬화 가능해야 함
+public class DiaryInfo implements Serializable {
+    // 수정 (PUT /update/diary/{id}) 할 때 사용
+    private Long id;
     private LocalDate date;
     private String weather;
     private String text;
+
+    public static DiaryInfo from(DiaryDto diaryDto) {
+        return DiaryInfo.builder()
+                .id(diaryDto.getId())
+                .date(diaryDto.getDate())
+                .weather(diaryDto.getWeather())
+                .text(diaryDto.getText())
+                .build();
+    }
+
+    public static DiaryInfo from(Diary diary) {
+        return DiaryInfo.builder()
+                .id(diary.getId())
+                .date(diary.getDate())
+                .weather(diary.getWeather().getWeather())
+                .text(diary.getText())
+                .build();
+    }
 }
@@ -0,0 +1,16 @@
+package zerobase.projectweather.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryPage {
+    private List<DiaryInfo> diaries;
+    // 다음 페이지가 없으면 null
+    private String nextCursor;
+}
@@ -0,0 +1,20 @@
+package zerobase.projectweather.dto;
+
+import lombok.*;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DiaryStatistics {
+    private PeriodType period;
+    private LocalDate periodStart;
+    private int diaries;
+    // 일기에 붙은 날씨 종류별 일기 수 (많은 순)
+    private Map<String, Integer> weatherCounts;
+}
@@ -4,14 +4,13 @@ import lombok.*;
 import zerobase.projectweather.exception.WeatherException;
 import zerobase.projectweather.type.ErrorCode;
 
-@Setter
-@NoArgsConstructor
+// 값을 바꿀 수 없으므로 미리 만들어둔 응답을 여러 요청에서 같이 써도 됨
 @AllArgsConstructor
 @Builder
 @Getter
 public class ErrorResponse {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 
     public static ErrorResponse from(WeatherException e) {
         return ErrorResponse.builder()
@@ -0,0 +1,22 @@
+package zerobase.projectweather.dto;
+
+import lombok.*;
+import zerobase.projectweather.type.IngestStatus;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+// 비동기로 접수한 일기의 접수 번호, GET /create/diary/tickets/{ticket} 으로 저장됐는지 확인
+public class IngestTicket {
+    private long ticket;
+    private IngestStatus status;
+
+    public static IngestTicket from(long ticket, IngestStatus status) {
+        return IngestTicket.builder()
+                .ticket(ticket)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package zerobase.projectweather.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+// 일기 id 로 수정할 때 사용, 수정할 버전은 If-Match 헤더로 받음
+public class UpdateDiary {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+
+        @NotNull
+        private String text;
+    }
+}
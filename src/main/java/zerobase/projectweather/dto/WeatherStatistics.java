@@ -0,0 +1,24 @@
+package zerobase.projectweather.dto;
+
+import lombok.*;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WeatherStatistics {
+    private String city;
+    private PeriodType period;
+    private LocalDate periodStart;
+    private int days;
+    // 날씨가 없는 기간이면 null
+    private Double averageTemperature;
+    // 날씨 종류별, 아이콘별 일 수 (많은 순)
+    private Map<String, Integer> weatherCounts;
+    private Map<String, Integer> iconCounts;
+}
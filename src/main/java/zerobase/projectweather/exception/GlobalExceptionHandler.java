@@ -1,13 +1,23 @@
 package zerobase.projectweather.exception;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import zerobase.projectweather.dto.ErrorResponse;
+import zerobase.projectweather.type.ErrorCode;
 
+import static zerobase.projectweather.type.ErrorCode.DIARY_NOT_FOUND;
 import static zerobase.projectweather.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static zerobase.projectweather.type.ErrorCode.INVALID_REQUEST_BODY;
 
 @Slf4j
 @RestControllerAdvice // 전역적으로 예외처리, @ResponseBody가 붙어 있어 응답이 Json
@@ -15,18 +25,55 @@ public class GlobalExceptionHandler {
 
     // 만든 에러
     @ExceptionHandler(WeatherException.class)
-    public ErrorResponse handleAccountException(WeatherException e) {
-        log.error("{} is occurred", e.getErrorCode());
+    public ResponseEntity<ErrorResponse> handleAccountException(WeatherException e, HttpServletRequest request) {
+        // 일기가 없는 경우는 자주 있는 정상 응답이므로 ERROR 로 남기지 않음
+        if (e.getErrorCode() == DIARY_NOT_FOUND) {
+            log.debug("{} is occurred", e.getErrorCode());
+        } else {
+            log.error("{} is occurred", e.getErrorCode());
+        }
+        recordError(request, e);
 
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        return ResponseEntity.status(statusOf(e.getErrorCode()))
+                .body(new ErrorResponse(e.getErrorCode(), e.getErrorMessage()));
+    }
+
+    // 조건부 요청(If-Match) 실패, 접수 대기열이 가득 찬 경우는 클라이언트가 재시도할 수 있도록 http 상태 코드로 알려주고, 나머지는 200 + 에러 코드
+    private static HttpStatus statusOf(ErrorCode errorCode) {
+        return switch (errorCode) {
+            case DIARY_VERSION_CONFLICT -> HttpStatus.PRECONDITION_FAILED;
+            case DIARY_VERSION_REQUIRED -> HttpStatus.PRECONDITION_REQUIRED;
+            case INGEST_QUEUE_FULL -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.OK;
+        };
+    }
+
+    // 요청 값을 바인딩하거나 검증(@NotNull)하다 난 에러, 날짜 파서가 던진 에러는 그대로 응답
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, HttpMessageNotReadableException.class,
+            MethodArgumentNotValidException.class})
+    public ResponseEntity<ErrorResponse> handleBindException(Exception e, HttpServletRequest request) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        if (cause instanceof WeatherException) {
+            return handleAccountException((WeatherException) cause, request);
+        }
+        log.error("{} is occurred", INVALID_REQUEST_BODY);
+        recordError(request, e);
+
+        return ResponseEntity.ok(new ErrorResponse(INVALID_REQUEST_BODY, INVALID_REQUEST_BODY.getDescription()));
     }
 
     // 그외 에러
     @ExceptionHandler(Exception.class)
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handleException(Exception e) {
+    public ErrorResponse handleException(Exception e, HttpServletRequest request) {
         log.error("Exception is occurred", e);
+        recordError(request, e);
 
         return new ErrorResponse(INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription());
     }
+
+    // 여기서 처리한 예외는 http.server.requests 메트릭에 전달되지 않으므로 직접 넣어줌 (exception, error.code 태그)
+    private static void recordError(HttpServletRequest request, Throwable e) {
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setError(e));
+    }
 }
@@ -16,4 +16,10 @@ public class WeatherException extends RuntimeException {
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
+
+    // 에러 코드로 응답만 만들고 스택 트레이스는 쓰지 않으므로 만들지 않음 (예외 생성 비용의 대부분)
+    @Override
+    public Throwable fillInStackTrace() {
+        return this;
+    }
 }
@@ -0,0 +1,410 @@
+package zerobase.projectweather.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zerobase.projectweather.ProjectWeatherApplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// 비동기로 접수한 일기를 DB 에 저장하기 전까지 남겨두는 로컬 저널 (한 줄에 일기 하나, JSON)
+// append 는 fsync 까지 끝나야 반환하므로 접수된 일기는 서버가 죽어도 남고, 다시 띄우면 저장 안된 것부터 이어서 저장함
+// 파일은 segment-bytes 마다 새 segment 로 나누고, DB 에 모두 저장된 segment 는 지움
+// 몇 번을 다시 저장해도 실패하는 일기는 dead-letter 파일로 옮기고 건너뜀 (운영자가 확인해서 다시 접수)
+public class DiaryJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class);
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.ndjson";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final ObjectMapper objectMapper;
+
+    // 아직 DB 에 저장하지 않은 일기, 저널에 쓴 순서 (seq 순서) 대로 fsync 가 끝난 뒤에 들어감
+    private final BlockingQueue<Entry> pending = new LinkedBlockingQueue<>();
+    // 파일에 썼지만 아직 fsync 하지 않은 일기 (writeLock 으로 보호)
+    private final Deque<Entry> unsynced = new ArrayDeque<>();
+    // 다 쓴 segment (지울 때 확인할 마지막 seq)
+    private final Deque<Segment> sealed = new ArrayDeque<>();
+    // dead-letter 로 옮긴 일기의 seq (접수 상태 조회용)
+    private final Set<Long> deadLetterSeqs = ConcurrentHashMap.newKeySet();
+
+    // 파일 쓰기는 한번에 하나씩, fsync 는 쓰기와 따로 잠가서 fsync 하는 동안에도 다음 요청들이 쓸 수 있음
+    // 잠금 순서는 항상 syncLock -> writeLock (synchronized 는 virtual thread 를 carrier 에 묶으므로 lock 사용)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private Path currentPath;
+    private FileChannel current;
+    private long currentSize;
+    private volatile long lastSeq;
+    private volatile long syncedSeq;
+    // 지금 segment 에서 fsync 까지 끝난 크기, fsync 가 실패하면 여기까지 잘라냄
+    private long syncedSize;
+    // fsync 가 실패하면 디스크에 무엇이 남았는지 알 수 없으므로 더 이상 받지 않음 (다시 띄우면 저널에서 복구)
+    private volatile IOException failure;
+
+    // committedSeq 까지는 DB 에 저장됐으므로 그 다음 일기부터 pending 에 넣음
+    public DiaryJournal(Path dir, long segmentBytes, ObjectMapper objectMapper, long committedSeq) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.objectMapper = objectMapper;
+        this.lastSeq = committedSeq;
+        Files.createDirectories(dir);
+        readDeadLetters();
+        recover(committedSeq);
+        this.syncedSeq = lastSeq;
+    }
+
+    private void recover(long committedSeq) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+
+        for (Path file : files) {
+            long segmentLastSeq = readSegment(file, committedSeq);
+            sealed.add(new Segment(file, segmentLastSeq));
+        }
+
+        // 마지막 segment 에 이어서 씀
+        Segment last = sealed.pollLast();
+        currentPath = last != null ? last.path : segmentPath(lastSeq + 1);
+        current = FileChannel.open(currentPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        currentSize = current.size();
+        syncedSize = currentSize;
+        current.position(currentSize);
+        deleteCommittedSegments(committedSeq);
+        logger.info("Diary journal recovered: {} pending diaries, last seq {}", pending.size(), lastSeq);
+    }
+
+    // segment 의 일기를 읽어서 저장 안된 것만 pending 에 넣고 segment 의 마지막 seq 반환
+    // fsync 전에 죽어서 마지막 줄이 잘린 경우 (접수 응답을 보내지 않은 일기) 그 줄부터 잘라냄
+    private long readSegment(Path file, long committedSeq) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        long segmentLastSeq = lastSeq;
+        int start = 0;
+        while (start < bytes.length) {
+            int end = indexOf(bytes, (byte) '\n', start);
+            Entry entry = end < 0 ? null : parse(bytes, start, end);
+            if (entry == null) {
+                logger.warn("Truncate diary journal {} at {} ({} bytes)", file.getFileName(), start, bytes.length - start);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(start);
+                    channel.force(true);
+                }
+                break;
+            }
+            if (entry.getSeq() > committedSeq) {
+                pending.add(entry);
+            }
+            segmentLastSeq = Math.max(segmentLastSeq, entry.getSeq());
+            lastSeq = Math.max(lastSeq, entry.getSeq());
+            start = end + 1;
+        }
+        return segmentLastSeq;
+    }
+
+    private void readDeadLetters() throws IOException {
+        Path file = dir.resolve(DEAD_LETTER_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file)) {
+            try {
+                deadLetterSeqs.add(objectMapper.readValue(line, DeadLetter.class).getSeq());
+            } catch (IOException | RuntimeException e) {
+                // fsync 전에 죽어서 잘린 줄, 그 일기는 저장된 것으로 기록되지 않았으므로 다시 저장을 시도함
+                logger.warn("Skip torn diary dead letter line: {}", e.toString());
+            }
+        }
+    }
+
+    private Entry parse(byte[] bytes, int start, int end) {
+        try {
+            return objectMapper.readValue(bytes, start, end - start, Entry.class);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte target, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // 저널에 쓰고 fsync 까지 끝난 뒤 반환, 저장할 일기 목록(pending)에는 fsync 가 끝난 뒤에 넣음
+    // fsync 가 실패하면 에러를 받은 일기가 저장되지 않도록 (클라이언트가 다시 접수해도 두번 저장되지 않도록) 버림
+    public Entry append(LocalDate date, String text) throws IOException {
+        Entry entry;
+        writeLock.lock();
+        try {
+            checkNotFailed();
+            entry = new Entry(lastSeq + 1, date, text);
+            ByteBuffer line = ByteBuffer.wrap(line(entry));
+            while (line.hasRemaining()) {
+                currentSize += current.write(line);
+            }
+            lastSeq = entry.getSeq();
+            unsynced.addLast(entry);
+        } finally {
+            writeLock.unlock();
+        }
+        sync(entry.getSeq());
+        return entry;
+    }
+
+    private void checkNotFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Diary journal failed to fsync, restart to recover", failure);
+        }
+    }
+
+    private byte[] line(Entry entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    // group commit : fsync 를 기다리는 동안 쓰여진 일기들은 다음 fsync 한번에 같이 디스크에 내려감
+    private void sync(long seq) throws IOException {
+        if (syncedSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            // 앞선 fsync 가 실패하면서 이 일기도 버려짐
+            checkNotFailed();
+            FileChannel channel;
+            long target;
+            long size;
+            boolean full;
+            writeLock.lock();
+            try {
+                channel = current;
+                target = lastSeq;
+                size = currentSize;
+                full = currentSize >= segmentBytes;
+            } finally {
+                writeLock.unlock();
+            }
+            try {
+                force(channel);
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+            synced(target, size);
+
+            if (full) {
+                roll();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // fsync 가 끝난 일기를 쓴 순서대로 저장할 일기 목록으로 옮김
+    private void synced(long target, long size) {
+        writeLock.lock();
+        try {
+            while (!unsynced.isEmpty() && unsynced.peekFirst().getSeq() <= target) {
+                pending.add(unsynced.pollFirst());
+            }
+            syncedSize = size;
+            syncedSeq = target;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // fsync 하지 못한 일기를 버리고 파일에서도 잘라냄 (잘라내지 못해도 그 일기들은 접수 응답을 받지 못했음)
+    private void fail(IOException e) {
+        writeLock.lock();
+        try {
+            failure = e;
+            logger.error("Failed to fsync diary journal, drop {} unsynced diaries: {}", unsynced.size(), e.toString());
+            unsynced.clear();
+            current.truncate(syncedSize);
+            currentSize = syncedSize;
+        } catch (IOException truncateFailure) {
+            logger.warn("Failed to truncate diary journal {}: {}", currentPath.getFileName(), truncateFailure.toString());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void force(FileChannel channel) throws IOException {
+        channel.force(false);
+    }
+
+    // syncLock 을 잡은 상태에서 호출, 지금 segment 를 닫고 다음 seq 이름으로 새 segment 를 만듦
+    private void roll() throws IOException {
+        writeLock.lock();
+        try {
+            try {
+                force(current);
+            } catch (IOException e) {
+                fail(e);
+                throw e;
+            }
+            synced(lastSeq, currentSize);
+            current.close();
+            sealed.add(new Segment(currentPath, lastSeq));
+            currentPath = segmentPath(lastSeq + 1);
+            current = FileChannel.open(currentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            currentSize = 0;
+            syncedSize = 0;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%020d.log", firstSeq));
+    }
+
+    // 저장할 일기를 최대 maxSize 개까지 모음, 첫 일기가 들어온 뒤 linger 동안 더 기다려서 한번에 저장할 양을 늘림
+    // pollTimeout 동안 아무것도 없으면 빈 목록
+    public List<Entry> takeBatch(int maxSize, long lingerMillis, long pollTimeoutMillis) throws InterruptedException {
+        List<Entry> batch = new ArrayList<>();
+        Entry first = pending.poll(pollTimeoutMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < maxSize) {
+            pending.drainTo(batch, maxSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxSize || remaining <= 0) {
+                break;
+            }
+            Entry next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    // 저장할 수 없는 일기를 실패 원인과 함께 dead-letter 파일에 남김 (fsync 까지 끝난 뒤 반환)
+    // 호출한 쪽은 그 다음에 이 일기까지 저장된 것으로 기록해서 뒤의 일기들을 이어서 저장함
+    public void deadLetter(Entry entry, String error) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(new DeadLetter(entry.getSeq(), entry.getDate(), entry.getText(), error));
+        ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+        try (FileChannel channel = FileChannel.open(dir.resolve(DEAD_LETTER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        }
+        deadLetterSeqs.add(entry.getSeq());
+    }
+
+    public boolean isDeadLettered(long seq) {
+        return deadLetterSeqs.contains(seq);
+    }
+
+    // seq 까지 DB 에 저장됨, 모두 저장된 segment 를 지움
+    public void markCommitted(long seq) {
+        writeLock.lock();
+        try {
+            deleteCommittedSegments(seq);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void deleteCommittedSegments(long seq) {
+        while (!sealed.isEmpty() && sealed.peekFirst().lastSeq <= seq) {
+            Path path = sealed.pollFirst().path;
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Failed to delete diary journal {}: {}", path.getFileName(), e.toString());
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        writeLock.lock();
+        try {
+            if (failure == null) {
+                current.force(false);
+            }
+            current.close();
+        } finally {
+            writeLock.unlock();
+            syncLock.unlock();
+        }
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private long seq;
+        private LocalDate date;
+        private String text;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class DeadLetter {
+        private long seq;
+        private LocalDate date;
+        private String text;
+        private String error;
+    }
+
+    @AllArgsConstructor
+    private static class Segment {
+        private final Path path;
+        private final long lastSeq;
+    }
+}
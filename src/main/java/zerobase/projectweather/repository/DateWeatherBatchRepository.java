@@ -0,0 +1,57 @@
+package zerobase.projectweather.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import zerobase.projectweather.domain.DateWeather;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class DateWeatherBatchRepository {
+
+    // 수집 잡은 같은 (city, date) 를 다시 받으면 최신 값으로 덮어씀
+    private static final String UPSERT_SQL = "INSERT INTO date_weather (city, date, weather, icon, temperature) "
+            + "VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE weather = VALUES(weather), icon = VALUES(icon), temperature = VALUES(temperature)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // save() 를 한 건씩 호출하지 않고 JDBC batch 한번으로 저장
+    public void upsertAll(List<DateWeather> dateWeathers) {
+        if (dateWeathers.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, dateWeathers, dateWeathers.size(), (ps, dateWeather) -> {
+            ps.setString(1, dateWeather.getCity());
+            ps.setDate(2, Date.valueOf(dateWeather.getDate()));
+            ps.setString(3, dateWeather.getWeather());
+            ps.setString(4, dateWeather.getIcon());
+            ps.setDouble(5, dateWeather.getTemperature());
+        });
+    }
+
+    // 덮어쓰기 전의 값 (집계에서 뺄 값), 저장이 끝날 때까지 다른 트랜잭션이 바꾸지 못하도록 잠금
+    public List<DateWeather> findAllByDateForUpdate(LocalDate date, List<String> cities) {
+        String placeholders = String.join(", ", Collections.nCopies(cities.size(), "?"));
+        Object[] args = new Object[cities.size() + 1];
+        args[0] = Date.valueOf(date);
+        for (int i = 0; i < cities.size(); i++) {
+            args[i + 1] = cities.get(i);
+        }
+        return jdbcTemplate.query("SELECT city, date, weather, icon, temperature FROM date_weather "
+                        + "WHERE date = ? AND city IN (" + placeholders + ") FOR UPDATE",
+                (rs, rowNum) -> DateWeather.builder()
+                        .city(rs.getString(1))
+                        .date(rs.getDate(2).toLocalDate())
+                        .weather(rs.getString(3))
+                        .icon(rs.getString(4))
+                        .temperature(rs.getDouble(5))
+                        .build(),
+                args);
+    }
+}
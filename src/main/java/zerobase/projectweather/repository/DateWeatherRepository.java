@@ -1,13 +1,30 @@
 package zerobase.projectweather.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface DateWeatherRepository extends JpaRepository<DateWeather, Long> {
+public interface DateWeatherRepository extends JpaRepository<DateWeather, DateWeatherId> {
     List<DateWeather> findAllByDate(LocalDate date);
+
+    // 도시의 가장 최근 날씨 (PK (city, date) 인덱스를 거꾸로 한 행만 읽음)
+    Optional<DateWeather> findFirstByCityOrderByDateDesc(String city);
+
+    // (city, date) PK 가 이미 있으면 무시, 새로 들어간 경우 1 반환
+    // 캐시 로딩이 별도 스레드에서 실행될 수 있으므로 호출한 쪽 트랜잭션이 없어도 동작하도록 함
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO date_weather (city, date, weather, icon, temperature) " +
+            "VALUES (:#{#dw.city}, :#{#dw.date}, :#{#dw.weather}, :#{#dw.icon}, :#{#dw.temperature})", nativeQuery = true)
+    int insertIgnore(@Param("dw") DateWeather dateWeather);
 }
@@ -0,0 +1,33 @@
+package zerobase.projectweather.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+// reactive 모듈이 쓴 일기 변경 기록 (diary_change), 읽기만 하고 오래된 행을 지움
+@Repository
+@RequiredArgsConstructor
+public class DiaryChangeRepository {
+
+    // id 는 insert 할 때 정해지고 commit 순서와 다를 수 있으므로, 마지막으로 읽은 id 이후와 함께 최근 시간 범위를 다시 읽음
+    private static final String SELECT_SQL = "SELECT id, diary_id, diary_date, created_at FROM diary_change "
+            + "WHERE id > ? OR created_at >= ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<DiaryChange> findAfter(long id, Timestamp since) {
+        return jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new DiaryChange(
+                rs.getLong(1), rs.getLong(2), rs.getDate(3).toLocalDate(), rs.getTimestamp(4)), id, since);
+    }
+
+    public int deleteBefore(Timestamp before) {
+        return jdbcTemplate.update("DELETE FROM diary_change WHERE created_at < ?", before);
+    }
+
+    public record DiaryChange(long id, long diaryId, LocalDate diaryDate, Timestamp createdAt) {
+    }
+}
@@ -1,23 +1,74 @@
 package zerobase.projectweather.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import zerobase.projectweather.domain.Diary;
 
-import javax.transaction.Transactional;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DiaryRepository extends JpaRepository<Diary, Long> {
-    List<Diary> findAllByDate(LocalDate date);
+    // 날씨를 join fetch 해서 일기 수와 상관없이 쿼리 한번으로 가져옴
+    @Query("select d from diary d join fetch d.weather where d.date = :date order by d.id")
+    List<Diary> findAllByDate(@Param("date") LocalDate date);
 
-    List<Diary> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
+    // 여러 날짜를 in 쿼리 한번으로 가져옴
+    @Query("select d from diary d join fetch d.weather where d.date in :dates order by d.date, d.id")
+    List<Diary> findAllByDateIn(@Param("dates") Collection<LocalDate> dates);
+
+    @Query("select d from diary d join fetch d.weather where d.date between :startDate and :endDate order by d.date, d.id")
+    List<Diary> findAllByDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    // (afterDate, afterId) 다음부터 (date, id) 순서로 pageable 크기만큼, offset 없이 인덱스를 타고 이어서 읽음
+    @Query("select d from diary d join fetch d.weather " +
+            "where d.date between :startDate and :endDate " +
+            "and (d.date > :afterDate or (d.date = :afterDate and d.id > :afterId)) " +
+            "order by d.date, d.id")
+    List<Diary> findAllByDateBetweenAfter(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("afterDate") LocalDate afterDate,
+                                          @Param("afterId") long afterId,
+                                          Pageable pageable);
 
     Diary getFirstByDate(LocalDate date);
 
+    @Query("select d from diary d join fetch d.weather where d.id = :id")
+    Optional<Diary> findWithWeatherById(@Param("id") long id);
+
+    // 읽어둔 version 과 같을 때만 수정하고 version 을 올림, 잠금 없이 update 한번으로 끝남
+    // 수정된 건수 반환 (0 이면 일기가 없거나 다른 요청이 먼저 수정함)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update diary d set d.text = :text, d.version = d.version + 1 where d.id = :id and d.version = :version")
+    int updateText(@Param("id") long id, @Param("version") long version, @Param("text") String text);
+
+    // 엔티티를 하나씩 불러와서 지우지 않고 delete 한번으로 삭제, 삭제된 건수 반환
     @Transactional
-    void deleteAllByDate(LocalDate date);
+    @Modifying(clearAutomatically = true)
+    @Query("delete from diary d where d.date = :date")
+    int deleteAllByDate(@Param("date") LocalDate date);
+
+    // 해당 날짜 일기들의 id 와 붙은 날씨 (일기 하나당 한 행), 다른 트랜잭션이 같은 날짜에 일기를 넣지 못하도록 잠금
+    // 날씨 api 를 쓸 수 없을 때 작성한 일기는 다른 날짜의 날씨에 붙어 있음
+    @Query(value = "SELECT id, weather_city AS weatherCity, weather_date AS weatherDate FROM diary WHERE date = :date FOR UPDATE",
+            nativeQuery = true)
+    List<WeatherOfDiary> findWeatherIdsByDateForUpdate(@Param("date") LocalDate date);
 
     boolean existsByDate(LocalDate date);
+
+    interface WeatherOfDiary {
+        Long getId();
+
+        String getWeatherCity();
+
+        LocalDate getWeatherDate();
+    }
 }
@@ -0,0 +1,87 @@
+package zerobase.projectweather.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class DiaryStreamRepository {
+
+    private static final String SELECT_BY_DATE_BETWEEN_SQL = "SELECT d.id, d.date, w.weather, d.text FROM diary d "
+            + "LEFT JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date "
+            + "WHERE d.date BETWEEN ? AND ? ORDER BY d.date, d.id";
+
+    // 검색 색인용 (id 포함)
+    private static final String SELECT_FOR_INDEX_SQL = "SELECT d.id, d.date, w.weather, d.text FROM diary d "
+            + "LEFT JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${diary.stream.fetch-size:500}")
+    private int fetchSize;
+
+    // 전체 결과를 List 로 모으지 않고 JDBC 커서에서 fetchSize 만큼씩 받아 한 행씩 consumer 로 넘김
+    public void streamByDateBetween(LocalDate startDate, LocalDate endDate, Consumer<DiaryInfo> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_BY_DATE_BETWEEN_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            ps.setDate(1, Date.valueOf(startDate));
+            ps.setDate(2, Date.valueOf(endDate));
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(DiaryInfo.from(toDiaryDto(rs))));
+    }
+
+    // 검색 색인을 처음부터 다시 만들 때 전체 일기를 fetchSize 만큼씩 읽음
+    public void streamAll(Consumer<DiaryDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_FOR_INDEX_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(toDiaryDto(rs)));
+    }
+
+    public List<DiaryDto> findAllByDate(LocalDate date) {
+        return jdbcTemplate.query(SELECT_FOR_INDEX_SQL + " WHERE d.date = ?",
+                (rs, rowNum) -> toDiaryDto(rs), Date.valueOf(date));
+    }
+
+    // 검색 색인에 바뀐 일기만 반영할 때, IN 절이 너무 길어지지 않도록 나눠서 읽음
+    public List<DiaryDto> findAllByIds(Collection<Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        List<DiaryDto> diaries = new ArrayList<>(idList.size());
+        for (int from = 0; from < idList.size(); from += fetchSize) {
+            List<Long> chunk = idList.subList(from, Math.min(from + fetchSize, idList.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            diaries.addAll(jdbcTemplate.query(SELECT_FOR_INDEX_SQL + " WHERE d.id IN (" + placeholders + ")",
+                    (rs, rowNum) -> toDiaryDto(rs), chunk.toArray()));
+        }
+        return diaries;
+    }
+
+    private static DiaryDto toDiaryDto(ResultSet rs) throws SQLException {
+        return DiaryDto.builder()
+                .id(rs.getLong(1))
+                .date(rs.getDate(2).toLocalDate())
+                .weather(rs.getString(3))
+                .text(rs.getString(4))
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package zerobase.projectweather.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class IngestCheckpointRepository {
+
+    private static final String SELECT_SQL = "SELECT committed_seq FROM diary_ingest_checkpoint WHERE node = ?";
+
+    private static final String UPSERT_SQL = "INSERT INTO diary_ingest_checkpoint (node, committed_seq) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE committed_seq = VALUES(committed_seq)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 처음 띄운 서버는 0
+    public long findCommittedSeq(String node) {
+        List<Long> seqs = jdbcTemplate.queryForList(SELECT_SQL, Long.class, node);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+
+    public void saveCommittedSeq(String node, long committedSeq) {
+        jdbcTemplate.update(UPSERT_SQL, node, committedSeq);
+    }
+}
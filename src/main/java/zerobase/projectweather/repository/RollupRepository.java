@@ -0,0 +1,133 @@
+package zerobase.projectweather.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import zerobase.projectweather.dto.DiaryStatistics;
+import zerobase.projectweather.dto.WeatherStatistics;
+import zerobase.projectweather.type.PeriodType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class RollupRepository {
+
+    public static final String WEATHER = "weather";
+    public static final String ICON = "icon";
+
+    private static final List<PeriodType> PERIODS = Arrays.asList(PeriodType.values());
+
+    // 집계 행이 없으면 만들고 있으면 변화량만큼 더함, 같은 행을 동시에 고치면 행 잠금으로 차례대로 더해짐
+    private static final String ADD_WEATHER_SQL = "INSERT INTO weather_rollup (city, period_type, period_key, days, temperature_sum) "
+            + "VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE days = days + VALUES(days), temperature_sum = temperature_sum + VALUES(temperature_sum)";
+
+    private static final String ADD_WEATHER_COUNT_SQL = "INSERT INTO weather_count_rollup (city, period_type, period_key, category, item, days) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE days = days + VALUES(days)";
+
+    private static final String ADD_DIARIES_SQL = "INSERT INTO diary_rollup (period_type, period_key, weather, diaries) "
+            + "VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE diaries = diaries + VALUES(diaries)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 일/월/연 집계에 같은 변화량을 batch 한번으로 반영
+    public void addWeather(String city, LocalDate date, int days, double temperature) {
+        jdbcTemplate.batchUpdate(ADD_WEATHER_SQL, PERIODS, PERIODS.size(), (ps, period) -> {
+            ps.setString(1, city);
+            ps.setString(2, period.name());
+            ps.setInt(3, period.key(date));
+            ps.setInt(4, days);
+            ps.setDouble(5, temperature);
+        });
+    }
+
+    public void addWeatherCount(String city, LocalDate date, String category, String item, int days) {
+        jdbcTemplate.batchUpdate(ADD_WEATHER_COUNT_SQL, PERIODS, PERIODS.size(), (ps, period) -> {
+            ps.setString(1, city);
+            ps.setString(2, period.name());
+            ps.setInt(3, period.key(date));
+            ps.setString(4, category);
+            ps.setString(5, item == null ? "" : item);
+            ps.setInt(6, days);
+        });
+    }
+
+    public void addDiaries(LocalDate date, String weather, int diaries) {
+        jdbcTemplate.batchUpdate(ADD_DIARIES_SQL, PERIODS, PERIODS.size(), (ps, period) -> {
+            ps.setString(1, period.name());
+            ps.setInt(2, period.key(date));
+            ps.setString(3, weather == null ? "" : weather);
+            ps.setInt(4, diaries);
+        });
+    }
+
+    // 일기 수를 더하는 동안 날씨가 덮어써지지 않도록 날씨 행을 잠그고 읽음
+    public String findWeatherForUpdate(String city, LocalDate date) {
+        List<String> weathers = jdbcTemplate.queryForList(
+                "SELECT weather FROM date_weather WHERE city = ? AND date = ? FOR UPDATE",
+                String.class, city, Date.valueOf(date));
+        return weathers.isEmpty() ? null : weathers.get(0);
+    }
+
+    // 날씨에 붙은 일기 수를 일기 날짜별로
+    public Map<LocalDate, Integer> countDiariesByDate(String city, LocalDate date) {
+        Map<LocalDate, Integer> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT date, COUNT(*) FROM diary WHERE weather_city = ? AND weather_date = ? GROUP BY date",
+                rs -> {
+                    counts.put(rs.getDate(1).toLocalDate(), rs.getInt(2));
+                }, city, Date.valueOf(date));
+        return counts;
+    }
+
+    // PK 로 한 행, 종류별 일 수는 PK 앞부분이 같은 몇 행만 읽음
+    public WeatherStatistics findWeatherStatistics(String city, PeriodType period, LocalDate date) {
+        int key = period.key(date);
+        WeatherStatistics statistics = WeatherStatistics.builder()
+                .city(city)
+                .period(period)
+                .periodStart(period.start(date))
+                .weatherCounts(new LinkedHashMap<>())
+                .iconCounts(new LinkedHashMap<>())
+                .build();
+
+        jdbcTemplate.query("SELECT days, temperature_sum FROM weather_rollup "
+                        + "WHERE city = ? AND period_type = ? AND period_key = ? AND days > 0",
+                rs -> {
+                    statistics.setDays(rs.getInt(1));
+                    statistics.setAverageTemperature(rs.getDouble(2) / rs.getInt(1));
+                }, city, period.name(), key);
+
+        jdbcTemplate.query("SELECT category, item, days FROM weather_count_rollup "
+                        + "WHERE city = ? AND period_type = ? AND period_key = ? AND days > 0 ORDER BY days DESC, item",
+                rs -> {
+                    Map<String, Integer> counts = WEATHER.equals(rs.getString(1))
+                            ? statistics.getWeatherCounts() : statistics.getIconCounts();
+                    counts.put(rs.getString(2), rs.getInt(3));
+                }, city, period.name(), key);
+        return statistics;
+    }
+
+    public DiaryStatistics findDiaryStatistics(PeriodType period, LocalDate date) {
+        DiaryStatistics statistics = DiaryStatistics.builder()
+                .period(period)
+                .periodStart(period.start(date))
+                .weatherCounts(new LinkedHashMap<>())
+                .build();
+
+        jdbcTemplate.query("SELECT weather, diaries FROM diary_rollup "
+                        + "WHERE period_type = ? AND period_key = ? AND diaries > 0 ORDER BY diaries DESC, weather",
+                rs -> {
+                    statistics.getWeatherCounts().put(rs.getString(1), rs.getInt(2));
+                    statistics.setDiaries(statistics.getDiaries() + rs.getInt(2));
+                }, period.name(), period.key(date));
+        return statistics;
+    }
+}
@@ -0,0 +1,332 @@
+package zerobase.projectweather.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import zerobase.projectweather.ProjectWeatherApplication;
+import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.repository.DiaryStreamRepository;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 일기 내용 검색용 lucene 역색인, 검색은 DB 를 읽지 않고 색인에서 단어가 들어간 일기만 바로 찾음
+// 서버마다 따로 가지고 있으므로 여러 대로 띄우면 다른 서버에서 쓴 일기는 rebuild 전까지 검색되지 않음
+// 커밋된 변경은 바뀐 일기 id (날짜 단위 변경은 날짜) 만 모아두고, 색인 스레드 하나가 DB 에서 다시 읽어 반영하므로
+// 요청 스레드는 기다리지 않고, 같은 일기를 여러 요청이 고쳐도 마지막에 다시 읽은 내용이 남음
+// 디스크 반영(IndexWriter.commit)은 commit-millis 마다 한번, 그 사이에 서버가 죽으면 rebuild-on-startup 으로 복구
+@Component
+public class DiaryIndex {
+
+    private static final String ID = "id";
+    private static final String DATE = "date";
+    private static final String WEATHER = "weather";
+    private static final String WEATHER_NAME = "weatherName";
+    private static final String TEXT = "text";
+
+    // 점수가 같으면 최근 일기부터
+    private static final Sort SORT = new Sort(SortField.FIELD_SCORE, new SortField(DATE, SortField.Type.LONG, true));
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class);
+
+    private final DiaryStreamRepository diaryStreamRepository;
+    private final boolean rebuildOnStartup;
+    // 한국어는 조사/어미가 붙으므로 형태소 분석기(nori)로 나눠서 색인 ("비가" -> "비")
+    private final Analyzer analyzer = new KoreanAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // 색인을 고치는 스레드는 하나, DB 를 읽고 색인에 쓰는 사이에 다른 변경이 끼어들어 예전 내용으로 덮어쓰지 않음
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("diary-index-"));
+    private final Set<Long> dirtyIds = ConcurrentHashMap.newKeySet();
+    private final Set<LocalDate> dirtyDates = ConcurrentHashMap.newKeySet();
+    // 색인 스레드에 반영 작업이 이미 올라가 있으면 다시 올리지 않음 (그 작업이 모아둔 변경을 같이 반영)
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // index-dir 이 비어있으면 메모리에만 색인
+    public DiaryIndex(DiaryStreamRepository diaryStreamRepository,
+                      @Value("${diary.search.index-dir:}") String indexDir,
+                      @Value("${diary.search.rebuild-on-startup:false}") boolean rebuildOnStartup) throws IOException {
+        this.diaryStreamRepository = diaryStreamRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // 색인이 비어있으면 (처음 띄우거나 메모리 색인) DB 에서 전체를 다시 색인
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    // 색인 스레드에서 실행해서 반영 중인 변경과 섞이지 않도록 하고, 끝날 때까지 기다림
+    public void rebuild() {
+        await(indexer.submit(() -> {
+            try {
+                writer.deleteAll();
+                AtomicInteger count = new AtomicInteger();
+                diaryStreamRepository.streamAll(diary -> {
+                    try {
+                        writer.addDocument(toDocument(diary));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count.incrementAndGet();
+                });
+                writer.commit();
+                searcherManager.maybeRefreshBlocking();
+                logger.info("Diary index rebuilt: {} diaries", count.get());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    // 작성/수정한 일기 하나, 트랜잭션 안에서 호출하면 커밋된 뒤에 반영 (롤백된 일기는 검색되지 않음)
+    public void reindexDiary(long id) {
+        afterCommit(() -> dirtyIds.add(id));
+    }
+
+    public void reindex(LocalDate date) {
+        reindex(List.of(date));
+    }
+
+    // 날짜 단위로 바뀐 경우 (날짜의 일기를 모두 삭제, 여러 일기를 한번에 작성, 날씨가 바뀜)
+    // 해당 날짜의 일기를 DB 에서 다시 읽어 색인을 바꿈
+    public void reindex(Collection<LocalDate> dates) {
+        afterCommit(() -> dirtyDates.addAll(dates));
+    }
+
+    private void afterCommit(Runnable markDirty) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            markDirty.run();
+            scheduleDrain();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                markDirty.run();
+                scheduleDrain();
+            }
+        });
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            indexer.execute(this::drain);
+        }
+    }
+
+    // 색인 스레드에서만 실행, 모아둔 변경을 DB 에서 다시 읽어 반영하고 새 검색부터 보이도록 reader 를 바꿈
+    private void drain() {
+        // 반영하는 동안 들어온 변경은 다음 작업이 반영
+        drainScheduled.set(false);
+        Set<LocalDate> dates = takeAll(dirtyDates);
+        Set<Long> ids = Set.of();
+        try {
+            for (LocalDate date : dates) {
+                writer.deleteDocuments(LongPoint.newExactQuery(DATE, date.toEpochDay()));
+                for (DiaryDto diary : diaryStreamRepository.findAllByDate(date)) {
+                    writer.updateDocument(idTerm(diary.getId()), toDocument(diary));
+                }
+            }
+            ids = takeAll(dirtyIds);
+            if (!ids.isEmpty()) {
+                // DB 에 없는 일기는 그 사이에 삭제된 것
+                Set<Long> deleted = new HashSet<>(ids);
+                for (DiaryDto diary : diaryStreamRepository.findAllByIds(ids)) {
+                    writer.updateDocument(idTerm(diary.getId()), toDocument(diary));
+                    deleted.remove(diary.getId());
+                }
+                for (Long id : deleted) {
+                    writer.deleteDocuments(idTerm(id));
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // DB 는 이미 커밋되었으므로 요청과 상관없이 로그를 남기고, 꺼낸 변경을 되돌려 다음 commit 주기에 다시 반영
+            // (같은 날짜, 일기를 다시 읽어 덮어쓰므로 일부만 반영된 경우도 다시 해도 됨)
+            logger.error("Failed to update diary index, retry {} dates and {} diaries", dates.size(), ids.size(), e);
+            dirtyDates.addAll(dates);
+            dirtyIds.addAll(ids);
+        }
+    }
+
+    private static <T> Set<T> takeAll(Set<T> dirty) {
+        Set<T> taken = new HashSet<>();
+        for (T key : dirty) {
+            if (dirty.remove(key)) {
+                taken.add(key);
+            }
+        }
+        return taken;
+    }
+
+    // 색인 변경을 디스크에 반영, 바뀐 게 없으면 fsync 하지 않음
+    // 반영에 실패해서 남아있는 변경도 이 주기로 다시 반영함
+    @Scheduled(fixedDelayString = "${diary.search.commit-millis:5000}")
+    public void commit() {
+        if (!dirtyDates.isEmpty() || !dirtyIds.isEmpty()) {
+            scheduleDrain();
+        }
+        if (!writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            logger.error("Failed to commit diary index", e);
+        }
+    }
+
+    // 지금까지 커밋된 변경이 검색에 보일 때까지 기다림 (테스트용)
+    void awaitIndexed() {
+        await(indexer.submit(() -> { }));
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // text 는 형태소 단위로 검색 (공백은 AND, "..." 는 구문, - 는 제외), 날짜/날씨는 점수에 영향 없는 필터
+    public List<DiaryInfo> search(String text, LocalDate startDate, LocalDate endDate, String weather, int size) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, TEXT);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query textQuery = parser.parse(text);
+        if (textQuery == null) {
+            // 조사만 있는 경우처럼 검색할 단어가 남지 않음
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(textQuery, BooleanClause.Occur.MUST);
+        if (startDate != null || endDate != null) {
+            query.add(LongPoint.newRangeQuery(DATE,
+                    startDate == null ? Long.MIN_VALUE : startDate.toEpochDay(),
+                    endDate == null ? Long.MAX_VALUE : endDate.toEpochDay()), BooleanClause.Occur.FILTER);
+        }
+        if (weather != null) {
+            query.add(new TermQuery(new Term(WEATHER, weather.toLowerCase(Locale.ROOT))), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                List<DiaryInfo> diaries = new ArrayList<>();
+                for (ScoreDoc scoreDoc : searcher.search(query.build(), size, SORT, true).scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    diaries.add(DiaryInfo.builder()
+                            .id(Long.valueOf(document.get(ID)))
+                            .date(LocalDate.ofEpochDay(document.getField(DATE).numericValue().longValue()))
+                            .weather(document.get(WEATHER_NAME))
+                            .text(document.get(TEXT))
+                            .build());
+                }
+                return diaries;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Term idTerm(long id) {
+        return new Term(ID, String.valueOf(id));
+    }
+
+    private static Document toDocument(DiaryDto diary) {
+        long epochDay = diary.getDate().toEpochDay();
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(diary.getId()), Field.Store.YES));
+        document.add(new LongPoint(DATE, epochDay));
+        document.add(new NumericDocValuesField(DATE, epochDay));
+        document.add(new StoredField(DATE, epochDay));
+        if (diary.getWeather() != null) {
+            document.add(new StringField(WEATHER, diary.getWeather().toLowerCase(Locale.ROOT), Field.Store.NO));
+            document.add(new StoredField(WEATHER_NAME, diary.getWeather()));
+        }
+        document.add(new TextField(TEXT, diary.getText() == null ? "" : diary.getText(), Field.Store.YES));
+        return document;
+    }
+
+    // 색인 스레드에 남은 변경까지 반영하고 디스크에 쓴 뒤 닫음
+    @PreDestroy
+    public void close() throws IOException {
+        indexer.shutdown();
+        try {
+            indexer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
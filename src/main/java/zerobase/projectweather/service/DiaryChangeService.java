@@ -0,0 +1,102 @@
+package zerobase.projectweather.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import zerobase.projectweather.ProjectWeatherApplication;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.config.ReplicaLagMonitor;
+import zerobase.projectweather.repository.DiaryChangeRepository;
+import zerobase.projectweather.repository.DiaryChangeRepository.DiaryChange;
+import zerobase.projectweather.search.DiaryIndex;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// reactive 모듈이 쓴 일기 (diary_change) 를 이 서버의 날짜별 일기 캐시와 검색 색인에 반영
+// 블로킹 앱에서 쓴 일기와 같이 캐시는 지우고, 색인은 일기를 DB 에서 다시 읽어 바꿈 (집계는 쓰는 쪽이 같은 트랜잭션에서 고침)
+// 캐시와 색인이 서버마다 따로이므로 서버마다 읽고, 읽은 위치는 메모리에만 둠 (띄우면 남아있는 기록을 처음부터 다시 반영)
+// 트랜잭션 밖에서 읽으므로 replica 를 설정해도 primary 에서 읽음
+@Service
+public class DiaryChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class);
+
+    private final DiaryChangeRepository diaryChangeRepository;
+    private final DiaryInfoCache diaryInfoCache;
+    private final DiaryIndex diaryIndex;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final long rereadMillis;
+    private final long retentionMillis;
+
+    // 마지막으로 읽은 기록, 이전 주기에 읽은 기록 id (시간 범위로 다시 읽은 기록은 건너뜀)
+    private long lastId;
+    private Timestamp latest = new Timestamp(0);
+    private Set<Long> seen = Set.of();
+
+    public DiaryChangeService(DiaryChangeRepository diaryChangeRepository,
+                              DiaryInfoCache diaryInfoCache,
+                              DiaryIndex diaryIndex,
+                              ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                              @Value("${diary.change.reread-millis:30000}") long rereadMillis,
+                              @Value("${diary.change.retention-hours:24}") long retentionHours) {
+        this.diaryChangeRepository = diaryChangeRepository;
+        this.diaryInfoCache = diaryInfoCache;
+        this.diaryIndex = diaryIndex;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.rereadMillis = rereadMillis;
+        this.retentionMillis = retentionHours * 60 * 60 * 1000;
+    }
+
+    // id 가 먼저 정해진 트랜잭션이 늦게 commit 되면 lastId 보다 작은 id 로 나타나므로
+    // 마지막으로 읽은 기록 시각에서 reread-millis 전까지는 다시 읽고, 이전 주기에 반영한 기록만 건너뜀
+    @Scheduled(fixedDelayString = "${diary.change.poll-millis:1000}")
+    public void poll() {
+        List<DiaryChange> changes = diaryChangeRepository.findAfter(lastId,
+                new Timestamp(latest.getTime() - rereadMillis));
+        Set<Long> read = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        long maxId = lastId;
+        Timestamp maxCreatedAt = latest;
+        for (DiaryChange change : changes) {
+            read.add(change.id());
+            maxId = Math.max(maxId, change.id());
+            if (change.createdAt().after(maxCreatedAt)) {
+                maxCreatedAt = change.createdAt();
+            }
+            if (!seen.contains(change.id())) {
+                dates.add(change.diaryDate());
+                ids.add(change.diaryId());
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            logger.debug("Apply {} diary changes", ids.size());
+            // 이 서버가 쓴 것처럼 replica 에 반영될 때까지 그 날짜, 일기는 primary 에서 읽음 (이전 목록을 캐시에 다시 넣지 않도록)
+            List<Object> keys = new ArrayList<>(dates);
+            keys.addAll(ids);
+            replicaLagMonitor.ifAvailable(monitor -> monitor.markWrite(keys));
+            dates.forEach(diaryInfoCache::evict);
+            ids.forEach(diaryIndex::reindexDiary);
+        }
+        lastId = maxId;
+        latest = maxCreatedAt;
+        seen = read;
+    }
+
+    // 어느 서버도 다시 읽지 않는 오래된 기록을 지움 (retention-hours 보다 오래 내려가 있던 서버는 rebuild-on-startup 으로 색인을 맞춤)
+    @Scheduled(fixedDelayString = "${diary.change.cleanup-millis:3600000}")
+    public void cleanup() {
+        if (latest.getTime() > retentionMillis) {
+            diaryChangeRepository.deleteBefore(new Timestamp(latest.getTime() - retentionMillis));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package zerobase.projectweather.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import zerobase.projectweather.dto.CreateDiary;
+import zerobase.projectweather.dto.IngestTicket;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.ingest.DiaryJournal;
+import zerobase.projectweather.repository.IngestCheckpointRepository;
+import zerobase.projectweather.type.ErrorCode;
+import zerobase.projectweather.type.IngestStatus;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// 일기 생성 비동기 접수 (write-behind), 요청은 로컬 저널에 쓰고 접수 번호를 바로 돌려줌
+// 백그라운드 스레드 하나가 저널에서 batch-size 개까지 모아 한 트랜잭션으로 저장 (group commit)
+// 날씨 조회, DB commit 시간이 요청 응답 시간에 들어가지 않음
+@Slf4j
+@Service
+public class DiaryIngestService implements MeterBinder {
+    private final DiaryService diaryService;
+    private final boolean enabled;
+    private final String node;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final int maxPending;
+    private final long retryDelayMillis;
+    private final long maxRetryDelayMillis;
+    private final int maxAttempts;
+
+    private final DiaryJournal journal;
+    private final Thread committer;
+    private volatile boolean running = true;
+    // 여기까지 DB 에 저장됨 (접수 번호 = 저널 seq)
+    private volatile long committedSeq;
+
+    public DiaryIngestService(DiaryService diaryService,
+                              IngestCheckpointRepository ingestCheckpointRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${diary.ingest.async:false}") boolean enabled,
+                              @Value("${diary.ingest.journal-dir:./data/diary-journal}") String journalDir,
+                              @Value("${diary.ingest.node:local}") String node,
+                              @Value("${diary.ingest.batch-size:500}") int batchSize,
+                              @Value("${diary.ingest.linger-millis:5}") long lingerMillis,
+                              @Value("${diary.ingest.max-pending:100000}") int maxPending,
+                              @Value("${diary.ingest.segment-bytes:67108864}") long segmentBytes,
+                              @Value("${diary.ingest.retry-delay-millis:1000}") long retryDelayMillis,
+                              @Value("${diary.ingest.max-retry-delay-millis:30000}") long maxRetryDelayMillis,
+                              @Value("${diary.ingest.max-attempts:5}") int maxAttempts) throws IOException {
+        this.diaryService = diaryService;
+        this.enabled = enabled;
+        this.node = node;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.maxPending = maxPending;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetryDelayMillis = maxRetryDelayMillis;
+        this.maxAttempts = maxAttempts;
+        if (enabled) {
+            this.committedSeq = ingestCheckpointRepository.findCommittedSeq(node);
+            this.journal = new DiaryJournal(Path.of(journalDir), segmentBytes, objectMapper, committedSeq);
+            this.committer = new CustomizableThreadFactory("diary-ingest-").newThread(this::commitLoop);
+        } else {
+            this.journal = null;
+            this.committer = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 저널에 fsync 까지 끝나면 접수 번호 반환, 일기 길이는 저장할 때 실패하지 않도록 미리 확인
+    public IngestTicket submit(LocalDate date, String text) {
+        diaryService.checkTextLength(text);
+        if (journal.getPendingCount() >= maxPending) {
+            throw new WeatherException(ErrorCode.INGEST_QUEUE_FULL);
+        }
+        try {
+            return IngestTicket.from(journal.append(date, text).getSeq(), IngestStatus.PENDING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 이 서버가 발급한 접수 번호만 알 수 있음
+    public IngestTicket getStatus(long ticket) {
+        if (!enabled || ticket < 1 || ticket > journal.getLastSeq()) {
+            throw new WeatherException(ErrorCode.TICKET_NOT_FOUND);
+        }
+        if (journal.isDeadLettered(ticket)) {
+            return IngestTicket.from(ticket, IngestStatus.FAILED);
+        }
+        return IngestTicket.from(ticket, ticket <= committedSeq ? IngestStatus.PERSISTED : IngestStatus.PENDING);
+    }
+
+    // 저장은 다른 빈들이 모두 준비된 뒤 시작, 그 전에 들어온 요청은 저널에 쌓여 있음
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled && !committer.isAlive()) {
+            committer.start();
+        }
+    }
+
+    private void commitLoop() {
+        while (running) {
+            List<DiaryJournal.Entry> batch;
+            try {
+                batch = journal.takeBatch(batchSize, lingerMillis, 1000);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (!batch.isEmpty() && !commitWithRetry(batch)) {
+                return;
+            }
+        }
+    }
+
+    // 날씨 api, DB 장애는 지나가면 저장되므로 같은 batch 를 간격을 늘려가며 다시 저장, 멈추는 중이면 false
+    // 그 외의 실패는 batch 를 반으로 나눠 순서대로 저장해서 실패하는 일기만 골라내고
+    // 일기 하나가 max-attempts 번 실패하면 dead-letter 로 옮기고 그 일기까지 저장된 것으로 기록 (뒤의 일기들이 막히지 않음)
+    // 저장 못한 일기는 저널에 남아 있으므로 다시 띄우면 이어서 저장함
+    private boolean commitWithRetry(List<DiaryJournal.Entry> batch) {
+        long lastSeq = batch.get(batch.size() - 1).getSeq();
+        List<DiaryJournal.Entry> diaries = batch;
+        long delay = retryDelayMillis;
+        int failures = 0;
+        while (running) {
+            try {
+                commit(diaries, lastSeq);
+                return true;
+            } catch (RuntimeException e) {
+                boolean transientFailure = isTransient(e);
+                if (!transientFailure && diaries.size() > 1) {
+                    int half = diaries.size() / 2;
+                    return commitWithRetry(diaries.subList(0, half)) && commitWithRetry(diaries.subList(half, diaries.size()));
+                }
+                if (!transientFailure && !diaries.isEmpty() && ++failures >= maxAttempts && deadLetter(diaries.get(0), e)) {
+                    // 일기 없이 저장 위치만 기록
+                    diaries = List.of();
+                    continue;
+                }
+                log.warn("Failed to commit {} journaled diaries, retry in {}ms: {}", diaries.size(), delay, e.toString());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                delay = Math.min(delay * 2, maxRetryDelayMillis);
+            }
+        }
+        return false;
+    }
+
+    // 다시 시도하면 저장될 수 있는 실패 (날씨 api 를 쓸 수 없음, DB 연결/잠금/시간 초과)
+    private static boolean isTransient(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WeatherException) {
+                return ((WeatherException) cause).getErrorCode() == ErrorCode.WEATHER_API_UNAVAILABLE;
+            }
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // dead-letter 파일에 남기지 못하면 일기를 버리지 않고 계속 다시 시도
+    private boolean deadLetter(DiaryJournal.Entry entry, RuntimeException e) {
+        try {
+            journal.deadLetter(entry, e.toString());
+            log.error("Moved journaled diary {} to dead letter after {} attempts: {}", entry.getSeq(), maxAttempts, e.toString());
+            return true;
+        } catch (IOException io) {
+            log.error("Failed to write journaled diary {} to dead letter: {}", entry.getSeq(), io.toString());
+            return false;
+        }
+    }
+
+    private void commit(List<DiaryJournal.Entry> diaries, long lastSeq) {
+        List<CreateDiary.Request> requests = diaries.stream()
+                .map(entry -> new CreateDiary.Request(entry.getDate(), entry.getText()))
+                .collect(Collectors.toList());
+        diaryService.createJournaledDiaries(node, lastSeq, requests);
+        committedSeq = lastSeq;
+        journal.markCommitted(lastSeq);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (enabled) {
+            Gauge.builder("diary.ingest.pending", journal, DiaryJournal::getPendingCount).register(registry);
+        }
+    }
+
+    // 저장 중인 batch 는 끝날 때까지 조금 기다리고, 남은 일기는 저널에 두고 다음에 띄울 때 저장
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        committer.join(5000);
+        committer.interrupt();
+        journal.close();
+    }
+}
@@ -0,0 +1,34 @@
+package zerobase.projectweather.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.search.DiaryIndex;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DiarySearchService {
+    private final DiaryIndex diaryIndex;
+
+    private static final int MAX_QUERY_LENGTH = 255;
+    private static final int MAX_SEARCH_SIZE = 100;
+
+    // 일기 수와 상관없이 색인에서 점수가 높은 size 개만 가져옴, 검색 결과가 없으면 빈 목록
+    public List<DiaryInfo> searchDiaries(String query, LocalDate startDate, LocalDate endDate, String weather, int size) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new WeatherException(ErrorCode.INVALID_SEARCH_QUERY);
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new WeatherException(ErrorCode.INVALID_DATE_PERIOD);
+        }
+        if (size < 1 || size > MAX_SEARCH_SIZE) {
+            throw new WeatherException(ErrorCode.INVALID_PAGE_SIZE);
+        }
+        return diaryIndex.search(query, startDate, endDate, weather == null || weather.isBlank() ? null : weather, size);
+    }
+}
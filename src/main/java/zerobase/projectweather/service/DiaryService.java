@@ -1,229 +1,373 @@
 package zerobase.projectweather.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.PropertySource;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import zerobase.projectweather.ProjectWeatherApplication;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.client.WeatherClient;
+import zerobase.projectweather.client.WeatherPayloadParser;
+import zerobase.projectweather.config.ReadYourWrites;
 import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
 import zerobase.projectweather.domain.Diary;
+import zerobase.projectweather.dto.CreateDiary;
+import zerobase.projectweather.dto.DiaryCursor;
 import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.dto.DiaryPage;
 import zerobase.projectweather.exception.WeatherException;
 import zerobase.projectweather.repository.DateWeatherRepository;
 import zerobase.projectweather.repository.DiaryRepository;
+import zerobase.projectweather.repository.DiaryStreamRepository;
+import zerobase.projectweather.repository.IngestCheckpointRepository;
+import zerobase.projectweather.search.DiaryIndex;
 import zerobase.projectweather.type.ErrorCode;
 
-import javax.transaction.Transactional;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.text.SimpleDateFormat;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import java.time.LocalDate;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional // 하위 메소드들 각각 트랜잭션으로 동작 하도록
 @RequiredArgsConstructor
-@PropertySource("classpath:application-security.properties")
 public class DiaryService {
     private final DiaryRepository diaryRepository;
+    private final DiaryStreamRepository diaryStreamRepository;
     private final DateWeatherRepository dateWeatherRepository;
+    private final DateWeatherCache dateWeatherCache;
+    private final DiaryInfoCache diaryInfoCache;
+    private final DiaryIndex diaryIndex;
+    private final IngestCheckpointRepository ingestCheckpointRepository;
+    private final RollupService rollupService;
+    private final WeatherClient weatherClient;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_DATES = 366;
 
     private static final Logger logger = LoggerFactory.getLogger(ProjectWeatherApplication.class); // 프로젝트 전체에 로거 하나만 사용
 
-    @Value("${apiKey}")
-    private String apiKey;
+    // 일기에 붙일 날씨를 가져오는 도시
+    @Value("${weather.default-city}")
+    private String defaultCity;
 
-    @Transactional
-    public DiaryDto createDiary(String date, String text) {
-        logger.info("Create diary");
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
 
-        checkDateFormat(date);
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 날씨 조회(api 호출, 날씨 저장)는 일기 트랜잭션을 열기 전에 끝냄
+    // 트랜잭션이 커넥션을 잡은 채로 날씨를 기다리면, 날씨 저장에 필요한 커넥션을 얻지 못해 모두 멈출 수 있음
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DiaryDto createDiary(LocalDate date, String text) {
+        logger.info("Create diary");
 
         checkTextLength(text);
 
         // 날씨데이터 DB에서 가져오기
-        DateWeather dateWeather = getDateWeather(LocalDate.parse(date));
+        DateWeather dateWeather = getDateWeather(date);
 
         // 파싱된 데이터 + 일기 내용 db에 넣기
-        Diary diary = Diary.builder()
-                .weather(dateWeather)
-                .text(text)
-                .date(LocalDate.now())
-                .build();
+        Diary saved = transactionTemplate.execute(status -> {
+            Diary diary = diaryRepository.save(Diary.builder()
+                    .weather(dateWeather)
+                    .text(text)
+                    .date(date)
+                    .build());
+            rollupService.addDiaries(dateWeather.getCity(), dateWeather.getDate(), date, 1);
+            ReadYourWrites.wrote(date);
+            diaryInfoCache.evict(date);
+            diaryIndex.reindexDiary(diary.getId());
+            return diary;
+        });
         logger.info("Diary created");
-        return DiaryDto.from(diaryRepository.save(diary));
+        return DiaryDto.from(saved);
     }
 
-    private void checkTextLength(String text) {
-        if (text.length() > 255) {
-            throw new WeatherException(ErrorCode.TEXT_TOO_LONG);
+    // 여러 일기를 한 트랜잭션에서 저장, 하나라도 잘못되면 모두 롤백
+    @Transactional
+    public int createDiaries(Iterator<CreateDiary.Request> requests) {
+        logger.info("Create diaries");
+
+        Map<LocalDate, DateWeatherId> weatherIds = new HashMap<>();
+        Map<LocalDate, Integer> counts = new HashMap<>();
+        int count = 0;
+        while (requests.hasNext()) {
+            CreateDiary.Request request = requests.next();
+            checkTextLength(request.getText());
+
+            // 날씨는 날짜별로 한번만 조회하고, 이후에는 select 없이 reference 로 연결
+            LocalDate date = request.getDate();
+            DateWeatherId weatherId = weatherIds.computeIfAbsent(date, d -> getDateWeather(d).getId());
+            counts.merge(date, 1, Integer::sum);
+            entityManager.persist(Diary.builder()
+                    .weather(entityManager.getReference(DateWeather.class, weatherId))
+                    .text(request.getText())
+                    .date(date)
+                    .build());
+
+            if (++count % batchSize == 0) {
+                // 모인 insert 를 batch 로 실행하고 1차 캐시를 비워서 메모리 사용량을 일정하게 유지
+                entityManager.flush();
+                entityManager.clear();
+            }
         }
+
+        // 집계는 날짜별로 한번에 더함
+        counts.forEach((date, diaries) -> {
+            DateWeatherId weatherId = weatherIds.get(date);
+            rollupService.addDiaries(weatherId.getCity(), weatherId.getDate(), date, diaries);
+        });
+        ReadYourWrites.wrote(weatherIds.keySet());
+        weatherIds.keySet().forEach(diaryInfoCache::evict);
+        diaryIndex.reindex(weatherIds.keySet());
+        logger.info("{} diaries created", count);
+        return count;
     }
 
-    private boolean checkDateFormat(String date) {
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        try {
-            formatter.setLenient(false);
-            Date d = formatter.parse(date);
-            return true;
-        } catch (java.text.ParseException e) {
-            throw new WeatherException(ErrorCode.INVALID_DATE_FORMAT);
+    // 비동기 접수 저널에서 꺼낸 일기들을 저장하고, 저널의 어디까지 저장했는지를 같은 트랜잭션에서 기록
+    // 저장 도중 서버가 죽으면 둘 다 롤백되므로 다시 띄웠을 때 같은 일기를 두번 저장하지 않음
+    @Transactional
+    public int createJournaledDiaries(String node, long committedSeq, List<CreateDiary.Request> requests) {
+        int count = createDiaries(requests.iterator());
+        ingestCheckpointRepository.saveCommittedSeq(node, committedSeq);
+        return count;
+    }
+
+    public void checkTextLength(String text) {
+        if (text.length() > 255) {
+            throw new WeatherException(ErrorCode.TEXT_TOO_LONG);
         }
     }
 
+    // 날씨 api 를 쓸 수 없으면 (circuit open, 재시도 실패) DB 에 저장된 그 도시의 가장 최근 날씨 행에 일기를 연결
+    // 그날 날씨로 복사해서 저장하지 않으므로 날씨 통계에 들어가지 않고, 캐시에도 그날 날씨로 남지 않음
+    // (다음 요청은 다시 api 를 시도하고, 일기 수는 일기 날짜로 집계됨)
+    // 오늘이 아닌 날짜에 저장된 날씨가 없으면 오늘 날씨에 연결 (api 는 지금 날씨만 주므로 그날 날씨로 저장하지 않음)
     private DateWeather getDateWeather(LocalDate date) {
-        List<DateWeather> dateWeathers = dateWeatherRepository.findAllByDate(date);
-        if (dateWeathers.isEmpty()) {
-            return getWeatherFromApi();
-        } else {
-            return dateWeathers.get(0);
+        try {
+            // 캐시에 없는 경우에만 DB -> API 순서로 조회, 같은 날짜의 동시 요청은 한번만 조회함
+            DateWeather dateWeather = dateWeatherCache.get(new DateWeatherId(defaultCity, date), this::loadDateWeather);
+            if (dateWeather == null) {
+                dateWeather = dateWeatherCache.get(new DateWeatherId(defaultCity, LocalDate.now()), this::loadDateWeather);
+            }
+            return dateWeather;
+        } catch (WeatherException e) {
+            if (e.getErrorCode() != ErrorCode.WEATHER_API_UNAVAILABLE) {
+                throw e;
+            }
+            DateWeather latest = dateWeatherRepository.findFirstByCityOrderByDateDesc(defaultCity).orElseThrow(() -> e);
+            logger.warn("Use weather of {} for {} {}", latest.getDate(), defaultCity, date);
+            meterRegistry.counter("weather.api.fallback").increment();
+            return latest;
         }
     }
 
-    private DateWeather getWeatherFromApi() {
-        // open weather map api 에서 날씨 데이터 가져오기
-        String weatherDate = getWeatehrString();
-
-        // 받아온 날씨 json 파싱하기
-        Map<String, Object> parseWeather = parseWeather(weatherDate);
-        DateWeather dateWeather = DateWeather.builder()
-                .date(LocalDate.now())
-                .weather(parseWeather.get("main").toString())
-                .icon(parseWeather.get("icon").toString())
-                .temperature((Double) parseWeather.get("temp"))
-                .build();
-//        dateWeatherRepository.save(dateWeather);
-        return dateWeather;
-
+    // api 에서 가져온 날씨는 오늘 날짜로만 저장하고 집계함, 다른 날짜는 DB 에 없으면 null
+    private DateWeather loadDateWeather(DateWeatherId id) {
+        return dateWeatherRepository.findById(id)
+                .orElseGet(() -> id.getDate().equals(LocalDate.now())
+                        ? saveWeatherIfAbsent(getWeatherFromApi(id.getCity(), id.getDate()))
+                        : null);
     }
 
-    private Map<String, Object> parseWeather(String jsonString) {
-        JSONParser parser = new JSONParser();
-        JSONObject jsonObject;
+    // 다른 요청이 먼저 저장했으면 insert 는 무시되고 DB에 있는 날씨를 사용
+    private DateWeather saveWeatherIfAbsent(DateWeather dateWeather) {
+        if (rollupService.insertWeatherIfAbsent(dateWeather)) {
+            return dateWeather;
+        }
+        return dateWeatherRepository.findById(dateWeather.getId()).orElse(dateWeather);
+    }
 
+    private DateWeather getWeatherFromApi(String city, LocalDate date) {
+        // open weather map api 에서 날씨 데이터 가져와서 파싱하기, 실패하면 에러 코드를 outcome 으로 기록
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
         try {
-            jsonObject = (JSONObject) parser.parse(jsonString);
-        } catch (ParseException e) {
-            throw new RuntimeException("Parsing error", e);
+            return WeatherPayloadParser.parse(getWeatehrString(city)).toDateWeather(city, date);
+        } catch (WeatherException e) {
+            outcome = e.getErrorCode().name();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("weather.api.requests", "caller", "diary", "outcome", outcome));
         }
-
-        Map<String, Object> resultMap = new HashMap<>();
-        JSONObject main = (JSONObject) jsonObject.get("main");
-        resultMap.put("temp", main.get("temp"));
-
-        JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
-        JSONObject weatherObject = (JSONObject) weatherArray.get(0);
-        resultMap.put("main", weatherObject.get("main"));
-        resultMap.put("icon", weatherObject.get("icon"));
-        return resultMap;
-
     }
 
-    private String getWeatehrString() {
-        String apiUrl = "https://api.openweathermap.org/data/2.5/weather?q=seoul&appid=" + apiKey;
-
+    private String getWeatehrString(String city) {
         try {
-            URL url = new URL(apiUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            int responseCode = connection.getResponseCode();
-            BufferedReader br;
-            if (responseCode == 200) {
-                br = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            } else {
-                br = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-            }
+            return weatherClient.fetchCurrentWeather(city).join();
+        } catch (CompletionException e) {
+            logger.warn("Failed to get weather: {}", e.getCause().toString());
+            throw new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE);
+        }
+    }
 
-            String inputLine;
-            StringBuilder response = new StringBuilder();
-            while ((inputLine = br.readLine()) != null) {
-                response.append(inputLine);
-            }
-            br.close();
-            return response.toString();
-        } catch (Exception e) {
-            return "failed to get response";
+    // 일기가 없는 날짜는 예외 대신 빈 목록, 응답은 컨트롤러에서 정함
+    // 조회는 readOnly 트랜잭션 (replica 를 설정했으면 replica 에서 읽음, hibernate dirty checking 생략)
+    @Transactional(readOnly = true)
+    public List<DiaryInfo> getDiariesByDate(LocalDate date) {
+        // 이 서버가 방금 쓴 날짜만 primary 에서 읽음 (replica 의 이전 목록을 캐시에 넣지 않도록)
+        ReadYourWrites.read(date);
+        // 캐시에 없는 경우에만 DB 에서 읽음, 일기가 없는 날짜도 빈 목록으로 캐시해서 existsByDate 를 따로 조회하지 않음
+        return diaryInfoCache.get(date, d -> diaryRepository.findAllByDate(d).stream()
+                .map(DiaryInfo::from)
+                .collect(Collectors.toList()));
+    }
+
+    // 여러 날짜의 일기를 날짜 순으로 묶어서 반환, 일기가 없는 날짜는 DIARY_NOT_FOUND 대신 빈 목록
+    // 캐시에 없는 날짜들만 in 쿼리 한번으로 읽음
+    @Transactional(readOnly = true)
+    public Map<LocalDate, List<DiaryInfo>> getDiariesByDates(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            throw new WeatherException(ErrorCode.INVALID_REQUEST_BODY);
         }
+        Set<LocalDate> distinct = new TreeSet<>(dates);
+        if (distinct.size() > MAX_BATCH_DATES) {
+            throw new WeatherException(ErrorCode.TOO_MANY_DATES);
+        }
+        ReadYourWrites.read(distinct);
+        return diaryInfoCache.getAll(distinct, this::loadDiariesByDates);
     }
 
-    public List<DiaryDto> getDiariesByDate(String date) {
-        checkDateFormat(date);
-        diaryNotExists(date);
+    private Map<LocalDate, List<DiaryInfo>> loadDiariesByDates(List<LocalDate> dates) {
+        Map<LocalDate, List<DiaryInfo>> diaries = new HashMap<>();
+        dates.forEach(date -> diaries.put(date, new ArrayList<>()));
+        diaryRepository.findAllByDateIn(dates)
+                .forEach(diary -> diaries.get(diary.getDate()).add(DiaryInfo.from(diary)));
+        return diaries;
+    }
 
-        List<Diary> diaries = diaryRepository.findAllByDate(LocalDate.parse(date));
 
+    @Transactional(readOnly = true)
+    public List<DiaryDto> getDiariesByDatePeriod(LocalDate startDate, LocalDate endDate) {
+        checkDatePeriod(startDate, endDate);
 
+        // 일기가 없으면 예외 대신 빈 목록
+        List<Diary> diaries = diaryRepository.findAllByDateBetween(startDate, endDate);
+        logger.debug("Read diaries from {} to {}: {}", startDate, endDate, diaries.size());
         return diaries.stream().map(DiaryDto::from).collect(Collectors.toList());
     }
 
-    private void diaryNotExists(String date) {
-        if(!diaryRepository.existsByDate(LocalDate.parse(date))){
-            throw new WeatherException(ErrorCode.DIARY_NOT_FOUND);
-        }
-    }
 
+    @Transactional(readOnly = true)
+    public DiaryPage getDiaryPageByDatePeriod(LocalDate startDate, LocalDate endDate, String cursor, int size) {
+        checkDatePeriod(startDate, endDate);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new WeatherException(ErrorCode.INVALID_PAGE_SIZE);
+        }
 
-    public List<DiaryDto> getDiariesByDatePeriod(String startDate, String endDate) {
-        checkDateFormat(startDate);
-        checkDateFormat(endDate);
+        // 첫 페이지는 시작일 전날 이후부터 읽음
+        DiaryCursor after = cursor == null ? new DiaryCursor(startDate.minusDays(1), 0) : DiaryCursor.decode(cursor);
 
+        // 다음 페이지가 있는지 알기 위해 한 건 더 읽음
+        List<Diary> diaries = diaryRepository.findAllByDateBetweenAfter(startDate, endDate,
+                after.getDate(), after.getId(), PageRequest.of(0, size + 1));
 
-        if (startDate.compareTo(endDate) > 0) {
-            // s1.compareTo(s2) s1이 더크면 음수 같으면 0 작으면 양수
-            throw new WeatherException(ErrorCode.INVALID_DATE_PERIOD);
+        String nextCursor = null;
+        if (diaries.size() > size) {
+            diaries = diaries.subList(0, size);
+            Diary last = diaries.get(size - 1);
+            nextCursor = new DiaryCursor(last.getDate(), last.getId()).encode();
         }
 
-        List<Diary> diaries = diaryRepository.findAllByDateBetween(LocalDate.parse(startDate), LocalDate.parse(endDate));
-        System.out.println(LocalDate.parse(startDate) + " " + LocalDate.parse(endDate));
-        if (diaries.isEmpty()) {
-            throw new WeatherException(ErrorCode.DIARY_NOT_FOUND);
+        return DiaryPage.builder()
+                .diaries(diaries.stream().map(DiaryInfo::from).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamDiariesByDatePeriod(LocalDate startDate, LocalDate endDate, Consumer<DiaryInfo> consumer) {
+        checkDatePeriod(startDate, endDate);
+        diaryStreamRepository.streamByDateBetween(startDate, endDate, consumer);
+    }
+
+    public void checkDatePeriod(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            throw new WeatherException(ErrorCode.INVALID_DATE_PERIOD);
         }
-        return diaries.stream().map(DiaryDto::from).collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public DiaryDto getDiary(long id) {
+        ReadYourWrites.read(id);
+        return diaryRepository.findWithWeatherById(id)
+                .map(DiaryDto::from)
+                .orElseThrow(() -> new WeatherException(ErrorCode.DIARY_NOT_FOUND));
+    }
 
-    public DiaryDto updateDiary(String date, String text) {
-        diaryNotExists(date);
+    // 날짜로 수정하는 기존 api, 해당 날짜의 첫번째 일기를 읽은 버전으로 수정
+    public DiaryDto updateDiary(LocalDate date, String text) {
         checkTextLength(text);
 
-        Diary diary = diaryRepository.getFirstByDate(LocalDate.parse(date));
+        // 첫번째 일기를 읽은 결과로 있는지 확인하므로 existsByDate 를 따로 조회하지 않음
+        Diary diary = diaryRepository.getFirstByDate(date);
+        if (diary == null) {
+            throw new WeatherException(ErrorCode.DIARY_NOT_FOUND);
+        }
+        return updateDiary(diary.getId(), diary.getVersion(), text);
+    }
 
+    // 클라이언트가 읽은 버전(If-Match)과 같을 때만 수정, 잠금 없이 조건부 update 한번으로 동시 수정을 감지함
+    public DiaryDto updateDiary(long id, long version, String text) {
+        checkTextLength(text);
 
-        Diary newDiary = Diary.builder()
-                .id(diary.getId())
-                .date(diary.getDate())
-                .weather(diary.getWeather())
-                .text(text)
-                .build();
+        if (diaryRepository.updateText(id, version, text) == 0) {
+            // 실패한 경우에만 원인을 확인 (일기가 없는지, 다른 요청이 먼저 수정했는지)
+            throw new WeatherException(diaryRepository.existsById(id)
+                    ? ErrorCode.DIARY_VERSION_CONFLICT : ErrorCode.DIARY_NOT_FOUND);
+        }
 
-        diaryRepository.save(newDiary);
-        return DiaryDto.from(newDiary);
+        // 응답(새 버전)과 캐시 무효화에 필요한 날짜를 pk 로 읽음
+        Diary diary = diaryRepository.findWithWeatherById(id)
+                .orElseThrow(() -> new WeatherException(ErrorCode.DIARY_NOT_FOUND));
+        ReadYourWrites.wrote(List.of(id, diary.getDate()));
+        diaryInfoCache.evict(diary.getDate());
+        diaryIndex.reindexDiary(id);
+        return DiaryDto.from(diary);
     }
 
-    public DiaryDto deleteDiary(String date) {
-        checkDateFormat(date);
-        diaryNotExists(date);
-        diaryRepository.deleteAllByDate(LocalDate.parse(date));
-        return DiaryDto.fromDelete(Diary.builder().date(LocalDate.parse(date)).build());
-    }
+    public DiaryDto deleteDiary(LocalDate date) {
+        // 집계에서 뺄 일기들의 날씨, 지우기 전에 같은 날짜에 일기가 새로 생기지 않도록 잠금
+        List<DiaryRepository.WeatherOfDiary> diaries = diaryRepository.findWeatherIdsByDateForUpdate(date);
+        Map<DateWeatherId, Long> weatherIds = diaries.stream()
+                .collect(Collectors.groupingBy(weather -> new DateWeatherId(weather.getWeatherCity(), weather.getWeatherDate()),
+                        Collectors.counting()));
 
-    @Transactional
-    @Scheduled(cron = "0 0 1 * * *")
-    public void saveWeatherDate() {
-        dateWeatherRepository.save(getWeatherFromApi());
+        // 삭제된 건수로 일기가 있었는지 확인하므로 existsByDate 를 따로 조회하지 않음
+        if (diaryRepository.deleteAllByDate(date) == 0) {
+            throw new WeatherException(ErrorCode.DIARY_NOT_FOUND);
+        }
+        weatherIds.forEach((weatherId, count) ->
+                rollupService.addDiaries(weatherId.getCity(), weatherId.getDate(), date, -count.intValue()));
+        ReadYourWrites.wrote(date);
+        ReadYourWrites.wrote(diaries.stream().map(DiaryRepository.WeatherOfDiary::getId).collect(Collectors.toList()));
+        diaryInfoCache.evict(date);
+        diaryIndex.reindex(date);
+        return DiaryDto.fromDelete(Diary.builder().date(date).build());
     }
 
 }
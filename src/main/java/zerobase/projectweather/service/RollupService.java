@@ -0,0 +1,125 @@
+package zerobase.projectweather.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.config.ReadYourWrites;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
+import zerobase.projectweather.dto.DiaryStatistics;
+import zerobase.projectweather.dto.WeatherStatistics;
+import zerobase.projectweather.repository.DateWeatherBatchRepository;
+import zerobase.projectweather.repository.DateWeatherRepository;
+import zerobase.projectweather.repository.RollupRepository;
+import zerobase.projectweather.search.DiaryIndex;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// 날씨, 일기를 저장하는 트랜잭션 안에서 일/월/연 집계를 바뀐 만큼만 고침
+// 통계 조회는 집계 테이블에서 PK 로 바로 읽음
+@Service
+@RequiredArgsConstructor
+public class RollupService {
+    private final RollupRepository rollupRepository;
+    private final DateWeatherRepository dateWeatherRepository;
+    private final DateWeatherBatchRepository dateWeatherBatchRepository;
+    private final DiaryIndex diaryIndex;
+    private final DiaryInfoCache diaryInfoCache;
+
+    // 다른 요청이 먼저 저장해서 insert 가 무시된 경우는 집계에 더하지 않음
+    @Transactional
+    public boolean insertWeatherIfAbsent(DateWeather dateWeather) {
+        ReadYourWrites.wrote(dateWeather.getId());
+        if (dateWeatherRepository.insertIgnore(dateWeather) == 0) {
+            return false;
+        }
+        addWeather(dateWeather);
+        return true;
+    }
+
+    // 수집한 날씨를 덮어쓰기 전에 이전 값을 읽어서, 새로 생긴 날씨는 더하고 바뀐 날씨는 차이만 반영
+    @Transactional
+    public void upsertWeathers(List<DateWeather> dateWeathers) {
+        if (dateWeathers.isEmpty()) {
+            return;
+        }
+        Map<DateWeatherId, DateWeather> previous = new HashMap<>();
+        dateWeathers.stream()
+                .collect(Collectors.groupingBy(DateWeather::getDate,
+                        Collectors.mapping(DateWeather::getCity, Collectors.toList())))
+                .forEach((date, cities) -> dateWeatherBatchRepository.findAllByDateForUpdate(date, cities)
+                        .forEach(dateWeather -> previous.put(dateWeather.getId(), dateWeather)));
+
+        dateWeatherBatchRepository.upsertAll(dateWeathers);
+        ReadYourWrites.wrote(dateWeathers.stream().map(DateWeather::getId).collect(Collectors.toList()));
+
+        for (DateWeather dateWeather : dateWeathers) {
+            DateWeather old = previous.get(dateWeather.getId());
+            if (old == null) {
+                addWeather(dateWeather);
+            } else {
+                replaceWeather(old, dateWeather);
+            }
+        }
+    }
+
+    // 일기를 만들면 +, 지우면 - (해당 날씨 행을 잠그고 읽어서 그 사이에 날씨가 바뀌지 않음)
+    // 일기 수는 일기 날짜로 집계 (날씨 api 를 쓸 수 없을 때 작성한 일기는 다른 날짜의 날씨에 붙어 있음)
+    @Transactional
+    public void addDiaries(String weatherCity, LocalDate weatherDate, LocalDate diaryDate, int diaries) {
+        rollupRepository.addDiaries(diaryDate, rollupRepository.findWeatherForUpdate(weatherCity, weatherDate), diaries);
+    }
+
+    @Transactional(readOnly = true)
+    public WeatherStatistics getWeatherStatistics(String city, PeriodType period, LocalDate date) {
+        return rollupRepository.findWeatherStatistics(city, period, date);
+    }
+
+    @Transactional(readOnly = true)
+    public DiaryStatistics getDiaryStatistics(PeriodType period, LocalDate date) {
+        return rollupRepository.findDiaryStatistics(period, date);
+    }
+
+    private void addWeather(DateWeather dateWeather) {
+        String city = dateWeather.getCity();
+        LocalDate date = dateWeather.getDate();
+        rollupRepository.addWeather(city, date, 1, dateWeather.getTemperature());
+        rollupRepository.addWeatherCount(city, date, RollupRepository.WEATHER, dateWeather.getWeather(), 1);
+        rollupRepository.addWeatherCount(city, date, RollupRepository.ICON, dateWeather.getIcon(), 1);
+    }
+
+    private void replaceWeather(DateWeather old, DateWeather dateWeather) {
+        String city = dateWeather.getCity();
+        LocalDate date = dateWeather.getDate();
+        if (old.getTemperature() != dateWeather.getTemperature()) {
+            rollupRepository.addWeather(city, date, 0, dateWeather.getTemperature() - old.getTemperature());
+        }
+        if (!Objects.equals(old.getWeather(), dateWeather.getWeather())) {
+            rollupRepository.addWeatherCount(city, date, RollupRepository.WEATHER, old.getWeather(), -1);
+            rollupRepository.addWeatherCount(city, date, RollupRepository.WEATHER, dateWeather.getWeather(), 1);
+
+            // 이 날씨가 붙은 일기들도 일기 날짜별로 새 날씨로 옮기고, 검색 색인과 캐시의 날씨도 바꿈
+            Map<LocalDate, Integer> diaries = rollupRepository.countDiariesByDate(city, date);
+            diaries.forEach((diaryDate, count) -> {
+                rollupRepository.addDiaries(diaryDate, old.getWeather(), -count);
+                rollupRepository.addDiaries(diaryDate, dateWeather.getWeather(), count);
+                diaryInfoCache.evict(diaryDate);
+            });
+            ReadYourWrites.wrote(diaries.keySet());
+            if (!diaries.isEmpty()) {
+                diaryIndex.reindex(diaries.keySet());
+            }
+        }
+        if (!Objects.equals(old.getIcon(), dateWeather.getIcon())) {
+            rollupRepository.addWeatherCount(city, date, RollupRepository.ICON, old.getIcon(), -1);
+            rollupRepository.addWeatherCount(city, date, RollupRepository.ICON, dateWeather.getIcon(), 1);
+        }
+    }
+}
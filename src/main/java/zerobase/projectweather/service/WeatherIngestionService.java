@@ -0,0 +1,143 @@
+package zerobase.projectweather.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.client.HostRateLimiter;
+import zerobase.projectweather.client.WeatherClient;
+import zerobase.projectweather.client.WeatherPayloadParser;
+import zerobase.projectweather.domain.DateWeather;
+
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+@Slf4j
+@Service
+public class WeatherIngestionService {
+    private final WeatherClient weatherClient;
+    private final RollupService rollupService;
+    private final DateWeatherCache dateWeatherCache;
+    private final DiaryInfoCache diaryInfoCache;
+    private final MeterRegistry meterRegistry;
+
+    private final List<String> cities;
+    private final int batchSize;
+    private final String apiHost;
+    private final HostRateLimiter rateLimiter;
+    private final ExecutorService executor;
+
+    public WeatherIngestionService(WeatherClient weatherClient,
+                                   RollupService rollupService,
+                                   DateWeatherCache dateWeatherCache,
+                                   DiaryInfoCache diaryInfoCache,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${weather.ingestion.cities}") String[] cities,
+                                   @Value("${weather.ingestion.threads:8}") int threads,
+                                   @Value("${weather.ingestion.requests-per-second:5}") double requestsPerSecond,
+                                   @Value("${weather.ingestion.batch-size:100}") int batchSize,
+                                   @Value("${weather.api.base-url}") String baseUrl,
+                                   Environment environment) {
+        this.weatherClient = weatherClient;
+        this.rollupService = rollupService;
+        this.dateWeatherCache = dateWeatherCache;
+        this.diaryInfoCache = diaryInfoCache;
+        this.meterRegistry = meterRegistry;
+        this.cities = Arrays.asList(cities);
+        this.batchSize = batchSize;
+        this.apiHost = URI.create(baseUrl).getHost();
+        this.rateLimiter = new HostRateLimiter(requestsPerSecond);
+        // 동시에 나가는 요청 수를 threads 개로 제한, virtual thread 를 쓰는 경우 worker 도 virtual thread 로 만듦
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("weather-ingest-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("weather-ingest-");
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @Scheduled(cron = "${weather.ingestion.cron:0 0 1 * * *}")
+    public void saveWeatherDate() {
+        ingest(LocalDate.now());
+    }
+
+    // 도시별 날씨를 병렬로 가져와서 끝나는 순서대로 batchSize 만큼 모아 저장, 저장한 건수 반환
+    public int ingest(LocalDate date) {
+        // 수집 시간과 결과를 기록, 일부 도시만 저장된 경우는 partial
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            int saved = fetchAndSave(date);
+            outcome = saved == cities.size() ? "success" : "partial";
+            return saved;
+        } finally {
+            sample.stop(meterRegistry.timer("weather.ingestion", "outcome", outcome));
+        }
+    }
+
+    private int fetchAndSave(LocalDate date) {
+        CompletionService<DateWeather> completionService = new ExecutorCompletionService<>(executor);
+        for (String city : cities) {
+            completionService.submit(() -> fetch(city, date));
+        }
+
+        List<DateWeather> batch = new ArrayList<>(batchSize);
+        int saved = 0;
+        int failed = 0;
+        try {
+            for (int i = 0; i < cities.size(); i++) {
+                try {
+                    batch.add(completionService.take().get());
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Failed to ingest weather: {}", e.getCause().toString());
+                }
+                if (batch.size() >= batchSize) {
+                    saved += flush(batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            saved += flush(batch);
+        }
+
+        meterRegistry.counter("weather.ingestion.cities", "result", "saved").increment(saved);
+        meterRegistry.counter("weather.ingestion.cities", "result", "failed").increment(failed);
+        log.info("Weather ingested for {}: saved={}, failed={}", date, saved, failed);
+        return saved;
+    }
+
+    private DateWeather fetch(String city, LocalDate date) throws InterruptedException {
+        rateLimiter.acquire(apiHost);
+        String response = weatherClient.fetchCurrentWeather(city).join();
+        return WeatherPayloadParser.parse(response).toDateWeather(city, date);
+    }
+
+    private int flush(List<DateWeather> batch) {
+        int size = batch.size();
+        // 저장과 일/월/연 집계 반영을 한 트랜잭션으로
+        rollupService.upsertWeathers(batch);
+        // 커밋된 뒤 덮어쓴 날씨와 그 날짜의 일기 목록을 캐시에서 지워서 다음 조회부터 새 날씨를 읽도록
+        batch.forEach(dateWeather -> dateWeatherCache.invalidate(dateWeather.getId()));
+        batch.stream().map(DateWeather::getDate).distinct().forEach(diaryInfoCache::evict);
+        batch.clear();
+        return size;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
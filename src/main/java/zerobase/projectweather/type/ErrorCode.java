@@ -10,6 +10,17 @@ public enum ErrorCode {
     TEXT_TOO_LONG("일기 내용의 길이가 너무 깁니다."),
     INVALID_DATE_PERIOD("날짜 기간이 잘못되었습니다."),
     DIARY_NOT_FOUND("해당 날짜에 일기가 없습니다."),
+    DIARY_VERSION_CONFLICT("다른 요청이 먼저 일기를 수정했습니다."),
+    DIARY_VERSION_REQUIRED("수정할 일기의 ETag 를 If-Match 헤더로 보내주세요."),
+    TOO_MANY_DATES("한번에 조회할 수 있는 날짜 수를 넘었습니다."),
+    INVALID_CURSOR("커서 값이 잘못되었습니다."),
+    INVALID_PAGE_SIZE("페이지 크기가 잘못되었습니다."),
+    INVALID_REQUEST_BODY("요청 형식이 잘못되었습니다."),
+    INVALID_SEARCH_QUERY("검색어가 잘못되었습니다."),
+    TICKET_NOT_FOUND("접수 번호가 없습니다."),
+    INGEST_QUEUE_FULL("저장을 기다리는 일기가 너무 많습니다. 잠시 후 다시 시도해주세요."),
+    WEATHER_API_UNAVAILABLE("날씨 정보를 가져오지 못했습니다."),
+    WEATHER_PAYLOAD_MALFORMED("날씨 정보 응답 형식이 잘못되었습니다."),
     INTERNAL_SERVER_ERROR("내부 서버 오류");
 
     private final String description;
@@ -0,0 +1,9 @@
+package zerobase.projectweather.type;
+
+// 비동기로 접수한 일기의 상태, PENDING : 저널에 썼고 DB 저장을 기다리는 중, PERSISTED : DB 에 저장됨
+// FAILED : 여러 번 다시 저장해도 실패해서 dead-letter 로 옮김 (저장되지 않음)
+public enum IngestStatus {
+    PENDING,
+    PERSISTED,
+    FAILED
+}
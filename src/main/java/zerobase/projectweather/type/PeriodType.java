@@ -0,0 +1,34 @@
+package zerobase.projectweather.type;
+
+import java.time.LocalDate;
+
+// 집계 단위, 집계 테이블에는 기간을 period_key (20240629, 202406, 2024) 로 저장
+public enum PeriodType {
+    DAY,
+    MONTH,
+    YEAR;
+
+    // date 가 속한 기간의 key
+    public int key(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+            case MONTH:
+                return date.getYear() * 100 + date.getMonthValue();
+            default:
+                return date.getYear();
+        }
+    }
+
+    // date 가 속한 기간의 첫날
+    public LocalDate start(LocalDate date) {
+        switch (this) {
+            case DAY:
+                return date;
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+}
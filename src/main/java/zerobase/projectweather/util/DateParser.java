@@ -0,0 +1,57 @@
+package zerobase.projectweather.util;
+
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+// yyyy-MM-dd 형식의 날짜를 한번만 읽어서 LocalDate 로 바꿈
+// 형식 검사 중에는 객체를 만들지 않고, 정상적인 날짜는 예외 없이 처리됨
+public final class DateParser {
+
+    private static final int[] DAYS_OF_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private DateParser() {
+    }
+
+    public static LocalDate parse(CharSequence text) {
+        LocalDate date = parseOrNull(text);
+        if (date == null) {
+            throw new WeatherException(ErrorCode.INVALID_DATE_FORMAT);
+        }
+        return date;
+    }
+
+    // 형식이 잘못되었거나 없는 날짜(2월 30일 등)이면 null
+    public static LocalDate parseOrNull(CharSequence text) {
+        if (text == null || text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return null;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return month == 2 && Year.isLeap(year) ? 29 : DAYS_OF_MONTH[month - 1];
+    }
+
+    // 숫자가 아닌 문자가 있으면 -1
+    private static int digits(CharSequence text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,23 @@
+-- 날씨 일기 기본 스키마 (이전에는 ddl-auto=update 로 생성)
+CREATE TABLE IF NOT EXISTS date_weather
+(
+    city        VARCHAR(255) NOT NULL,
+    date        DATE         NOT NULL,
+    weather     VARCHAR(255),
+    icon        VARCHAR(255),
+    temperature DOUBLE       NOT NULL,
+    PRIMARY KEY (city, date)
+);
+
+-- Diary.id 를 50개씩 미리 할당받는 sequence (MariaDB 10.3+)
+CREATE SEQUENCE IF NOT EXISTS diary_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS diary
+(
+    id           BIGINT NOT NULL,
+    text         VARCHAR(255),
+    date         DATE,
+    weather_city VARCHAR(255),
+    weather_date DATE,
+    PRIMARY KEY (id)
+);
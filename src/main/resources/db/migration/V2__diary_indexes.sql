@@ -0,0 +1,8 @@
+-- 모든 DiaryRepository 조회/삭제가 diary.date 로 걸러지고 (date, id) 순서로 정렬/keyset 페이징 함
+CREATE INDEX idx_diary_date_id ON diary (date, id);
+
+-- 날씨 FK 를 따라가는 join / date_weather 삭제 시 참조 확인용
+CREATE INDEX idx_diary_weather ON diary (weather_city, weather_date);
+
+ALTER TABLE diary
+    ADD CONSTRAINT fk_diary_weather FOREIGN KEY (weather_city, weather_date) REFERENCES date_weather (city, date);
@@ -0,0 +1,105 @@
+-- 일/월/연 단위 집계 (period_type: DAY, MONTH, YEAR / period_key: 20240629, 202406, 2024)
+-- 날씨, 일기를 저장할 때 바뀐 만큼만 더하고 빼서 유지함 (RollupService)
+
+-- 도시별 날씨 수, 기온 합 (평균 기온 = temperature_sum / days)
+CREATE TABLE IF NOT EXISTS weather_rollup
+(
+    city            VARCHAR(255) NOT NULL,
+    period_type     VARCHAR(5)   NOT NULL,
+    period_key      INT          NOT NULL,
+    days            INT          NOT NULL,
+    temperature_sum DOUBLE       NOT NULL,
+    PRIMARY KEY (city, period_type, period_key)
+);
+
+-- 도시별 날씨 종류(category = weather), 아이콘(category = icon) 별 일 수
+CREATE TABLE IF NOT EXISTS weather_count_rollup
+(
+    city        VARCHAR(255) NOT NULL,
+    period_type VARCHAR(5)   NOT NULL,
+    period_key  INT          NOT NULL,
+    category    VARCHAR(10)  NOT NULL,
+    item        VARCHAR(255) NOT NULL,
+    days        INT          NOT NULL,
+    PRIMARY KEY (city, period_type, period_key, category, item)
+);
+
+-- 일기에 붙은 날씨 종류별 일기 수
+CREATE TABLE IF NOT EXISTS diary_rollup
+(
+    period_type VARCHAR(5)   NOT NULL,
+    period_key  INT          NOT NULL,
+    weather     VARCHAR(255) NOT NULL,
+    diaries     INT          NOT NULL,
+    PRIMARY KEY (period_type, period_key, weather)
+);
+
+-- 이미 있는 데이터로 채움
+INSERT INTO weather_rollup (city, period_type, period_key, days, temperature_sum)
+SELECT city, 'DAY', period_key, COUNT(*), SUM(temperature)
+FROM (SELECT city, temperature, EXTRACT(YEAR FROM date) * 10000 + EXTRACT(MONTH FROM date) * 100 + EXTRACT(DAY FROM date) AS period_key
+      FROM date_weather) w
+GROUP BY city, period_key;
+
+INSERT INTO weather_rollup (city, period_type, period_key, days, temperature_sum)
+SELECT city, 'MONTH', period_key, COUNT(*), SUM(temperature)
+FROM (SELECT city, temperature, EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date) AS period_key
+      FROM date_weather) w
+GROUP BY city, period_key;
+
+INSERT INTO weather_rollup (city, period_type, period_key, days, temperature_sum)
+SELECT city, 'YEAR', period_key, COUNT(*), SUM(temperature)
+FROM (SELECT city, temperature, EXTRACT(YEAR FROM date) AS period_key
+      FROM date_weather) w
+GROUP BY city, period_key;
+
+INSERT INTO weather_count_rollup (city, period_type, period_key, category, item, days)
+SELECT city, 'DAY', period_key, category, item, COUNT(*)
+FROM (SELECT city, EXTRACT(YEAR FROM date) * 10000 + EXTRACT(MONTH FROM date) * 100 + EXTRACT(DAY FROM date) AS period_key, 'weather' AS category, COALESCE(weather, '') AS item
+      FROM date_weather
+      UNION ALL
+      SELECT city, EXTRACT(YEAR FROM date) * 10000 + EXTRACT(MONTH FROM date) * 100 + EXTRACT(DAY FROM date) AS period_key, 'icon' AS category, COALESCE(icon, '') AS item
+      FROM date_weather) w
+GROUP BY city, period_key, category, item;
+
+INSERT INTO weather_count_rollup (city, period_type, period_key, category, item, days)
+SELECT city, 'MONTH', period_key, category, item, COUNT(*)
+FROM (SELECT city, EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date) AS period_key, 'weather' AS category, COALESCE(weather, '') AS item
+      FROM date_weather
+      UNION ALL
+      SELECT city, EXTRACT(YEAR FROM date) * 100 + EXTRACT(MONTH FROM date) AS period_key, 'icon' AS category, COALESCE(icon, '') AS item
+      FROM date_weather) w
+GROUP BY city, period_key, category, item;
+
+INSERT INTO weather_count_rollup (city, period_type, period_key, category, item, days)
+SELECT city, 'YEAR', period_key, category, item, COUNT(*)
+FROM (SELECT city, EXTRACT(YEAR FROM date) AS period_key, 'weather' AS category, COALESCE(weather, '') AS item
+      FROM date_weather
+      UNION ALL
+      SELECT city, EXTRACT(YEAR FROM date) AS period_key, 'icon' AS category, COALESCE(icon, '') AS item
+      FROM date_weather) w
+GROUP BY city, period_key, category, item;
+
+INSERT INTO diary_rollup (period_type, period_key, weather, diaries)
+SELECT 'DAY', period_key, weather, COUNT(*)
+FROM (SELECT EXTRACT(YEAR FROM w.date) * 10000 + EXTRACT(MONTH FROM w.date) * 100 + EXTRACT(DAY FROM w.date) AS period_key,
+             COALESCE(w.weather, '') AS weather
+      FROM diary d
+               JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date) dw
+GROUP BY period_key, weather;
+
+INSERT INTO diary_rollup (period_type, period_key, weather, diaries)
+SELECT 'MONTH', period_key, weather, COUNT(*)
+FROM (SELECT EXTRACT(YEAR FROM w.date) * 100 + EXTRACT(MONTH FROM w.date) AS period_key,
+             COALESCE(w.weather, '') AS weather
+      FROM diary d
+               JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date) dw
+GROUP BY period_key, weather;
+
+INSERT INTO diary_rollup (period_type, period_key, weather, diaries)
+SELECT 'YEAR', period_key, weather, COUNT(*)
+FROM (SELECT EXTRACT(YEAR FROM w.date) AS period_key,
+             COALESCE(w.weather, '') AS weather
+      FROM diary d
+               JOIN date_weather w ON w.city = d.weather_city AND w.date = d.weather_date) dw
+GROUP BY period_key, weather;
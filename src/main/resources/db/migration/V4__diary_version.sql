@@ -0,0 +1,3 @@
+-- 일기 수정 시 낙관적 잠금용 버전, 수정할 때마다 1씩 올라가고 ETag 로 내려줌
+-- 조건부 update (WHERE id = ? AND version = ?) 한번으로 다른 요청이 먼저 수정했는지 확인함
+ALTER TABLE diary ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- 비동기 일기 접수 저널(서버마다 하나)을 어느 seq 까지 DB 에 저장했는지
+-- 일기 insert 와 같은 트랜잭션에서 올리므로 저장 도중 서버가 죽어도 다시 띄웠을 때 두번 저장하지 않음
+CREATE TABLE IF NOT EXISTS diary_ingest_checkpoint
+(
+    node          VARCHAR(64) NOT NULL,
+    committed_seq BIGINT      NOT NULL,
+    PRIMARY KEY (node)
+);
@@ -0,0 +1,8 @@
+-- 읽기 전용 replica 가 primary 를 얼마나 따라왔는지 재는 heartbeat (서버마다 한 행)
+-- 서버가 primary 에 현재 시각을 쓰고, replica 에서 읽은 값과 비교해서 복제 지연을 계산함
+CREATE TABLE IF NOT EXISTS replication_heartbeat
+(
+    node        VARCHAR(64) NOT NULL,
+    beat_millis BIGINT      NOT NULL,
+    PRIMARY KEY (node)
+);
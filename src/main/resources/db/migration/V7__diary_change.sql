@@ -0,0 +1,13 @@
+-- 블로킹 앱 밖에서 (reactive 모듈) 작성/수정/삭제한 일기, 일기를 쓰는 트랜잭션 안에서 일기 하나당 한 행
+-- 블로킹 앱의 서버마다 주기적으로 읽어서 날짜별 일기 캐시를 지우고 검색 색인을 다시 만듦 (DiaryChangeService)
+-- 집계는 쓰는 쪽이 같은 트랜잭션에서 직접 고치므로 여기에 남기지 않음
+CREATE TABLE IF NOT EXISTS diary_change
+(
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    diary_id   BIGINT       NOT NULL,
+    diary_date DATE         NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_diary_change_created_at ON diary_change (created_at);
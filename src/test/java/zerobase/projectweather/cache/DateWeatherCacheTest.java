@@ -0,0 +1,156 @@
+package zerobase.projectweather.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateWeatherCacheTest {
+
+    @Test
+    @DisplayName("같은 날짜 동시 조회 - loader 한번만 호출")
+    void concurrentMissesShareOneLoad() throws Exception {
+        //given
+        DateWeatherCache cache = new DateWeatherCache(600, 1000);
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.parse("2024-06-30"));
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //when
+        List<Future<DateWeather>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cache.get(id, key -> {
+                    loadCount.incrementAndGet();
+                    sleep(100);
+                    return DateWeather.builder().city(key.getCity()).date(key.getDate()).weather("Clear").icon("01d").temperature(303.91).build();
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<DateWeather> future : futures) {
+            assertEquals("Clear", future.get(5, TimeUnit.SECONDS).getWeather());
+        }
+        executor.shutdown();
+
+        //then
+        assertEquals(1, loadCount.get());
+        assertEquals(1, cache.stats().loadSuccessCount());
+        assertEquals(8, cache.stats().requestCount());
+    }
+
+    @Test
+    @DisplayName("loader 실패 - 캐시에 저장하지 않음")
+    void failedLoadIsNotCached() {
+        //given
+        DateWeatherCache cache = new DateWeatherCache(600, 1000);
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.parse("2024-06-30"));
+
+        //when
+        assertThrows(IllegalStateException.class, () -> cache.get(id, key -> {
+            throw new IllegalStateException();
+        }));
+        DateWeather dateWeather = cache.get(id, key -> DateWeather.builder().date(key.getDate()).weather("Rain").build());
+
+        //then
+        assertEquals("Rain", dateWeather.getWeather());
+        assertEquals(1, cache.stats().loadFailureCount());
+    }
+
+    @Test
+    @DisplayName("loader 가 null 반환 - 캐시에 저장하지 않음 (트랜잭션 안에서도)")
+    void nullLoadIsNotCached() {
+        //given
+        DateWeatherCache cache = new DateWeatherCache(600, 1000);
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.parse("2024-06-30"));
+
+        //when
+        DateWeather outside = cache.get(id, key -> null);
+        DateWeather inside = inTransaction(() -> {
+            DateWeather dateWeather = cache.get(id, key -> null);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            return dateWeather;
+        });
+
+        //then
+        assertNull(outside);
+        assertNull(inside);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 조회 - 커밋된 뒤에만 캐시에 저장")
+    void loadInTransactionIsCachedAfterCommit() {
+        //given
+        DateWeatherCache cache = new DateWeatherCache(600, 1000);
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.parse("2024-06-30"));
+        Thread caller = Thread.currentThread();
+        List<Thread> loaderThreads = new ArrayList<>();
+
+        //when
+        DateWeather loaded = inTransaction(() -> {
+            DateWeather dateWeather = cache.get(id, key -> {
+                loaderThreads.add(Thread.currentThread());
+                return DateWeather.builder().date(key.getDate()).weather("Clear").build();
+            });
+            assertEquals(0, cache.size());
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            return dateWeather;
+        });
+
+        //then
+        assertEquals(List.of(caller), loaderThreads);
+        assertEquals("Clear", loaded.getWeather());
+        assertEquals(1, cache.size());
+        assertEquals("Clear", cache.get(id, key -> fail("cached weather expected")).getWeather());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 조회 - 롤백되면 캐시에 저장하지 않음")
+    void loadInRolledBackTransactionIsNotCached() {
+        //given
+        DateWeatherCache cache = new DateWeatherCache(600, 1000);
+        DateWeatherId id = new DateWeatherId("seoul", LocalDate.parse("2024-06-30"));
+
+        //when
+        inTransaction(() -> cache.get(id, key -> DateWeather.builder().date(key.getDate()).weather("Clear").build()));
+        DateWeather dateWeather = cache.get(id, key -> DateWeather.builder().date(key.getDate()).weather("Rain").build());
+
+        //then
+        assertEquals("Rain", dateWeather.getWeather());
+    }
+
+    // 커밋은 하지 않고 (afterCommit 을 부르지 않으면 롤백과 같음) 트랜잭션 동기화만 흉내냄
+    private static <T> T inTransaction(Callable<T> action) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            return action.call();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package zerobase.projectweather.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import zerobase.projectweather.dto.DiaryInfo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiaryInfoCacheTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    // caffeine (기본) 과 redis 대신 값을 직렬화해서 저장하는 캐시 (storeByValue) 로 같은 동작 확인
+    static Stream<CacheManager> cacheManagers() {
+        ConcurrentMapCacheManager storeByValue = new ConcurrentMapCacheManager(DiaryInfoCache.CACHE_NAME);
+        storeByValue.setStoreByValue(true);
+        return Stream.of(new CaffeineCacheManager(DiaryInfoCache.CACHE_NAME), storeByValue);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("같은 날짜 두번 조회 - loader 한번만 호출")
+    void secondGetIsCached(CacheManager cacheManager) {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(cacheManager);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        //when
+        cache.get(DATE, date -> load(date, loadCount));
+        List<DiaryInfo> diaries = cache.get(DATE, date -> load(date, loadCount));
+
+        //then
+        assertEquals(1, loadCount.get());
+        assertEquals("Clear", diaries.get(0).getWeather());
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("일기가 없는 날짜 - 빈 목록도 캐시")
+    void emptyListIsCached(CacheManager cacheManager) {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(cacheManager);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        //when
+        cache.get(DATE, date -> {
+            loadCount.incrementAndGet();
+            return new ArrayList<>();
+        });
+        List<DiaryInfo> diaries = cache.get(DATE, date -> load(date, loadCount));
+
+        //then
+        assertEquals(1, loadCount.get());
+        assertTrue(diaries.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("evict - 해당 날짜만 다시 읽음")
+    void evictOnlyGivenDate(CacheManager cacheManager) {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(cacheManager);
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get(DATE, date -> load(date, loadCount));
+        cache.get(DATE.plusDays(1), date -> load(date, loadCount));
+
+        //when
+        cache.evict(DATE);
+        cache.get(DATE, date -> load(date, loadCount));
+        cache.get(DATE.plusDays(1), date -> load(date, loadCount));
+
+        //then
+        assertEquals(3, loadCount.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("여러 날짜 조회 - 캐시에 없는 날짜만 한번에 읽음")
+    void getAllLoadsOnlyMisses(CacheManager cacheManager) {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(cacheManager);
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get(DATE, date -> load(date, loadCount));
+        List<List<LocalDate>> loaded = new ArrayList<>();
+
+        //when
+        Map<LocalDate, List<DiaryInfo>> diaries = cache.getAll(List.of(DATE, DATE.plusDays(1), DATE.plusDays(2)), dates -> {
+            loaded.add(dates);
+            return dates.stream().collect(Collectors.toMap(date -> date, date -> load(date, loadCount)));
+        });
+        cache.get(DATE.plusDays(2), date -> load(date, loadCount));
+
+        //then
+        assertEquals(List.of(List.of(DATE.plusDays(1), DATE.plusDays(2))), loaded);
+        assertEquals(List.of(DATE, DATE.plusDays(1), DATE.plusDays(2)), new ArrayList<>(diaries.keySet()));
+        assertEquals(3, loadCount.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource("cacheManagers")
+    @DisplayName("읽는 도중 evict - 읽은 목록은 캐시에 넣지 않음")
+    void evictDuringLoadIsNotOverwritten(CacheManager cacheManager) {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(cacheManager);
+        AtomicInteger loadCount = new AtomicInteger();
+
+        //when
+        cache.get(DATE, date -> {
+            // 다른 요청이 일기를 수정하고 커밋한 경우
+            cache.evict(date);
+            return load(date, loadCount);
+        });
+        cache.getAll(List.of(DATE.plusDays(1)), dates -> {
+            cache.evict(DATE.plusDays(1));
+            return Map.of(DATE.plusDays(1), load(DATE.plusDays(1), loadCount));
+        });
+        cache.get(DATE, date -> load(date, loadCount));
+        cache.get(DATE.plusDays(1), date -> load(date, loadCount));
+
+        //then
+        assertEquals(4, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 evict - 커밋된 뒤에 지워짐")
+    void evictAfterCommit() {
+        //given
+        DiaryInfoCache cache = new DiaryInfoCache(new CaffeineCacheManager(DiaryInfoCache.CACHE_NAME));
+        AtomicInteger loadCount = new AtomicInteger();
+        cache.get(DATE, date -> load(date, loadCount));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        cache.evict(DATE);
+        cache.get(DATE, date -> load(date, loadCount));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        cache.get(DATE, date -> load(date, loadCount));
+
+        //then
+        assertEquals(2, loadCount.get());
+    }
+
+    private static List<DiaryInfo> load(LocalDate date, AtomicInteger loadCount) {
+        loadCount.incrementAndGet();
+        List<DiaryInfo> diaries = new ArrayList<>();
+        diaries.add(DiaryInfo.builder().date(date).weather("Clear").text("오늘의 날씨는 맑음").build());
+        return diaries;
+    }
+}
@@ -0,0 +1,76 @@
+package zerobase.projectweather.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(10), now::get);
+
+    @Test
+    @DisplayName("연속 실패가 threshold 에 닿으면 열림")
+    void opensAfterConsecutiveFailures() {
+        //given
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess(); // 성공하면 실패 횟수 초기화
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        //when
+        boolean opened = circuitBreaker.onFailure();
+
+        //then
+        assertTrue(opened);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("열린 시간이 지나면 한 요청만 시험 호출, 성공하면 닫힘")
+    void halfOpenProbeSuccess() {
+        //given
+        open();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        //when
+        boolean probe = circuitBreaker.tryAcquire();
+        boolean other = circuitBreaker.tryAcquire();
+        circuitBreaker.onSuccess();
+
+        //then
+        assertTrue(probe);
+        assertFalse(other);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    @DisplayName("시험 호출이 실패하면 다시 열림")
+    void halfOpenProbeFailure() {
+        //given
+        open();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        circuitBreaker.tryAcquire();
+
+        //when
+        boolean opened = circuitBreaker.onFailure();
+
+        //then
+        assertTrue(opened);
+        assertFalse(circuitBreaker.tryAcquire());
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertFalse(circuitBreaker.tryAcquire());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure();
+        }
+    }
+}
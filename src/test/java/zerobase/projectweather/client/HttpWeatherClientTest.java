@@ -0,0 +1,71 @@
+package zerobase.projectweather.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpWeatherClientTest {
+
+    private StubWeatherServer server;
+    private HttpWeatherClient weatherClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StubWeatherServer();
+        weatherClient = new HttpWeatherClient(
+                HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build(),
+                server.baseUrl(), "test-key", Duration.ofSeconds(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    @DisplayName("날씨 가져오기 - 성공")
+    void successFetchCurrentWeather() {
+        //when
+        String response = weatherClient.fetchCurrentWeather("seoul").join();
+
+        //then
+        assertEquals(StubWeatherServer.SEOUL_CLEAR, response);
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    @DisplayName("날씨 가져오기 - 실패 - 200 이 아닌 응답")
+    void failFetchCurrentWeather_errorStatus() {
+        //given
+        server.respond(401, "{\"cod\":401,\"message\":\"Invalid API key\"}");
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class
+                , () -> weatherClient.fetchCurrentWeather("seoul").join());
+
+        //then
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+
+    @Test
+    @DisplayName("날씨 가져오기 - 실패 - 응답 시간 초과")
+    void failFetchCurrentWeather_timeout() {
+        //given
+        server.delay(2000);
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class
+                , () -> weatherClient.fetchCurrentWeather("seoul").join());
+
+        //then
+        assertInstanceOf(HttpTimeoutException.class, exception.getCause());
+    }
+}
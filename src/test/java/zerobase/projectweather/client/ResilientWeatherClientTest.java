@@ -0,0 +1,101 @@
+package zerobase.projectweather.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientWeatherClientTest {
+
+    private final Deque<CompletableFuture<String>> responses = new ArrayDeque<>();
+    private int calls;
+
+    private final WeatherClient delegate = city -> {
+        calls++;
+        return responses.isEmpty() ? CompletableFuture.completedFuture("ok") : responses.poll();
+    };
+
+    @Test
+    @DisplayName("연결 실패 - 재시도해서 성공")
+    void retryThenSuccess() {
+        //given
+        ResilientWeatherClient client = client(new RetryBudget(0.2, 10), 5);
+        responses.add(CompletableFuture.failedFuture(new ConnectException("refused")));
+        responses.add(CompletableFuture.failedFuture(new WeatherApiException(503)));
+
+        //when
+        String response = client.fetchCurrentWeather("seoul").join();
+
+        //then
+        assertEquals("ok", response);
+        assertEquals(3, calls);
+        assertEquals(CircuitBreaker.State.CLOSED, client.getState());
+    }
+
+    @Test
+    @DisplayName("4xx 응답 - 재시도하지 않고 circuit 실패로도 세지 않음")
+    void clientErrorNotRetried() {
+        //given
+        ResilientWeatherClient client = client(new RetryBudget(0.2, 10), 1);
+        responses.add(CompletableFuture.failedFuture(new WeatherApiException(404)));
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class
+                , () -> client.fetchCurrentWeather("seoul").join());
+
+        //then
+        assertInstanceOf(WeatherApiException.class, exception.getCause());
+        assertEquals(1, calls);
+        assertEquals(CircuitBreaker.State.CLOSED, client.getState());
+    }
+
+    @Test
+    @DisplayName("재시도 예산을 다 쓰면 재시도하지 않음")
+    void retryBudgetExhausted() {
+        //given
+        ResilientWeatherClient client = client(new RetryBudget(0, 1), 5);
+        for (int i = 0; i < 4; i++) {
+            responses.add(CompletableFuture.failedFuture(new ConnectException("refused")));
+        }
+
+        //when
+        assertThrows(CompletionException.class, () -> client.fetchCurrentWeather("seoul").join());
+        assertThrows(CompletionException.class, () -> client.fetchCurrentWeather("seoul").join());
+
+        //then
+        assertEquals(3, calls); // 첫 요청 2번 (재시도 1번), 두번째 요청은 재시도 없이 1번
+    }
+
+    @Test
+    @DisplayName("연속 실패로 circuit 이 열리면 api 를 호출하지 않고 바로 실패")
+    void openCircuitRejects() {
+        //given
+        ResilientWeatherClient client = client(new RetryBudget(0, 0), 2);
+        responses.add(CompletableFuture.failedFuture(new ConnectException("refused")));
+        responses.add(CompletableFuture.failedFuture(new ConnectException("refused")));
+        assertThrows(CompletionException.class, () -> client.fetchCurrentWeather("seoul").join());
+        assertThrows(CompletionException.class, () -> client.fetchCurrentWeather("seoul").join());
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class
+                , () -> client.fetchCurrentWeather("seoul").join());
+
+        //then
+        assertInstanceOf(CircuitBreakerOpenException.class, exception.getCause());
+        assertEquals(2, calls);
+        assertEquals(CircuitBreaker.State.OPEN, client.getState());
+    }
+
+    private ResilientWeatherClient client(RetryBudget retryBudget, int failureThreshold) {
+        return new ResilientWeatherClient(delegate,
+                new CircuitBreaker(failureThreshold, Duration.ofMinutes(1), System::nanoTime),
+                retryBudget, 3, 1, 5);
+    }
+}
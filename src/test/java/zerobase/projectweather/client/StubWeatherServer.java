@@ -0,0 +1,75 @@
+package zerobase.projectweather.client;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// open weather map api 대신 로컬에서 고정 응답을 돌려주는 테스트용 서버
+public class StubWeatherServer implements AutoCloseable {
+
+    public static final String SEOUL_CLEAR = "{\"coord\":{\"lon\":126.9778,\"lat\":37.5683},"
+            + "\"weather\":[{\"id\":800,\"main\":\"Clear\",\"description\":\"clear sky\",\"icon\":\"01d\"}],"
+            + "\"base\":\"stations\",\"main\":{\"temp\":303.91,\"feels_like\":306.1,\"pressure\":1008,\"humidity\":55},"
+            + "\"name\":\"Seoul\",\"cod\":200}";
+
+    private final HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    private volatile int status = 200;
+    private volatile String body = SEOUL_CLEAR;
+    private volatile long delayMillis = 0;
+
+    public StubWeatherServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/data/2.5/weather", exchange -> {
+            requestCount.incrementAndGet();
+            sleep(delayMillis);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/data/2.5/weather";
+    }
+
+    public StubWeatherServer respond(int status, String body) {
+        this.status = status;
+        this.body = body;
+        return this;
+    }
+
+    public StubWeatherServer delay(long delayMillis) {
+        this.delayMillis = delayMillis;
+        return this;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package zerobase.projectweather.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WeatherPayloadParserTest {
+
+    @Test
+    @DisplayName("날씨 응답 파싱 - 성공")
+    void successParse() {
+        //when
+        WeatherPayload payload = WeatherPayloadParser.parse(StubWeatherServer.SEOUL_CLEAR);
+
+        //then
+        assertEquals("Clear", payload.weather());
+        assertEquals("01d", payload.icon());
+        assertEquals(303.91, payload.temperature());
+    }
+
+    @Test
+    @DisplayName("날씨 응답 파싱 - 성공 - 필드 순서와 정수 온도")
+    void successParse_reorderedFields() {
+        //given
+        String json = "{\"main\":{\"humidity\":55,\"temp\":300},\"name\":\"Seoul\","
+                + "\"weather\":[{\"icon\":\"10n\",\"extra\":{\"a\":[1,2]},\"main\":\"Rain\"},{\"main\":\"Mist\",\"icon\":\"50n\"}]}";
+
+        //when
+        WeatherPayload payload = WeatherPayloadParser.parse(json);
+
+        //then
+        assertEquals("Rain", payload.weather());
+        assertEquals("10n", payload.icon());
+        assertEquals(300.0, payload.temperature());
+    }
+
+    @Test
+    @DisplayName("날씨 응답 파싱 - 실패 - json 이 아닌 응답")
+    void failParse_notJson() {
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> WeatherPayloadParser.parse("failed to get response"));
+
+        assertEquals(ErrorCode.WEATHER_PAYLOAD_MALFORMED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("날씨 응답 파싱 - 실패 - 필요한 필드가 없는 경우")
+    void failParse_missingField() {
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> WeatherPayloadParser.parse("{\"main\":{\"temp\":300},\"weather\":[]}"));
+
+        assertEquals(ErrorCode.WEATHER_PAYLOAD_MALFORMED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("날씨 응답 파싱 - 실패 - 잘린 응답")
+    void failParse_truncated() {
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> WeatherPayloadParser.parse(StubWeatherServer.SEOUL_CLEAR.substring(0, 120)));
+
+        assertEquals(ErrorCode.WEATHER_PAYLOAD_MALFORMED, exception.getErrorCode());
+    }
+}
@@ -0,0 +1,84 @@
+package zerobase.projectweather.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// flyway 이전 (ddl-auto=update) 스키마에 application.properties 와 같은 baseline 설정으로 migrate
+class DdlAutoSchemaUpgradeTest {
+
+    @Test
+    @DisplayName("ddl-auto 로 만든 DB - (city, date) PK, weather_city, MAX(id) 위에서 시작하는 sequence 로 바꾸고 V1 이후를 적용")
+    void upgradeDdlAutoSchema() {
+        //given
+        DataSource dataSource = dataSource("upgrade");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // 도시별 날씨 이전에 hibernate 가 만든 스키마
+        jdbcTemplate.execute("CREATE TABLE date_weather (date DATE NOT NULL, icon VARCHAR(255), temperature DOUBLE NOT NULL, "
+                + "weather VARCHAR(255), PRIMARY KEY (date))");
+        jdbcTemplate.execute("CREATE TABLE diary (id BIGINT NOT NULL AUTO_INCREMENT, date DATE, text VARCHAR(255), "
+                + "weather_date DATE, PRIMARY KEY (id))");
+        jdbcTemplate.execute("ALTER TABLE diary ADD CONSTRAINT FK6lcp8r2cm5pa6hxkkvn5rrtab FOREIGN KEY (weather_date) REFERENCES date_weather (date)");
+        jdbcTemplate.update("INSERT INTO date_weather (date, icon, temperature, weather) VALUES ('2024-06-29', '01d', 300, 'Clear')");
+        jdbcTemplate.update("INSERT INTO date_weather (date, icon, temperature, weather) VALUES ('2024-06-30', '10d', 290, 'Rain')");
+        jdbcTemplate.update("INSERT INTO diary (id, date, text, weather_date) VALUES (1, '2024-06-29', '맑음', '2024-06-29')");
+        jdbcTemplate.update("INSERT INTO diary (id, date, text, weather_date) VALUES (2, '2024-06-30', '비', '2024-06-30')");
+        jdbcTemplate.update("INSERT INTO diary (id, date, text, weather_date) VALUES (120, '2024-06-30', '또 비', '2024-06-30')");
+
+        //when
+        migrate(dataSource);
+        migrate(dataSource); // 다시 띄워도 아무것도 바꾸지 않음
+
+        //then
+        assertEquals(List.of("seoul"), jdbcTemplate.queryForList("SELECT DISTINCT weather_city FROM diary", String.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM diary d JOIN date_weather w "
+                + "ON w.city = d.weather_city AND w.date = d.weather_date", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR diary_seq", Long.class) > 120 + 50);
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT diaries FROM diary_rollup "
+                + "WHERE period_type = 'DAY' AND period_key = 20240630 AND weather = 'Rain'", Integer.class));
+        // V2 의 FK 가 (city, date) PK 를 참조
+        jdbcTemplate.update("INSERT INTO date_weather (city, date, icon, temperature, weather) VALUES ('busan', '2024-06-30', '01d', 300, 'Clear')");
+        jdbcTemplate.update("INSERT INTO diary (id, date, text, weather_city, weather_date) VALUES (500, '2024-06-30', '부산', 'busan', '2024-06-30')");
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO diary (id, date, text, weather_city, weather_date) VALUES (501, '2024-06-30', '없는 날씨', 'daegu', '2024-06-30')"));
+    }
+
+    @Test
+    @DisplayName("빈 DB - 아무것도 바꾸지 않고 V1 부터 적용")
+    void emptyDatabase() {
+        //given
+        DataSource dataSource = dataSource("empty");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        //when
+        migrate(dataSource);
+
+        //then
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR diary_seq", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM diary", Integer.class));
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MariaDB;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .callbacks(new DdlAutoSchemaUpgrade("seoul"))
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,211 @@
+package zerobase.projectweather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.client.WeatherClient;
+import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.repository.DiaryStreamRepository;
+import zerobase.projectweather.repository.IngestCheckpointRepository;
+import zerobase.projectweather.search.DiaryIndex;
+import zerobase.projectweather.service.DiaryService;
+import zerobase.projectweather.service.RollupService;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+// H2 두 개를 primary, replica 로 띄우고 복제는 테스트에서 직접 replica 에 써서 흉내냄
+// 조회 결과가 어느 DB 에서 왔는지 알 수 있도록 같은 일기를 DB 마다 다른 내용으로 넣어둠
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "diary.datasource.replica.jdbc-url=jdbc:h2:mem:replica;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "diary.datasource.replica.driver-class-name=org.h2.Driver",
+        "diary.datasource.replica.username=sa",
+        "diary.datasource.replica.password=",
+        "diary.datasource.replica-lag.max-millis=200",
+        "diary.datasource.replica-lag.check-millis=3600000"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceConfig.class, DiaryService.class, DiaryStreamRepository.class, IngestCheckpointRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // 서비스 메소드마다 따로 트랜잭션을 시작하도록
+class ReplicaRoutingDataSourceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    @Autowired
+    private DiaryService diaryService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @MockBean
+    private DateWeatherCache dateWeatherCache;
+
+    @MockBean
+    private DiaryInfoCache diaryInfoCache;
+
+    @MockBean
+    private DiaryIndex diaryIndex;
+
+    @MockBean
+    private RollupService rollupService;
+
+    @MockBean
+    private WeatherClient weatherClient;
+
+    @MockBean
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // 실제 replica 는 primary 의 스키마를 복제받으므로 테스트에서만 따로 만듦 (테스트마다 새로)
+        Flyway flyway = Flyway.configure().dataSource(replicaDataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        saveDiary(primary, "primary");
+        saveDiary(replica, "replica");
+        catchUp();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 - replica 가 따라왔으면 replica 에서 읽음")
+    void readOnly_replica() {
+        //given
+
+        //when
+        DiaryDto diary = diaryService.getDiary(1L);
+
+        //then
+        assertEquals("replica", diary.getText());
+        assertEquals(0, replicaLagMonitor.getLagMillis());
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 - replica 지연이 max-lag 보다 크면 primary 에서 읽음")
+    void readOnly_lagging() throws InterruptedException {
+        //given
+        Thread.sleep(300);
+        replicaLagMonitor.check();
+
+        //when
+        DiaryDto diary = diaryService.getDiary(1L);
+
+        //then
+        assertEquals("primary", diary.getText());
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 - 이 서버가 수정한 내용이 replica 에 반영될 때까지 primary 에서 읽음")
+    void readOnly_afterWrite() throws InterruptedException {
+        //given
+        DiaryDto updated = diaryService.updateDiary(1L, 0L, "수정");
+
+        //when
+        DiaryDto beforeReplicated = diaryService.getDiary(1L);
+        replica.update("UPDATE diary SET text = ?, version = version + 1 WHERE id = 1", "수정 (replica)");
+        catchUp();
+        DiaryDto afterReplicated = diaryService.getDiary(1L);
+
+        //then
+        assertEquals("수정", updated.getText());
+        assertEquals("수정", beforeReplicated.getText());
+        assertEquals("수정 (replica)", afterReplicated.getText());
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 - 다른 일기, 다른 날짜를 계속 수정하는 동안에도 수정하지 않은 키는 replica 에서 읽음")
+    void readOnly_otherKeysWritten() {
+        //given
+        given(diaryInfoCache.get(any(), any())).willAnswer(invocation ->
+                invocation.<Function<LocalDate, List<DiaryInfo>>>getArgument(1).apply(invocation.getArgument(0)));
+
+        for (long version = 0; version < 3; version++) {
+            //when
+            diaryService.updateDiary(2L, version, "수정" + version);
+            DiaryDto other = diaryService.getDiary(1L);
+            DiaryDto written = diaryService.getDiary(2L);
+            List<DiaryInfo> writtenDate = diaryService.getDiariesByDate(DATE);
+            List<DiaryInfo> otherDate = diaryService.getDiariesByDate(DATE.plusDays(1));
+
+            //then
+            assertEquals("replica", other.getText());
+            assertEquals("수정" + version, written.getText());
+            assertEquals("수정" + version, writtenDate.get(1).getText());
+            assertEquals("replica", otherDate.get(0).getText());
+        }
+    }
+
+    @Test
+    @DisplayName("읽기 전용 조회 - replica 에서 지연을 잴 수 없으면 primary 에서 읽음")
+    void readOnly_replicaDown() {
+        //given
+        replica.execute("DROP TABLE replication_heartbeat");
+        replicaLagMonitor.check();
+
+        //when
+        DiaryDto diary = diaryService.getDiary(1L);
+
+        //then
+        assertEquals("primary", diary.getText());
+    }
+
+    // 일기 1, 2 는 DATE, 일기 3 은 다음날
+    private void saveDiary(JdbcTemplate jdbcTemplate, String text) {
+        jdbcTemplate.update("DELETE FROM diary");
+        jdbcTemplate.update("DELETE FROM date_weather");
+        for (int id = 1; id <= 3; id++) {
+            LocalDate date = id < 3 ? DATE : DATE.plusDays(1);
+            jdbcTemplate.update("MERGE INTO date_weather (city, date, weather, icon, temperature) KEY (city, date) "
+                    + "VALUES ('seoul', ?, 'Clear', '01d', 300)", Date.valueOf(date));
+            jdbcTemplate.update("INSERT INTO diary (id, text, date, weather_city, weather_date) VALUES (?, ?, ?, 'seoul', ?)",
+                    id, text, Date.valueOf(date), Date.valueOf(date));
+        }
+    }
+
+    // primary 의 heartbeat 를 replica 에 복제하고 지연을 다시 잼 (heartbeat 는 같은 밀리초에 쓰지 않도록 잠깐 쉼)
+    private void catchUp() throws InterruptedException {
+        Thread.sleep(2);
+        replicaLagMonitor.check();
+        Long beat = primary.queryForObject("SELECT beat_millis FROM replication_heartbeat WHERE node = 'local'", Long.class);
+        replica.update("DELETE FROM replication_heartbeat");
+        replica.update("INSERT INTO replication_heartbeat (node, beat_millis) VALUES ('local', ?)", beat);
+        Thread.sleep(2);
+        replicaLagMonitor.check();
+    }
+}
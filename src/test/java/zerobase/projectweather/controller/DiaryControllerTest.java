@@ -5,23 +5,42 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import zerobase.projectweather.domain.Diary;
 import zerobase.projectweather.dto.CreateDiary;
 import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.dto.IngestTicket;
+import zerobase.projectweather.dto.UpdateDiary;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.service.DiaryIngestService;
 import zerobase.projectweather.service.DiaryService;
+import zerobase.projectweather.type.ErrorCode;
+import zerobase.projectweather.type.IngestStatus;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DiaryController.class)
@@ -31,6 +50,9 @@ class DiaryControllerTest {
     @MockBean
     private DiaryService diaryService;
 
+    @MockBean
+    private DiaryIngestService diaryIngestService;
+
     // http 요청을 작성하고 컨트롤러의 응답을 검증할 수 있게 해줌
     @Autowired
     private MockMvc mockMvc;
@@ -55,7 +77,7 @@ class DiaryControllerTest {
         mockMvc.perform(post("/create/diary")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
-                                new CreateDiary.Request("2024-06-29", "안녕")
+                                new CreateDiary.Request(LocalDate.parse("2024-06-29"), "안녕")
                         )))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.date").value("2024-06-29"))
@@ -64,28 +86,104 @@ class DiaryControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void successCreateDiary_async() throws Exception {
+        //given
+        given(diaryIngestService.isEnabled())
+                .willReturn(true);
+        given(diaryIngestService.submit(LocalDate.parse("2024-06-29"), "안녕"))
+                .willReturn(IngestTicket.from(7L, IngestStatus.PENDING));
+
+        //when
+
+        //then
+        mockMvc.perform(post("/create/diary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateDiary.Request(LocalDate.parse("2024-06-29"), "안녕")
+                        )))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/create/diary/tickets/7"))
+                .andExpect(jsonPath("$.ticket").value(7))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andDo(print());
+        verifyNoInteractions(diaryService);
+    }
+
+    @Test
+    void successReadIngestTicket() throws Exception {
+        //given
+        given(diaryIngestService.getStatus(7L))
+                .willReturn(IngestTicket.from(7L, IngestStatus.PERSISTED));
+
+        //when
+
+        //then
+        mockMvc.perform(get("/create/diary/tickets/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ticket").value(7))
+                .andExpect(jsonPath("$.status").value("PERSISTED"))
+                .andDo(print());
+    }
+
+    @Test
+    void successCreateDiaries() throws Exception {
+        //given
+        given(diaryService.createDiaries(any()))
+                .willAnswer(invocation -> {
+                    Iterator<CreateDiary.Request> requests = invocation.getArgument(0);
+                    int count = 0;
+                    while (requests.hasNext()) {
+                        requests.next();
+                        count++;
+                    }
+                    return count;
+                });
+
+        //when
+
+        //then
+        mockMvc.perform(post("/create/diaries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Arrays.asList(
+                                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "안녕"),
+                                new CreateDiary.Request(LocalDate.parse("2024-06-29"), "안녕하세요")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2))
+                .andDo(print());
+
+        mockMvc.perform(post("/create/diaries")
+                        .contentType("application/x-ndjson")
+                        .content(objectMapper.writeValueAsString(new CreateDiary.Request(LocalDate.parse("2024-06-28"), "안녕")) + "\n"
+                                + objectMapper.writeValueAsString(new CreateDiary.Request(LocalDate.parse("2024-06-29"), "안녕하세요")) + "\n"
+                                + objectMapper.writeValueAsString(new CreateDiary.Request(LocalDate.parse("2024-06-30"), "반가워요")) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andDo(print());
+    }
+
     @Test
     void successReadDiary() throws Exception {
         //given
-        List<DiaryDto> diaryList = Arrays.asList(
-                DiaryDto.builder()
+        List<DiaryInfo> diaryList = Arrays.asList(
+                DiaryInfo.builder()
                         .date(LocalDate.parse("2024-06-28"))
                         .weather("Cloud")
                         .text("오늘의 날씨는 흐림")
                         .build(),
-                DiaryDto.builder()
+                DiaryInfo.builder()
                         .date(LocalDate.parse("2024-06-28"))
                         .weather("Cloud")
                         .text("오늘의 날씨는 맑음")
                         .build(),
-                DiaryDto.builder()
+                DiaryInfo.builder()
                         .date(LocalDate.parse("2024-06-28"))
                         .weather("Cloud")
                         .text("오늘의 날씨는 눈")
                         .build()
         );
 
-        given(diaryService.getDiariesByDate(anyString()))
+        given(diaryService.getDiariesByDate(any()))
                 .willReturn(diaryList);
 
         //when
@@ -105,6 +203,50 @@ class DiaryControllerTest {
                 .andExpect(jsonPath("$[2].text").value("오늘의 날씨는 눈"));
     }
 
+    @Test
+    void readDiary_diaryNotFound() throws Exception {
+        //given
+        given(diaryService.getDiariesByDate(any()))
+                .willReturn(List.of());
+        given(diaryService.getDiariesByDatePeriod(any(), any()))
+                .willReturn(List.of());
+
+        //when
+
+        //then
+        mockMvc.perform(get("/read/diary?date=2020-06-28"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.DIARY_NOT_FOUND.name()))
+                .andExpect(jsonPath("$.errorMessage").value(ErrorCode.DIARY_NOT_FOUND.getDescription()));
+        mockMvc.perform(get("/read/diaries?startDate=2020-06-28&endDate=2020-06-29"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.DIARY_NOT_FOUND.name()));
+    }
+
+    @Test
+    void successReadDiariesByDates() throws Exception {
+        //given
+        Map<LocalDate, List<DiaryInfo>> diaries = new TreeMap<>();
+        diaries.put(LocalDate.parse("2024-06-28"), List.of());
+        diaries.put(LocalDate.parse("2024-06-29"), List.of(DiaryInfo.builder()
+                .date(LocalDate.parse("2024-06-29"))
+                .weather("Clear")
+                .text("오늘의 날씨는 맑음")
+                .build()));
+        given(diaryService.getDiariesByDates(List.of(LocalDate.parse("2024-06-29"), LocalDate.parse("2024-06-28"))))
+                .willReturn(diaries);
+
+        //when
+
+        //then
+        mockMvc.perform(get("/read/diaries/dates?dates=2024-06-29,2024-06-28"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['2024-06-28']").isEmpty())
+                .andExpect(jsonPath("$['2024-06-29'][0].text").value("오늘의 날씨는 맑음"));
+    }
+
     @Test
     void successReadDiaryByPeriod() throws Exception {
         //given
@@ -126,7 +268,7 @@ class DiaryControllerTest {
                         .build()
         );
 
-        given(diaryService.getDiariesByDatePeriod(anyString(), anyString()))
+        given(diaryService.getDiariesByDatePeriod(any(), any()))
                 .willReturn(diaryList);
 
         //when
@@ -169,7 +311,7 @@ class DiaryControllerTest {
 
         diaryList.get(1).setText("다이어리 업데이트");
 
-        given(diaryService.updateDiary(anyString(), anyString()))
+        given(diaryService.updateDiary(any(), anyString()))
                 .willReturn(diaryList.get(1));
 
         //when
@@ -178,7 +320,7 @@ class DiaryControllerTest {
         mockMvc.perform(put("/update/diary")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
-                                new CreateDiary.Request("2024-06-29", "다이어리 업데이트")
+                                new CreateDiary.Request(LocalDate.parse("2024-06-29"), "다이어리 업데이트")
                         )))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.date").value("2024-06-29"))
@@ -187,6 +329,66 @@ class DiaryControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void successUpdateDiaryById() throws Exception {
+        //given
+        given(diaryService.updateDiary(1L, 3L, "다이어리 업데이트"))
+                .willReturn(DiaryDto.builder()
+                        .id(1L)
+                        .date(LocalDate.parse("2024-06-29"))
+                        .weather("Cloud")
+                        .text("다이어리 업데이트")
+                        .version(4L)
+                        .build());
+
+        //when
+
+        //then
+        mockMvc.perform(put("/update/diary/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDiary.Request("다이어리 업데이트"))))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.text").value("다이어리 업데이트"))
+                .andDo(print());
+    }
+
+    @Test
+    void failUpdateDiaryById_versionConflict() throws Exception {
+        //given
+        given(diaryService.updateDiary(1L, 3L, "다이어리 업데이트"))
+                .willThrow(new WeatherException(ErrorCode.DIARY_VERSION_CONFLICT));
+
+        //when
+
+        //then
+        mockMvc.perform(put("/update/diary/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDiary.Request("다이어리 업데이트"))))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.DIARY_VERSION_CONFLICT.name()))
+                .andDo(print());
+    }
+
+    @Test
+    void failUpdateDiaryById_ifMatchRequired() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(put("/update/diary/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateDiary.Request("다이어리 업데이트"))))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.DIARY_VERSION_REQUIRED.name()))
+                .andDo(print());
+        verifyNoInteractions(diaryService);
+    }
+
     @Test
     void successDeleteDiary() throws Exception {
         //given
@@ -208,7 +410,7 @@ class DiaryControllerTest {
                         .build()
         );
 
-        given(diaryService.deleteDiary(anyString()))
+        given(diaryService.deleteDiary(any()))
                 .willReturn(DiaryDto.fromDelete(Diary.builder().date(LocalDate.parse("2024-06-29")).build()));
 
         //when
@@ -220,4 +422,92 @@ class DiaryControllerTest {
                 .andExpect(jsonPath("$.date").value("2024-06-29"));
         ;
     }
-}
\ No newline at end of file
+
+    @Test
+    void successStreamDiaries() throws Exception {
+        //given
+        doAnswer(invocation -> {
+            Consumer<DiaryInfo> consumer = invocation.getArgument(2);
+            consumer.accept(DiaryInfo.builder().date(LocalDate.parse("2024-06-28")).weather("Cloud").text("오늘의 날씨는 흐림").build());
+            consumer.accept(DiaryInfo.builder().date(LocalDate.parse("2024-06-29")).weather("Clear").text("오늘의 날씨는 맑음").build());
+            return null;
+        }).when(diaryService).streamDiariesByDatePeriod(any(), any(), any());
+
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/read/diaries/stream?startDate=2024-06-28&endDate=2024-06-29"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String[] lines = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("오늘의 날씨는 흐림", objectMapper.readValue(lines[0], DiaryInfo.class).getText());
+        assertEquals(LocalDate.parse("2024-06-29"), objectMapper.readValue(lines[1], DiaryInfo.class).getDate());
+    }
+
+    @Test
+    void failReadDiary_invalidDateFormat() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(get("/read/diary?date=2024/06/29"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()))
+                .andDo(print());
+        mockMvc.perform(get("/read/diaries?startDate=2024-06-28&endDate=2024-02-30"))
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()));
+        mockMvc.perform(delete("/delete/diary?date=2024-6-29"))
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()));
+        mockMvc.perform(get("/read/diaries/dates?dates=2024-06-29,2024-13-01"))
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()));
+        verifyNoInteractions(diaryService);
+    }
+
+    @Test
+    void failCreateDiary_invalidDateFormat() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(post("/create/diary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":\"2024/06/29\",\"text\":\"안녕\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()))
+                .andDo(print());
+        mockMvc.perform(post("/create/diary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\":"))
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_REQUEST_BODY.name()));
+        verifyNoInteractions(diaryService);
+    }
+
+    @Test
+    void failCreateDiaries_invalidDateFormat() throws Exception {
+        //given
+        given(diaryService.createDiaries(any()))
+                .willAnswer(invocation -> {
+                    Iterator<CreateDiary.Request> requests = invocation.getArgument(0);
+                    while (requests.hasNext()) {
+                        requests.next();
+                    }
+                    return 0;
+                });
+
+        //when
+
+        //then
+        mockMvc.perform(post("/create/diaries")
+                        .contentType("application/x-ndjson")
+                        .content("{\"date\":\"2024-06-28\",\"text\":\"안녕\"}\n"
+                                + "{\"date\":\"2024-13-01\",\"text\":\"안녕하세요\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_FORMAT.name()))
+                .andDo(print());
+    }
+}
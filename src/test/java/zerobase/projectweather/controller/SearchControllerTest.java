@@ -0,0 +1,100 @@
+package zerobase.projectweather.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.search.DiaryIndex;
+import zerobase.projectweather.service.DiarySearchService;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SearchController.class)
+@Import(DiarySearchService.class)
+class SearchControllerTest {
+
+    @MockBean
+    private DiaryIndex diaryIndex;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successSearchDiaries() throws Exception {
+        //given
+        given(diaryIndex.search(eq("우산"), eq(LocalDate.parse("2024-06-01")), isNull(), eq("Rain"), eq(20)))
+                .willReturn(List.of(DiaryInfo.builder()
+                        .date(LocalDate.parse("2024-06-29"))
+                        .weather("Rain")
+                        .text("우산을 챙겼다")
+                        .build()));
+
+        //when
+
+        //then
+        mockMvc.perform(get("/search/diaries?q=우산&startDate=2024-06-01&weather=Rain"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2024-06-29"))
+                .andExpect(jsonPath("$[0].text").value("우산을 챙겼다"));
+    }
+
+    @Test
+    void failSearchDiaries_blankQuery() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(get("/search/diaries?q= "))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_SEARCH_QUERY.name()));
+        verify(diaryIndex, never()).search(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void failSearchDiaries_invalidPeriod() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(get("/search/diaries?q=우산&startDate=2024-06-30&endDate=2024-06-01"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_DATE_PERIOD.name()));
+        verify(diaryIndex, never()).search(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void failSearchDiaries_invalidSize() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(get("/search/diaries?q=우산&size=101"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_PAGE_SIZE.name()));
+        verify(diaryIndex, never()).search(any(), any(), any(), any(), anyInt());
+    }
+}
@@ -0,0 +1,94 @@
+package zerobase.projectweather.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import zerobase.projectweather.dto.DiaryStatistics;
+import zerobase.projectweather.dto.WeatherStatistics;
+import zerobase.projectweather.service.RollupService;
+import zerobase.projectweather.type.ErrorCode;
+import zerobase.projectweather.type.PeriodType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = StatisticsController.class, properties = "weather.default-city=seoul")
+class StatisticsControllerTest {
+
+    @MockBean
+    private RollupService rollupService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void successWeatherStatistics() throws Exception {
+        //given
+        given(rollupService.getWeatherStatistics(eq("seoul"), eq(PeriodType.MONTH), any()))
+                .willReturn(WeatherStatistics.builder()
+                        .city("seoul")
+                        .period(PeriodType.MONTH)
+                        .periodStart(LocalDate.parse("2024-06-01"))
+                        .days(2)
+                        .averageTemperature(295.0)
+                        .weatherCounts(Map.of("Clear", 2))
+                        .iconCounts(Map.of("01d", 2))
+                        .build());
+
+        //when
+
+        //then
+        mockMvc.perform(get("/stats/weather?period=MONTH&date=2024-06-29"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periodStart").value("2024-06-01"))
+                .andExpect(jsonPath("$.averageTemperature").value(295.0))
+                .andExpect(jsonPath("$.weatherCounts.Clear").value(2));
+    }
+
+    @Test
+    void successDiaryStatistics() throws Exception {
+        //given
+        given(rollupService.getDiaryStatistics(eq(PeriodType.YEAR), any()))
+                .willReturn(DiaryStatistics.builder()
+                        .period(PeriodType.YEAR)
+                        .periodStart(LocalDate.parse("2024-01-01"))
+                        .diaries(3)
+                        .weatherCounts(Map.of("Clear", 3))
+                        .build());
+
+        //when
+
+        //then
+        mockMvc.perform(get("/stats/diaries?period=YEAR&date=2024-06-29"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.diaries").value(3))
+                .andExpect(jsonPath("$.weatherCounts.Clear").value(3));
+    }
+
+    @Test
+    void failDiaryStatistics_invalidPeriod() throws Exception {
+        //given
+
+        //when
+
+        //then
+        mockMvc.perform(get("/stats/diaries?period=WEEK&date=2024-06-29"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value(ErrorCode.INVALID_REQUEST_BODY.name()));
+        verifyNoInteractions(rollupService);
+    }
+}
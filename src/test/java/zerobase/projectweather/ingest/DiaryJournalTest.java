@@ -0,0 +1,188 @@
+package zerobase.projectweather.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiaryJournalTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("다시 열기 - 저장 안된 일기만 읽고 seq 를 이어서 발급")
+    void recover() throws Exception {
+        //given
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            journal.append(DATE, "첫번째");
+            journal.append(DATE, "두번째\n줄바꿈");
+            journal.append(DATE.plusDays(1), "세번째");
+        }
+
+        //when
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 1)) {
+            List<DiaryJournal.Entry> batch = journal.takeBatch(10, 0, 0);
+            DiaryJournal.Entry next = journal.append(DATE, "네번째");
+
+            //then
+            assertEquals(List.of(2L, 3L), batch.stream().map(DiaryJournal.Entry::getSeq).collect(Collectors.toList()));
+            assertEquals("두번째\n줄바꿈", batch.get(0).getText());
+            assertEquals(DATE.plusDays(1), batch.get(1).getDate());
+            assertEquals(4L, next.getSeq());
+        }
+    }
+
+    @Test
+    @DisplayName("다시 열기 - fsync 전에 잘린 마지막 줄은 잘라내고 이어서 씀")
+    void recover_tornTail() throws Exception {
+        //given
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            journal.append(DATE, "첫번째");
+        }
+        Path segment = segments().get(0);
+        Files.write(segment, "{\"seq\":2,\"da".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        //when
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            journal.append(DATE, "두번째");
+        }
+
+        //then
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            List<DiaryJournal.Entry> batch = journal.takeBatch(10, 0, 0);
+            assertEquals(List.of("첫번째", "두번째"), batch.stream().map(DiaryJournal.Entry::getText).collect(Collectors.toList()));
+            assertEquals(2L, batch.get(1).getSeq());
+        }
+    }
+
+    @Test
+    @DisplayName("fsync 실패 - 에러를 받은 일기는 저장하지 않고 저널에서도 잘라냄, 이후 접수는 거절")
+    void append_fsyncFailure() throws Exception {
+        //given
+        AtomicBoolean failFsync = new AtomicBoolean();
+        DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0) {
+            @Override
+            void force(FileChannel channel) throws IOException {
+                if (failFsync.get()) {
+                    throw new IOException("fsync failed");
+                }
+                super.force(channel);
+            }
+        };
+        journal.append(DATE, "첫번째");
+
+        //when
+        failFsync.set(true);
+        assertThrows(IOException.class, () -> journal.append(DATE, "두번째"));
+        failFsync.set(false);
+        assertThrows(IOException.class, () -> journal.append(DATE, "세번째"));
+        List<DiaryJournal.Entry> batch = journal.takeBatch(10, 0, 0);
+        journal.close();
+
+        //then
+        assertEquals(List.of("첫번째"), batch.stream().map(DiaryJournal.Entry::getText).collect(Collectors.toList()));
+        try (DiaryJournal reopened = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            List<DiaryJournal.Entry> recovered = reopened.takeBatch(10, 0, 0);
+            assertEquals(List.of("첫번째"), recovered.stream().map(DiaryJournal.Entry::getText).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    @DisplayName("segment 크기를 넘으면 새 segment 로 나누고, 저장된 segment 는 지움")
+    void rollAndDeleteCommitted() throws Exception {
+        try (DiaryJournal journal = new DiaryJournal(dir, 100, objectMapper, 0)) {
+            //given
+            for (int i = 0; i < 6; i++) {
+                journal.append(DATE, "일기 " + i + " ".repeat(50));
+            }
+            int segments = segments().size();
+
+            //when
+            journal.markCommitted(6);
+
+            //then
+            assertTrue(segments > 1);
+            assertEquals(1, segments().size());
+        }
+    }
+
+    @Test
+    @DisplayName("동시에 append - seq 가 빠짐없이 발급되고 쓴 순서대로 꺼냄")
+    void concurrentAppend() throws Exception {
+        //given
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            List<Future<DiaryJournal.Entry>> futures = new ArrayList<>();
+
+            //when
+            for (int i = 0; i < 200; i++) {
+                String text = "일기 " + i;
+                futures.add(executor.submit(() -> journal.append(DATE, text)));
+            }
+            for (Future<DiaryJournal.Entry> future : futures) {
+                future.get();
+            }
+            List<DiaryJournal.Entry> batch = journal.takeBatch(500, 0, 0);
+
+            //then
+            assertEquals(200, batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                assertEquals(i + 1, batch.get(i).getSeq());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("batch 꺼내기 - 최대 개수까지만 꺼내고 나머지는 다음 batch 로")
+    void takeBatch_maxSize() throws Exception {
+        try (DiaryJournal journal = new DiaryJournal(dir, 1 << 20, objectMapper, 0)) {
+            //given
+            for (int i = 0; i < 5; i++) {
+                journal.append(DATE, "일기 " + i);
+            }
+
+            //when
+            List<DiaryJournal.Entry> first = journal.takeBatch(3, 10, 0);
+            List<DiaryJournal.Entry> second = journal.takeBatch(3, 10, 0);
+
+            //then
+            assertEquals(3, first.size());
+            assertEquals(2, second.size());
+            assertEquals(0, journal.getPendingCount());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> list = Files.list(dir)) {
+            return list.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package zerobase.projectweather.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.Diary;
+import zerobase.projectweather.dto.DiaryDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DiaryRepositoryTest {
+
+    private static final LocalDate START_DATE = LocalDate.parse("2024-06-01");
+
+    @Autowired
+    private DiaryRepository diaryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * 일기 목록 조회 시 날씨를 일기마다 따로 select 하지 않는지 (N+1) 확인
+     * 날짜마다 다른 날씨를 붙여서 일기 수가 늘어나도 실행되는 쿼리 수가 같아야 함
+     */
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    @DisplayName("기간 내 일기 조회 - 일기 수와 상관없이 쿼리 한번")
+    void findAllByDateBetween_singleStatement(int days) {
+        //given
+        saveDiaries(days);
+
+        //when
+        List<DiaryDto> diaries = diaryRepository.findAllByDateBetween(START_DATE, START_DATE.plusDays(days - 1))
+                .stream().map(DiaryDto::from).collect(Collectors.toList());
+
+        //then
+        assertEquals(days, diaries.size());
+        assertEquals("Clouds" + (days - 1), diaries.get(days - 1).getWeather());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 50})
+    @DisplayName("특정일 일기 조회 - 일기 수와 상관없이 쿼리 한번")
+    void findAllByDate_singleStatement(int count) {
+        //given
+        DateWeather dateWeather = entityManager.persist(dateWeather(START_DATE, "Clear"));
+        for (int i = 0; i < count; i++) {
+            entityManager.persist(Diary.builder().date(START_DATE).weather(dateWeather).text("일기 " + i).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        //when
+        List<DiaryDto> diaries = diaryRepository.findAllByDate(START_DATE)
+                .stream().map(DiaryDto::from).collect(Collectors.toList());
+
+        //then
+        assertEquals(count, diaries.size());
+        assertEquals("Clear", diaries.get(0).getWeather());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("여러 날짜 일기 조회 - 떨어져 있는 날짜들도 쿼리 한번")
+    void findAllByDateIn_singleStatement() {
+        //given
+        saveDiaries(30);
+
+        //when
+        List<DiaryDto> diaries = diaryRepository.findAllByDateIn(List.of(START_DATE.plusDays(20), START_DATE, START_DATE.plusDays(40)))
+                .stream().map(DiaryDto::from).collect(Collectors.toList());
+
+        //then
+        assertEquals(2, diaries.size());
+        assertEquals(START_DATE, diaries.get(0).getDate());
+        assertEquals("Clouds20", diaries.get(1).getWeather());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("특정일 일기 삭제 - delete 한번으로 삭제하고 삭제 건수 반환")
+    void deleteAllByDate_singleStatement() {
+        //given
+        DateWeather dateWeather = entityManager.persist(dateWeather(START_DATE, "Clear"));
+        for (int i = 0; i < 30; i++) {
+            entityManager.persist(Diary.builder().date(START_DATE).weather(dateWeather).text("일기 " + i).build());
+        }
+        entityManager.persist(Diary.builder().date(START_DATE.plusDays(1)).weather(dateWeather).text("다음날 일기").build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        //when
+        int deleted = diaryRepository.deleteAllByDate(START_DATE);
+
+        //then
+        assertEquals(30, deleted);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, diaryRepository.count());
+    }
+
+    @Test
+    @DisplayName("일기 내용 수정 - 읽은 버전과 같을 때만 update 한번으로 수정하고 버전을 올림")
+    void updateText_conditionalSingleStatement() {
+        //given
+        DateWeather dateWeather = entityManager.persist(dateWeather(START_DATE, "Clear"));
+        Long id = entityManager.persist(Diary.builder().date(START_DATE).weather(dateWeather).text("일기").build()).getId();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        //when
+        int updated = diaryRepository.updateText(id, 0L, "수정");
+        int stale = diaryRepository.updateText(id, 0L, "늦은 수정");
+
+        //then
+        assertEquals(1, updated);
+        assertEquals(0, stale);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        Diary diary = diaryRepository.findWithWeatherById(id).get();
+        assertEquals("수정", diary.getText());
+        assertEquals(1L, diary.getVersion());
+    }
+
+    private void saveDiaries(int days) {
+        for (int i = 0; i < days; i++) {
+            LocalDate date = START_DATE.plusDays(i);
+            DateWeather dateWeather = entityManager.persist(dateWeather(date, "Clouds" + i));
+            entityManager.persist(Diary.builder().date(date).weather(dateWeather).text("일기 " + i).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private static DateWeather dateWeather(LocalDate date, String weather) {
+        return DateWeather.builder()
+                .city("seoul")
+                .date(date)
+                .weather(weather)
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+    }
+}
@@ -0,0 +1,261 @@
+package zerobase.projectweather.search;
+
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.repository.DiaryStreamRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class DiaryIndexTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    private final DiaryStreamRepository diaryStreamRepository = mock(DiaryStreamRepository.class);
+
+    private DiaryIndex diaryIndex;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        diaryIndex = new DiaryIndex(diaryStreamRepository, "", false);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        diaryIndex.close();
+    }
+
+    @Test
+    @DisplayName("빈 색인으로 시작 - DB 전체를 색인")
+    void rebuildIfEmpty() {
+        //given
+        given(diaryStreamRepository.findAllByDate(any())).willReturn(List.of());
+        willAnswer(invocation -> {
+            Consumer<DiaryDto> consumer = invocation.getArgument(0);
+            consumer.accept(diary(1L, DATE, "Rain", "오늘은 비가 와서 우산을 챙겼다"));
+            consumer.accept(diary(2L, DATE.plusDays(1), "Clear", "맑은 날 공원에서 산책했다"));
+            return null;
+        }).given(diaryStreamRepository).streamAll(any());
+
+        //when
+        diaryIndex.rebuildIfEmpty();
+
+        //then
+        assertEquals(1, diaryIndex.search("산책", null, null, null, 10).size());
+        assertEquals(1, diaryIndex.search("우산", null, null, null, 10).size());
+    }
+
+    @Test
+    @DisplayName("조사가 붙은 단어 - 형태소 단위로 검색됨")
+    void searchKoreanMorphemes() {
+        //given
+        given(diaryStreamRepository.findAllByDate(DATE))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "오늘은 비가 많이 와서 우산을 챙겼다")));
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+
+        //when
+        List<DiaryInfo> diaries = diaryIndex.search("우산", null, null, null, 10);
+
+        //then
+        assertEquals(1, diaries.size());
+        assertEquals(DATE, diaries.get(0).getDate());
+        assertEquals("Rain", diaries.get(0).getWeather());
+        assertEquals("오늘은 비가 많이 와서 우산을 챙겼다", diaries.get(0).getText());
+        assertEquals(1, diaryIndex.search("비 우산", null, null, null, 10).size());
+        assertTrue(diaryIndex.search("우산 -비", null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("기간, 날씨로 거르기")
+    void searchWithFilters() {
+        //given
+        given(diaryStreamRepository.findAllByDate(DATE))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "비 오는 날 산책")));
+        given(diaryStreamRepository.findAllByDate(DATE.plusDays(1)))
+                .willReturn(List.of(diary(2L, DATE.plusDays(1), "Clear", "맑은 날 산책")));
+        diaryIndex.reindex(List.of(DATE, DATE.plusDays(1)));
+        diaryIndex.awaitIndexed();
+
+        //when
+        List<DiaryInfo> all = diaryIndex.search("산책", null, null, null, 10);
+        List<DiaryInfo> inPeriod = diaryIndex.search("산책", DATE.plusDays(1), null, null, 10);
+        List<DiaryInfo> rain = diaryIndex.search("산책", null, null, "rain", 10);
+
+        //then
+        assertEquals(2, all.size());
+        assertEquals(List.of(DATE.plusDays(1)), inPeriod.stream().map(DiaryInfo::getDate).collect(Collectors.toList()));
+        assertEquals(List.of(DATE), rain.stream().map(DiaryInfo::getDate).collect(Collectors.toList()));
+        assertEquals(1, diaryIndex.search("산책", null, null, null, 1).size());
+    }
+
+    @Test
+    @DisplayName("수정/삭제 - 해당 날짜를 DB 에서 다시 읽어 바꿈")
+    void reindexReplacesDate() {
+        //given
+        given(diaryStreamRepository.findAllByDate(DATE))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "우산을 챙겼다")))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "공원에서 산책했다")))
+                .willReturn(List.of());
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+
+        //when
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> updated = diaryIndex.search("산책", null, null, null, 10);
+        List<DiaryInfo> old = diaryIndex.search("우산", null, null, null, 10);
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> deleted = diaryIndex.search("산책", null, null, null, 10);
+
+        //then
+        assertEquals(1, updated.size());
+        assertTrue(old.isEmpty());
+        assertTrue(deleted.isEmpty());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안에서 reindex - 커밋된 뒤에 검색됨")
+    void reindexAfterCommit() {
+        //given
+        given(diaryStreamRepository.findAllByDate(DATE))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "우산을 챙겼다")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        //when
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> beforeCommit = diaryIndex.search("우산", null, null, null, 10);
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> afterCommit = diaryIndex.search("우산", null, null, null, 10);
+
+        //then
+        assertTrue(beforeCommit.isEmpty());
+        assertEquals(1, afterCommit.size());
+    }
+
+    @Test
+    @DisplayName("일기 하나 작성/수정/삭제 - 날짜 전체를 읽지 않고 그 일기만 다시 읽어 바꿈")
+    void reindexDiary() {
+        //given
+        given(diaryStreamRepository.findAllByIds(Set.of(1L)))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "우산을 챙겼다")))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "공원에서 산책했다")))
+                .willReturn(List.of());
+        given(diaryStreamRepository.findAllByIds(Set.of(2L)))
+                .willReturn(List.of(diary(2L, DATE, "Rain", "우산이 없어서 젖었다")));
+        diaryIndex.reindexDiary(1L);
+        diaryIndex.awaitIndexed();
+        diaryIndex.reindexDiary(2L);
+        diaryIndex.awaitIndexed();
+
+        //when
+        diaryIndex.reindexDiary(1L);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> updated = diaryIndex.search("산책", null, null, null, 10);
+        List<DiaryInfo> old = diaryIndex.search("우산", null, null, null, 10);
+        diaryIndex.reindexDiary(1L);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> deleted = diaryIndex.search("산책", null, null, null, 10);
+
+        //then
+        assertEquals(1, updated.size());
+        assertEquals(List.of(2L), old.stream().map(DiaryInfo::getId).collect(Collectors.toList()));
+        assertTrue(deleted.isEmpty());
+        verify(diaryStreamRepository, never()).findAllByDate(any());
+    }
+
+    @Test
+    @DisplayName("반영 실패 - 변경을 잃지 않고 다음 commit 주기에 다시 반영")
+    void drainFailureIsRetried() {
+        //given
+        given(diaryStreamRepository.findAllByDate(DATE))
+                .willThrow(new DataAccessResourceFailureException("db down"))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "우산을 챙겼다")));
+        given(diaryStreamRepository.findAllByIds(Set.of(2L)))
+                .willThrow(new DataAccessResourceFailureException("db down"))
+                .willReturn(List.of(diary(2L, DATE.plusDays(1), "Rain", "우산이 없어서 젖었다")));
+
+        //when
+        diaryIndex.reindex(DATE);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> dateFailed = diaryIndex.search("우산", null, null, null, 10);
+        diaryIndex.commit();
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> dateRetried = diaryIndex.search("우산", null, null, null, 10);
+
+        diaryIndex.reindexDiary(2L);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> idFailed = diaryIndex.search("우산", null, null, null, 10);
+        diaryIndex.commit();
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> idRetried = diaryIndex.search("우산", null, null, null, 10);
+
+        //then
+        assertTrue(dateFailed.isEmpty());
+        assertEquals(List.of(1L), dateRetried.stream().map(DiaryInfo::getId).collect(Collectors.toList()));
+        assertEquals(1, idFailed.size());
+        assertEquals(2, idRetried.size());
+    }
+
+    @Test
+    @DisplayName("색인 변경은 바로 검색되고, 디스크에는 주기적인 commit 때 반영")
+    void commitPeriodically(@TempDir Path indexDir) throws IOException {
+        //given
+        diaryIndex.close();
+        diaryIndex = new DiaryIndex(diaryStreamRepository, indexDir.toString(), false);
+        FSDirectory diskDirectory = FSDirectory.open(indexDir);
+        given(diaryStreamRepository.findAllByIds(Set.of(1L)))
+                .willReturn(List.of(diary(1L, DATE, "Rain", "우산을 챙겼다")));
+
+        //when
+        diaryIndex.reindexDiary(1L);
+        diaryIndex.awaitIndexed();
+        List<DiaryInfo> searched = diaryIndex.search("우산", null, null, null, 10);
+        boolean committedBefore = DirectoryReader.indexExists(diskDirectory);
+        diaryIndex.commit();
+
+        //then
+        assertEquals(1, searched.size());
+        assertFalse(committedBefore);
+        try (DirectoryReader reader = DirectoryReader.open(diskDirectory)) {
+            assertEquals(1, reader.numDocs());
+        }
+        diskDirectory.close();
+    }
+
+    private static DiaryDto diary(Long id, LocalDate date, String weather, String text) {
+        return DiaryDto.builder().id(id).date(date).weather(weather).text(text).build();
+    }
+}
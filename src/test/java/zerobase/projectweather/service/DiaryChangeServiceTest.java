@@ -0,0 +1,122 @@
+package zerobase.projectweather.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.config.ReplicaLagMonitor;
+import zerobase.projectweather.repository.DiaryChangeRepository;
+import zerobase.projectweather.search.DiaryIndex;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+// reactive 모듈이 같은 트랜잭션에서 남긴 것과 같은 diary_change 행을 SQL 로 넣어둠
+// 서비스는 트랜잭션 밖에서 읽으므로 테스트도 트랜잭션 없이 실행, 읽은 위치가 테스트마다 처음부터 시작하도록 서비스는 직접 만듦
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DiaryChangeServiceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+    private static final LocalDateTime NOW = LocalDateTime.parse("2024-06-29T12:00:00");
+
+    private DiaryChangeService diaryChangeService;
+
+    @MockBean
+    private DiaryInfoCache diaryInfoCache;
+
+    @MockBean
+    private DiaryIndex diaryIndex;
+
+    @Autowired
+    private ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM diary_change");
+        diaryChangeService = new DiaryChangeService(new DiaryChangeRepository(jdbcTemplate),
+                diaryInfoCache, diaryIndex, replicaLagMonitor, 30000, 24);
+    }
+
+    @Test
+    @DisplayName("변경 반영 - 날짜 캐시를 지우고 일기를 다시 색인, 반영한 기록은 다시 반영하지 않음")
+    void poll() {
+        //given
+        saveChange(1, 10, DATE, NOW);
+        saveChange(2, 11, DATE.plusDays(1), NOW);
+
+        //when
+        diaryChangeService.poll();
+        diaryChangeService.poll();
+
+        //then
+        verify(diaryInfoCache).evict(DATE);
+        verify(diaryInfoCache).evict(DATE.plusDays(1));
+        verify(diaryIndex).reindexDiary(10);
+        verify(diaryIndex).reindexDiary(11);
+        verifyNoMoreInteractions(diaryInfoCache);
+    }
+
+    @Test
+    @DisplayName("늦게 commit 된 변경 - 마지막으로 읽은 id 보다 작아도 최근 기록이면 반영")
+    void poll_lateCommit() {
+        //given
+        saveChange(102, 20, DATE, NOW);
+        diaryChangeService.poll();
+        clearInvocations(diaryInfoCache, diaryIndex);
+
+        //when
+        // 먼저 id 를 받고 늦게 commit 된 트랜잭션
+        saveChange(101, 21, DATE.plusDays(1), NOW.minusSeconds(1));
+        diaryChangeService.poll();
+
+        //then
+        verify(diaryInfoCache).evict(DATE.plusDays(1));
+        verify(diaryIndex).reindexDiary(21);
+        verifyNoMoreInteractions(diaryInfoCache);
+    }
+
+    @Test
+    @DisplayName("오래된 기록 정리 - 마지막 기록에서 retention-hours 보다 오래된 기록만 지움")
+    void cleanup() {
+        //given
+        saveChange(201, 30, DATE, NOW.minusDays(2));
+        saveChange(202, 31, DATE, NOW);
+        diaryChangeService.poll();
+
+        //when
+        diaryChangeService.cleanup();
+
+        //then
+        assertEquals(List.of(202L), jdbcTemplate.queryForList("SELECT id FROM diary_change", Long.class));
+    }
+
+    private void saveChange(long id, long diaryId, LocalDate date, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO diary_change (id, diary_id, diary_date, created_at) VALUES (?, ?, ?, ?)",
+                id, diaryId, Date.valueOf(date), Timestamp.valueOf(createdAt));
+    }
+}
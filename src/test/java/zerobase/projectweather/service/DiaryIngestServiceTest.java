@@ -0,0 +1,207 @@
+package zerobase.projectweather.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import zerobase.projectweather.dto.CreateDiary;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.repository.IngestCheckpointRepository;
+import zerobase.projectweather.type.ErrorCode;
+import zerobase.projectweather.type.IngestStatus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class DiaryIngestServiceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    private final DiaryService diaryService = mock(DiaryService.class);
+    private final IngestCheckpointRepository ingestCheckpointRepository = mock(IngestCheckpointRepository.class);
+
+    @TempDir
+    Path dir;
+
+    private DiaryIngestService diaryIngestService;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (diaryIngestService != null) {
+            diaryIngestService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("접수 - 시작 전에 쌓인 일기를 한 트랜잭션으로 저장하고 PERSISTED")
+    void submit_groupCommit() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        long first = diaryIngestService.submit(DATE, "첫번째").getTicket();
+        long second = diaryIngestService.submit(DATE, "두번째").getTicket();
+
+        //when
+        diaryIngestService.start();
+
+        //then
+        verify(diaryService, timeout(5000)).createJournaledDiaries(eq("local"), eq(second), anyList());
+        verify(diaryService, times(1)).createJournaledDiaries(eq("local"), anyLong(), anyList());
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(first));
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(second));
+    }
+
+    @Test
+    @DisplayName("접수 - 저장이 실패하면 같은 batch 를 다시 저장")
+    void submit_retry() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        given(diaryService.createJournaledDiaries(eq("local"), anyLong(), anyList()))
+                .willThrow(new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE))
+                .willReturn(1);
+        long ticket = diaryIngestService.submit(DATE, "첫번째").getTicket();
+
+        //when
+        diaryIngestService.start();
+
+        //then
+        verify(diaryService, timeout(5000).times(2)).createJournaledDiaries(eq("local"), eq(ticket), anyList());
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(ticket));
+    }
+
+    @Test
+    @DisplayName("접수 - 계속 실패하는 일기는 dead-letter 로 옮기고 나머지는 저장")
+    void submit_deadLetter() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        given(diaryService.createJournaledDiaries(eq("local"), anyLong(), anyList())).willAnswer(invocation -> {
+            List<CreateDiary.Request> requests = invocation.getArgument(2);
+            if (requests.stream().anyMatch(request -> request.getText().equals("저장 안됨"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return requests.size();
+        });
+        long first = diaryIngestService.submit(DATE, "첫번째").getTicket();
+        long poison = diaryIngestService.submit(DATE, "저장 안됨").getTicket();
+        long third = diaryIngestService.submit(DATE, "세번째").getTicket();
+
+        //when
+        diaryIngestService.start();
+
+        //then
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(third));
+        assertEquals(IngestStatus.PERSISTED, diaryIngestService.getStatus(first).getStatus());
+        assertEquals(IngestStatus.FAILED, diaryIngestService.getStatus(poison).getStatus());
+        verify(diaryService, times(1)).createJournaledDiaries("local", poison, List.of()); // 저장 위치만 기록
+        assertTrue(Files.readString(dir.resolve("dead-letter.ndjson")).contains("저장 안됨"));
+    }
+
+    @Test
+    @DisplayName("접수 - 날씨 api 장애는 dead-letter 로 옮기지 않고 계속 다시 저장")
+    void submit_transientFailureIsNotDeadLettered() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        given(diaryService.createJournaledDiaries(eq("local"), anyLong(), anyList()))
+                .willThrow(new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE))
+                .willThrow(new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE))
+                .willThrow(new WeatherException(ErrorCode.WEATHER_API_UNAVAILABLE))
+                .willReturn(2);
+        long first = diaryIngestService.submit(DATE, "첫번째").getTicket();
+        long second = diaryIngestService.submit(DATE, "두번째").getTicket();
+
+        //when
+        diaryIngestService.start();
+
+        //then
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(second));
+        assertEquals(IngestStatus.PERSISTED, diaryIngestService.getStatus(first).getStatus());
+        verify(diaryService, times(4)).createJournaledDiaries(eq("local"), eq(second), anyList()); // 나누지 않고 같은 batch
+        assertFalse(Files.exists(dir.resolve("dead-letter.ndjson")));
+    }
+
+    @Test
+    @DisplayName("접수 - 다시 띄우면 저장 안된 일기부터 이어서 저장")
+    void submit_recoverAfterRestart() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        diaryIngestService.submit(DATE, "첫번째");
+        diaryIngestService.submit(DATE, "두번째");
+        diaryIngestService.shutdown();
+        given(ingestCheckpointRepository.findCommittedSeq("local")).willReturn(1L);
+
+        //when
+        diaryIngestService = ingestService(100);
+        diaryIngestService.start();
+
+        //then
+        ArgumentCaptor<List<CreateDiary.Request>> captor = ArgumentCaptor.forClass(List.class);
+        verify(diaryService, timeout(5000)).createJournaledDiaries(eq("local"), eq(2L), captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("두번째", captor.getValue().get(0).getText());
+        assertEquals(IngestStatus.PERSISTED, awaitPersisted(2L));
+    }
+
+    @Test
+    @DisplayName("접수 - 실패 - 저장을 기다리는 일기가 너무 많은 경우")
+    void submit_queueFull() throws Exception {
+        //given
+        diaryIngestService = ingestService(1);
+        diaryIngestService.submit(DATE, "첫번째");
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> diaryIngestService.submit(DATE, "두번째"));
+
+        //then
+        assertEquals(ErrorCode.INGEST_QUEUE_FULL, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("접수 상태 - 실패 - 발급하지 않은 접수 번호")
+    void getStatus_ticketNotFound() throws Exception {
+        //given
+        diaryIngestService = ingestService(100);
+        diaryIngestService.submit(DATE, "첫번째");
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> diaryIngestService.getStatus(2L));
+
+        //then
+        assertEquals(ErrorCode.TICKET_NOT_FOUND, exception.getErrorCode());
+        assertEquals(IngestStatus.PENDING, diaryIngestService.getStatus(1L).getStatus());
+    }
+
+    // 저장이 끝난 뒤 상태가 바뀌므로 잠깐 기다림
+    private IngestStatus awaitPersisted(long ticket) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        IngestStatus status = diaryIngestService.getStatus(ticket).getStatus();
+        while (status != IngestStatus.PERSISTED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = diaryIngestService.getStatus(ticket).getStatus();
+        }
+        return status;
+    }
+
+    private DiaryIngestService ingestService(int maxPending) throws IOException {
+        return new DiaryIngestService(diaryService, ingestCheckpointRepository, Jackson2ObjectMapperBuilder.json().build(),
+                true, dir.toString(), "local", 100, 5, maxPending, 1 << 20, 10, 100, 2);
+    }
+}
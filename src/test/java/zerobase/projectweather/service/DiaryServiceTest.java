@@ -1,32 +1,60 @@
 package zerobase.projectweather.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.client.CircuitBreakerOpenException;
+import zerobase.projectweather.client.StubWeatherServer;
+import zerobase.projectweather.client.WeatherClient;
 import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
 import zerobase.projectweather.domain.Diary;
+import zerobase.projectweather.dto.CreateDiary;
+import zerobase.projectweather.dto.DiaryCursor;
 import zerobase.projectweather.dto.DiaryDto;
+import zerobase.projectweather.dto.DiaryInfo;
+import zerobase.projectweather.dto.DiaryPage;
 import zerobase.projectweather.exception.WeatherException;
 import zerobase.projectweather.repository.DateWeatherRepository;
 import zerobase.projectweather.repository.DiaryRepository;
+import zerobase.projectweather.repository.DiaryStreamRepository;
+import zerobase.projectweather.repository.IngestCheckpointRepository;
+import zerobase.projectweather.search.DiaryIndex;
 import zerobase.projectweather.type.ErrorCode;
 
+import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -36,57 +64,145 @@ class DiaryServiceTest {
     @Mock
     private DiaryRepository diaryRepository;
 
+    @Mock
+    private DiaryStreamRepository diaryStreamRepository;
+
     @Mock
     private DateWeatherRepository dateWeatherRepository;
 
+    @Mock
+    private WeatherClient weatherClient;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private IngestCheckpointRepository ingestCheckpointRepository;
+
+    @Mock
+    private DiaryIndex diaryIndex;
+
+    @Spy
+    private DateWeatherCache dateWeatherCache = new DateWeatherCache(600, 1000);
+
+    @Spy
+    private DiaryInfoCache diaryInfoCache = new DiaryInfoCache(new ConcurrentMapCacheManager(DiaryInfoCache.CACHE_NAME));
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 트랜잭션 없이 콜백만 실행
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private DiaryService diaryService;
 
-
     @BeforeEach
-    public void setUp() throws Exception {
-        ReflectionTestUtils.setField(diaryService, "apiKey", "33b8906ff78150aa84a81e63caa9e392");
+    public void setUp() {
+        ReflectionTestUtils.setField(diaryService, "defaultCity", "seoul");
+        ReflectionTestUtils.setField(diaryService, "batchSize", 2);
+        ReflectionTestUtils.setField(diaryService, "entityManager", entityManager);
     }
 
 
     /**
      * 다이어리 생성
-     * 1. 성공 - 날씨 데이터 없는 경우
-     * 2. 성공 - 날씨 데이터 있는 경우
-     * 2. 실패 - 잘못된 날짜 형식
+     * 1. 성공 - 날씨 데이터 없는 경우 (오늘)
+     * 2. 성공 - 다른 요청이 먼저 오늘 날씨를 저장한 경우
+     * 3. 성공 - 날씨 데이터 없는 경우 (오늘이 아닌 날짜)
+     * 4. 성공 - 날씨 데이터 있는 경우
      * 3. 실패 - 너무 긴 일기 내용
      */
     @Test
-    @DisplayName("다이어리 생성 - 성공 - 날씨 데이터 없는 경우")
+    @DisplayName("다이어리 생성 - 성공 - 날씨 데이터 없는 경우 (오늘)")
     void successCreateDiaryNeedWeather() {
         //given
-
-        given(diaryRepository.save(any()))
-                .willReturn(Diary.builder()
-                        .date(LocalDate.now())
-                        .weather(DateWeather.builder()
-                                .date(LocalDate.parse("2024-06-30"))
-                                .weather("Clouds")
-                                .icon("01d")
-                                .temperature(303.91)
-                                .build())
-                        .text("안녕하세요")
-                        .build());
+        LocalDate today = LocalDate.now();
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.completedFuture(StubWeatherServer.SEOUL_CLEAR
+                        .replace("\"main\":\"Clear\"", "\"main\":\"Clouds\"")));
+        given(rollupService.insertWeatherIfAbsent(any())).willReturn(true);
+        given(diaryRepository.save(any())).willAnswer(invocation -> savedDiary(invocation.getArgument(0)));
 
         ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
 
         //when
-        DiaryDto diaryDto = diaryService.createDiary("2024-06-30", "안녕하세요");
+        DiaryDto diaryDto = diaryService.createDiary(today, "안녕하세요");
 
         //then
+        verify(rollupService, times(1)).insertWeatherIfAbsent(any()); // api 로 가져온 날씨 저장
+        verify(rollupService, times(1)).addDiaries("seoul", today, today, 1); // 일기 수 집계
         verify(diaryRepository, times(1)).save(captor.capture()); // save()를 한번 호출 했는지 확인
         assertEquals("Clouds", captor.getValue().getWeather().getWeather());
+        assertEquals(today, captor.getValue().getWeather().getDate());
         assertEquals("안녕하세요", captor.getValue().getText());
-        assertEquals("2024-06-30", diaryDto.getDate());
+        assertEquals(today, diaryDto.getDate());
         assertEquals("Clouds", diaryDto.getWeather());
         assertEquals("안녕하세요", diaryDto.getText());
     }
 
+    @Test
+    @DisplayName("다이어리 생성 - 성공 - 다른 요청이 먼저 오늘 날씨를 저장하면 저장된 날씨에 연결")
+    void successCreateDiary_weatherInsertRace() {
+        //given
+        LocalDate today = LocalDate.now();
+        DateWeather stored = DateWeather.builder()
+                .city("seoul")
+                .date(today)
+                .weather("Rain")
+                .icon("10d")
+                .temperature(290.0)
+                .build();
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.completedFuture(StubWeatherServer.SEOUL_CLEAR));
+        given(dateWeatherRepository.findById(new DateWeatherId("seoul", today)))
+                .willReturn(Optional.empty(), Optional.of(stored));
+        given(rollupService.insertWeatherIfAbsent(any())).willReturn(false); // insert 무시됨
+        given(diaryRepository.save(any())).willAnswer(invocation -> savedDiary(invocation.getArgument(0)));
+        ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
+
+        //when
+        DiaryDto diaryDto = diaryService.createDiary(today, "안녕하세요");
+
+        //then
+        verify(diaryRepository).save(captor.capture());
+        assertEquals("Rain", captor.getValue().getWeather().getWeather()); // api 로 가져온 Clear 가 아닌 DB 의 날씨
+        assertEquals("Rain", diaryDto.getWeather());
+        verify(rollupService).addDiaries("seoul", today, today, 1);
+    }
+
+    @Test
+    @DisplayName("다이어리 생성 - 성공 - 오늘이 아닌 날짜는 api 날씨를 그날 날씨로 저장하지 않고 오늘 날씨에 연결")
+    void successCreateDiary_notToday() {
+        //given
+        LocalDate today = LocalDate.now();
+        LocalDate date = LocalDate.parse("2024-06-30");
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.completedFuture(StubWeatherServer.SEOUL_CLEAR));
+        given(rollupService.insertWeatherIfAbsent(any())).willReturn(true);
+        given(diaryRepository.save(any())).willAnswer(invocation -> savedDiary(invocation.getArgument(0)));
+        ArgumentCaptor<DateWeather> weatherCaptor = ArgumentCaptor.forClass(DateWeather.class);
+        ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
+
+        //when
+        DiaryDto diaryDto = diaryService.createDiary(date, "안녕하세요");
+
+        //then
+        verify(dateWeatherRepository).findById(new DateWeatherId("seoul", date));
+        verify(rollupService, times(1)).insertWeatherIfAbsent(weatherCaptor.capture());
+        assertEquals(today, weatherCaptor.getValue().getDate()); // 2024-06-30 날씨 행은 만들지 않음
+        verify(diaryRepository).save(captor.capture());
+        assertEquals(today, captor.getValue().getWeather().getDate());
+        assertEquals(date, captor.getValue().getDate());
+        verify(rollupService).addDiaries("seoul", today, date, 1); // 일기 수는 일기 날짜로
+        assertEquals(date, diaryDto.getDate());
+        assertEquals("Clear", diaryDto.getWeather());
+    }
+
     @Test
     @DisplayName("다이어리 생성 - 성공 - 날씨 데이터 있는 경우")
     void successCreateDiary() {
@@ -98,19 +214,20 @@ class DiaryServiceTest {
                 .temperature(303.91)
                 .build());
 
-        given(dateWeatherRepository.findAllByDate(any()))
-                .willReturn(dateWeather);
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.of(dateWeather.get(0)));
 
         given(diaryRepository.save(any()))
                 .willReturn(Diary.builder()
-                        .date(LocalDate.now())
+                        .id(1L)
+                        .date(LocalDate.parse("2024-06-30"))
                         .weather(dateWeather.get(0))
                         .text("안녕하세요")
                         .build());
         ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
 
         //when
-        DiaryDto diaryDto = diaryService.createDiary("2024-06-30", "안녕하세요");
+        DiaryDto diaryDto = diaryService.createDiary(LocalDate.parse("2024-06-30"), "안녕하세요");
 
         //then
         verify(diaryRepository, times(1)).save(captor.capture()); // save()를 한번 호출 했는지 확인
@@ -119,25 +236,136 @@ class DiaryServiceTest {
         assertEquals(LocalDate.parse("2024-06-30"), diaryDto.getDate());
         assertEquals(dateWeather.get(0).getWeather(), diaryDto.getWeather());
         assertEquals("안녕하세요", diaryDto.getText());
+        // 날씨는 일기 트랜잭션을 열기 전에 조회
+        InOrder inOrder = inOrder(dateWeatherRepository, transactionTemplate);
+        inOrder.verify(dateWeatherRepository).findById(any());
+        inOrder.verify(transactionTemplate).execute(any());
     }
 
     @Test
-    @DisplayName("다이어리 생성 - 실패 - 잘못된 날짜 형식")
-    void failCreateDiary_invalidDateFormat() {
+    @DisplayName("다이어리 여러개 생성 - 성공 - 날씨는 날짜별로 한번만 조회")
+    void successCreateDiaries() {
         //given
-        DateWeather dateWeather = DateWeather.builder()
-                .date(LocalDate.parse("2024-08-10"))
-                .weather("Clear")
-                .icon("01d")
-                .temperature(303.91)
-                .build();
+        given(dateWeatherRepository.findById(any()))
+                .willAnswer(invocation -> {
+                    DateWeatherId id = invocation.getArgument(0);
+                    return Optional.of(DateWeather.builder()
+                            .city(id.getCity())
+                            .date(id.getDate())
+                            .weather("Clear")
+                            .icon("01d")
+                            .temperature(303.91)
+                            .build());
+                });
+        List<CreateDiary.Request> requests = Arrays.asList(
+                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "첫번째"),
+                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "두번째"),
+                new CreateDiary.Request(LocalDate.parse("2024-06-29"), "세번째"));
+
+        //when
+        int count = diaryService.createDiaries(requests.iterator());
+
+        //then
+        assertEquals(3, count);
+        verify(dateWeatherRepository, times(2)).findById(any());
+        verify(entityManager, times(3)).persist(any(Diary.class));
+        verify(entityManager, times(1)).flush(); // batchSize(2) 마다 flush
+        verify(diaryRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("저널에서 꺼낸 다이어리 저장 - 저장한 저널 위치를 같이 기록")
+    void successCreateJournaledDiaries() {
+        //given
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.of(DateWeather.builder()
+                        .city("seoul")
+                        .date(LocalDate.parse("2024-06-28"))
+                        .weather("Clear")
+                        .icon("01d")
+                        .temperature(303.91)
+                        .build()));
+        List<CreateDiary.Request> requests = Arrays.asList(
+                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "첫번째"),
+                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "두번째"));
+
+        //when
+        int count = diaryService.createJournaledDiaries("local", 12L, requests);
+
+        //then
+        assertEquals(2, count);
+        verify(entityManager, times(2)).persist(any(Diary.class));
+        verify(ingestCheckpointRepository).saveCommittedSeq("local", 12L);
+    }
+
+    @Test
+    @DisplayName("다이어리 여러개 생성 - 실패 - 너무 긴 일기 내용이 섞인 경우")
+    void failCreateDiaries_tooLongText() {
+        //given
+        List<CreateDiary.Request> requests = Arrays.asList(
+                new CreateDiary.Request(LocalDate.parse("2024-06-28"), "a".repeat(256)));
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> diaryService.createDiaries(requests.iterator()));
+
+        //then
+        assertEquals(ErrorCode.TEXT_TOO_LONG, exception.getErrorCode());
+        verify(entityManager, times(0)).persist(any());
+    }
+
+    @Test
+    @DisplayName("다이어리 생성 - 실패 - 날씨 api 호출 실패")
+    void failCreateDiary_weatherApiUnavailable() {
+        //given
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("weather api responded 500")));
 
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.createDiary("2024/08/10", "안녕하세요"));
+                , () -> diaryService.createDiary(LocalDate.parse("2024-06-30"), "안녕하세요"));
 
         //then
-        assertEquals(ErrorCode.INVALID_DATE_FORMAT, exception.getErrorCode());
+        assertEquals(ErrorCode.WEATHER_API_UNAVAILABLE, exception.getErrorCode());
+        assertEquals(1, meterRegistry.get("weather.api.requests")
+                .tag("outcome", ErrorCode.WEATHER_API_UNAVAILABLE.name()).timer().count());
+        verify(diaryRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("다이어리 생성 - 성공 - 날씨 api 를 쓸 수 없으면 저장된 가장 최근 날씨에 연결, 그날 날씨로 저장하지 않음")
+    void successCreateDiary_fallbackToLatestWeather() {
+        //given
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.failedFuture(new CircuitBreakerOpenException()));
+        given(dateWeatherRepository.findFirstByCityOrderByDateDesc("seoul"))
+                .willReturn(Optional.of(DateWeather.builder()
+                        .city("seoul")
+                        .date(LocalDate.parse("2024-06-29"))
+                        .weather("Rain")
+                        .icon("10d")
+                        .temperature(290.0)
+                        .build()));
+        given(diaryRepository.save(any())).willAnswer(invocation -> {
+            Diary diary = invocation.getArgument(0);
+            return Diary.builder().id(1L).date(diary.getDate()).weather(diary.getWeather()).text(diary.getText()).build();
+        });
+        ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
+
+        //when
+        DiaryDto diaryDto = diaryService.createDiary(LocalDate.parse("2024-06-30"), "안녕하세요");
+        diaryService.createDiary(LocalDate.parse("2024-06-30"), "다시");
+
+        //then
+        verify(rollupService, times(0)).insertWeatherIfAbsent(any()); // 날씨 통계에 들어가지 않음
+        verify(diaryRepository, times(2)).save(captor.capture());
+        assertEquals(LocalDate.parse("2024-06-29"), captor.getValue().getWeather().getDate()); // 실제 날씨 행
+        assertEquals(LocalDate.parse("2024-06-30"), captor.getValue().getDate());
+        verify(rollupService, times(2)).addDiaries("seoul", LocalDate.parse("2024-06-29"), LocalDate.parse("2024-06-30"), 1);
+        assertEquals("Rain", diaryDto.getWeather());
+        assertEquals(LocalDate.parse("2024-06-30"), diaryDto.getDate()); // 응답도 날씨 행이 아닌 일기 날짜
+        assertEquals(2, meterRegistry.get("weather.api.fallback").counter().count());
+        verify(weatherClient, times(2)).fetchCurrentWeather("seoul"); // 대신 쓴 날씨는 캐시에 남지 않고 다음 요청은 api 를 다시 시도
     }
 
     @Test
@@ -153,7 +381,7 @@ class DiaryServiceTest {
 
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.createDiary("2024-08-10"
+                , () -> diaryService.createDiary(LocalDate.parse("2024-08-10")
                         , "안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 "));
 
         //then
@@ -164,8 +392,9 @@ class DiaryServiceTest {
     /**
      * 특정일 일기 가져오기
      * 1. 성공
-     * 2. 실패 - 날짜 형식이 잘못된 경우
-     * 3. 실패 - 일기가 없는 경우
+     * 2. 실패 - 일기가 없는 경우
+     * 3. 성공 - 캐시에서 가져오기
+     * 4. 성공 - 일기 작성 후 캐시 삭제
      */
     @Test
     @DisplayName("특정일 일기 가져오기 - 성공")
@@ -213,14 +442,11 @@ class DiaryServiceTest {
                         .build()
         );
 
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(true);
-
         given(diaryRepository.findAllByDate(any()))
                 .willReturn(diaryList.stream().filter(diary -> diary.getDate().equals(LocalDate.parse("2024-06-29"))).collect(Collectors.toList()));
 
         //when
-        List<DiaryDto> diaryDtos = diaryService.getDiariesByDate("2024-06-29");
+        List<DiaryInfo> diaryDtos = diaryService.getDiariesByDate(LocalDate.parse("2024-06-29"));
 
         //then
         assertEquals(2, diaryDtos.size());
@@ -233,47 +459,131 @@ class DiaryServiceTest {
     }
 
     @Test
-    @DisplayName("특정일 일기 가져오기 - 실패 -  날짜 형식이 잘못된 경우")
-    void failReadDiary_invalidDateFormat() {
+    @DisplayName("특정일 일기 가져오기 - 일기가 없는 경우 - 예외 없이 빈 목록")
+    void readDiary_diaryNotFound() {
+        //given
+        given(diaryRepository.findAllByDate(any()))
+                .willReturn(List.of());
+
+        //when
+        List<DiaryInfo> diaries = diaryService.getDiariesByDate(LocalDate.parse("2020-06-28"));
+
+        //then
+        assertTrue(diaries.isEmpty());
+    }
 
+    @Test
+    @DisplayName("특정일 일기 가져오기 - 두번째 조회부터는 캐시에서 가져옴")
+    void successReadDiary_cached() {
         //given
-        List<DateWeather> dateWeathers = Arrays.asList(
-                DateWeather.builder()
-                        .date(LocalDate.parse("2024-06-28"))
-                        .weather("Clouds")
-                        .icon("01d")
-                        .temperature(303.91)
-                        .build());
+        DateWeather dateWeather = DateWeather.builder()
+                .date(LocalDate.parse("2024-06-29"))
+                .weather("Clear")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        given(diaryRepository.findAllByDate(any()))
+                .willReturn(List.of(Diary.builder()
+                        .date(LocalDate.parse("2024-06-29"))
+                        .weather(dateWeather)
+                        .text("오늘의 날씨는 맑음")
+                        .build()));
 
         //when
-        WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.getDiariesByDate("2024/06/28"));
+        diaryService.getDiariesByDate(LocalDate.parse("2024-06-29"));
+        List<DiaryInfo> diaries = diaryService.getDiariesByDate(LocalDate.parse("2024-06-29"));
 
         //then
-        assertEquals(ErrorCode.INVALID_DATE_FORMAT, exception.getErrorCode());
+        verify(diaryRepository, times(1)).findAllByDate(LocalDate.parse("2024-06-29"));
+        verify(diaryRepository, times(0)).existsByDate(any());
+        assertEquals("오늘의 날씨는 맑음", diaries.get(0).getText());
     }
 
     @Test
-    @DisplayName("특정일 일기 가져오기 - 실패 -  일기가 없는 경우")
-    void failReadDiary_diaryNotFound() {
+    @DisplayName("여러 날짜 일기 가져오기 - in 쿼리 한번, 일기가 없는 날짜는 빈 목록")
+    void successReadDiariesByDates() {
         //given
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(false);
+        DateWeather dateWeather = DateWeather.builder()
+                .date(LocalDate.parse("2024-06-29"))
+                .weather("Clear")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        given(diaryRepository.findAllByDateIn(any()))
+                .willReturn(List.of(Diary.builder()
+                        .date(LocalDate.parse("2024-06-29"))
+                        .weather(dateWeather)
+                        .text("오늘의 날씨는 맑음")
+                        .build()));
+
+        //when
+        Map<LocalDate, List<DiaryInfo>> diaries = diaryService.getDiariesByDates(List.of(
+                LocalDate.parse("2024-06-29"), LocalDate.parse("2024-06-01"), LocalDate.parse("2024-06-29")));
+        diaryService.getDiariesByDates(List.of(LocalDate.parse("2024-06-01")));
+
+        //then
+        verify(diaryRepository, times(1)).findAllByDateIn(List.of(LocalDate.parse("2024-06-01"), LocalDate.parse("2024-06-29")));
+        verify(diaryRepository, times(0)).existsByDate(any());
+        assertEquals(List.of(LocalDate.parse("2024-06-01"), LocalDate.parse("2024-06-29")), List.copyOf(diaries.keySet()));
+        assertTrue(diaries.get(LocalDate.parse("2024-06-01")).isEmpty());
+        assertEquals("오늘의 날씨는 맑음", diaries.get(LocalDate.parse("2024-06-29")).get(0).getText());
+    }
+
+    @Test
+    @DisplayName("여러 날짜 일기 가져오기 - 실패 - 날짜가 너무 많은 경우")
+    void failReadDiariesByDates_tooManyDates() {
+        //given
+        List<LocalDate> dates = LocalDate.parse("2024-01-01").datesUntil(LocalDate.parse("2025-01-02"))
+                .collect(Collectors.toList());
 
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.getDiariesByDate("2020-06-28"));
+                , () -> diaryService.getDiariesByDates(dates));
 
         //then
-        assertEquals(ErrorCode.DIARY_NOT_FOUND, exception.getErrorCode());
+        assertEquals(ErrorCode.TOO_MANY_DATES, exception.getErrorCode());
+        verify(diaryRepository, times(0)).findAllByDateIn(any());
+    }
+
+    @Test
+    @DisplayName("특정일 일기 가져오기 - 일기를 작성하면 해당 날짜의 캐시를 지움")
+    void successReadDiary_evictedOnCreate() {
+        //given
+        DateWeather dateWeather = DateWeather.builder()
+                .date(LocalDate.parse("2024-06-29"))
+                .weather("Clear")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        Diary diary = Diary.builder()
+                .id(1L)
+                .date(LocalDate.parse("2024-06-29"))
+                .weather(dateWeather)
+                .text("오늘의 날씨는 맑음")
+                .build();
+        given(diaryRepository.findAllByDate(any()))
+                .willReturn(List.of(), List.of(diary));
+        given(dateWeatherRepository.findById(any()))
+                .willReturn(Optional.of(dateWeather));
+        given(diaryRepository.save(any()))
+                .willReturn(diary);
+        assertTrue(diaryService.getDiariesByDate(LocalDate.parse("2024-06-29")).isEmpty());
+
+        //when
+        diaryService.createDiary(LocalDate.parse("2024-06-29"), "오늘의 날씨는 맑음");
+        List<DiaryInfo> diaries = diaryService.getDiariesByDate(LocalDate.parse("2024-06-29"));
+
+        //then
+        verify(diaryRepository, times(2)).findAllByDate(LocalDate.parse("2024-06-29"));
+        verify(diaryInfoCache, times(1)).evict(LocalDate.parse("2024-06-29"));
+        assertEquals(1, diaries.size());
     }
 
     /**
      * 특정 기간의 일기 가져오기
      * 1. 성공
-     * 2. 실패 - 날짜 형식이 잘못된 경우
-     * 3. 실패 - 날짜 기간이 잘못된 경우
-     * 4. 실패 - 일기가 없는 경우
+     * 2. 실패 - 날짜 기간이 잘못된 경우
+     * 3. 실패 - 일기가 없는 경우
      */
     @Test
     @DisplayName("특정 기간의 일기 가져오기 - 성공")
@@ -320,7 +630,7 @@ class DiaryServiceTest {
                 .willReturn(diaryList.stream().filter(diary -> diary.getDate().compareTo(LocalDate.parse("2024-06-28")) >= 0 && diary.getDate().compareTo(LocalDate.parse("2024-06-29")) <= 0).collect(Collectors.toList()));
 
         //when
-        List<DiaryDto> diaryDtos = diaryService.getDiariesByDatePeriod("2024-06-28", "2024-06-29");
+        List<DiaryDto> diaryDtos = diaryService.getDiariesByDatePeriod(LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-29"));
 
         //then
         assertEquals(2, diaryDtos.size());
@@ -333,8 +643,8 @@ class DiaryServiceTest {
     }
 
     @Test
-    @DisplayName("특정 기간의 일기 가져오기 - 실패 - 날짜 형식이 잘못된 경우")
-    void failReadDiaryByPeriod_invalidDateFormat() {
+    @DisplayName("특정 기간의 일기 가져오기 - 실패 - 날짜 기간이 잘못된 경우")
+    void failReadDiaryByPeriod_invalidDatePeriod() {
         //given
         List<DateWeather> dateWeathers = Arrays.asList(
                 DateWeather.builder()
@@ -346,45 +656,99 @@ class DiaryServiceTest {
 
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.getDiariesByDatePeriod("2024/06/28", "2020-06-29"));
+                , () -> diaryService.getDiariesByDatePeriod(LocalDate.parse("2024-06-30"), LocalDate.parse("2024-06-29")));
 
         //then
-        assertEquals(ErrorCode.INVALID_DATE_FORMAT, exception.getErrorCode());
+        assertEquals(ErrorCode.INVALID_DATE_PERIOD, exception.getErrorCode());
     }
 
     @Test
-    @DisplayName("특정 기간의 일기 가져오기 - 실패 - 날짜 기간이 잘못된 경우")
-    void failReadDiaryByPeriod_invalidDatePeriod() {
+    @DisplayName("특정 기간의 일기 가져오기 - 일기가 없는 경우 - 예외 없이 빈 목록")
+    void readDiaryByPeriod_diaryNotFound() {
         //given
-        List<DateWeather> dateWeathers = Arrays.asList(
-                DateWeather.builder()
-                        .date(LocalDate.parse("2024-06-28"))
-                        .weather("Clouds")
-                        .icon("01d")
-                        .temperature(303.91)
-                        .build());
+        given(diaryRepository.findAllByDateBetween(any(), any()))
+                .willReturn(Arrays.asList());
 
         //when
-        WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.getDiariesByDatePeriod("2024-06-30", "2024-06-29"));
+        List<DiaryDto> diaries = diaryService.getDiariesByDatePeriod(LocalDate.parse("2020-06-28"), LocalDate.parse("2020-06-29"));
 
         //then
-        assertEquals(ErrorCode.INVALID_DATE_PERIOD, exception.getErrorCode());
+        assertTrue(diaries.isEmpty());
     }
 
+    /**
+     * 특정 기간의 일기 페이지 단위로 가져오기
+     * 1. 성공 - 다음 페이지가 있는 경우
+     * 2. 성공 - 커서로 다음 페이지 요청
+     * 3. 실패 - 잘못된 커서
+     */
     @Test
-    @DisplayName("특정 기간의 일기 가져오기 - 실패 - 일기가 없는 경우")
-    void failReadDiaryByPeriod_diaryNotFound() {
+    @DisplayName("특정 기간의 일기 페이지 단위로 가져오기 - 성공 - 다음 페이지가 있는 경우")
+    void successReadDiaryPage_hasNext() {
         //given
-        given(diaryRepository.findAllByDateBetween(any(), any()))
-                .willReturn(Arrays.asList());
+        DateWeather dateWeather = DateWeather.builder()
+                .city("seoul")
+                .date(LocalDate.parse("2024-06-28"))
+                .weather("Clouds")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        List<Diary> diaryList = Arrays.asList(
+                Diary.builder().id(1L).date(LocalDate.parse("2024-06-28")).weather(dateWeather).text("첫번째").build(),
+                Diary.builder().id(2L).date(LocalDate.parse("2024-06-28")).weather(dateWeather).text("두번째").build(),
+                Diary.builder().id(3L).date(LocalDate.parse("2024-06-29")).weather(dateWeather).text("세번째").build());
+
+        given(diaryRepository.findAllByDateBetweenAfter(any(), any(), any(), anyLong(), any()))
+                .willReturn(diaryList);
 
+        //when
+        DiaryPage diaryPage = diaryService.getDiaryPageByDatePeriod(LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-30"), null, 2);
+
+        //then
+        verify(diaryRepository, times(1)).findAllByDateBetweenAfter(
+                LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-30"), LocalDate.parse("2024-06-27"), 0L, PageRequest.of(0, 3));
+        assertEquals(2, diaryPage.getDiaries().size());
+        assertEquals("두번째", diaryPage.getDiaries().get(1).getText());
+        DiaryCursor cursor = DiaryCursor.decode(diaryPage.getNextCursor());
+        assertEquals(LocalDate.parse("2024-06-28"), cursor.getDate());
+        assertEquals(2L, cursor.getId());
+    }
+
+    @Test
+    @DisplayName("특정 기간의 일기 페이지 단위로 가져오기 - 성공 - 커서로 마지막 페이지 요청")
+    void successReadDiaryPage_lastPage() {
+        //given
+        DateWeather dateWeather = DateWeather.builder()
+                .city("seoul")
+                .date(LocalDate.parse("2024-06-29"))
+                .weather("Clouds")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        given(diaryRepository.findAllByDateBetweenAfter(any(), any(), any(), anyLong(), any()))
+                .willReturn(Arrays.asList(
+                        Diary.builder().id(3L).date(LocalDate.parse("2024-06-29")).weather(dateWeather).text("세번째").build()));
+        String cursor = new DiaryCursor(LocalDate.parse("2024-06-28"), 2L).encode();
+
+        //when
+        DiaryPage diaryPage = diaryService.getDiaryPageByDatePeriod(LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-30"), cursor, 2);
+
+        //then
+        verify(diaryRepository, times(1)).findAllByDateBetweenAfter(
+                LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-30"), LocalDate.parse("2024-06-28"), 2L, PageRequest.of(0, 3));
+        assertEquals(1, diaryPage.getDiaries().size());
+        assertNull(diaryPage.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("특정 기간의 일기 페이지 단위로 가져오기 - 실패 - 잘못된 커서")
+    void failReadDiaryPage_invalidCursor() {
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.getDiariesByDatePeriod("2020-06-28", "2020-06-29"));
+                , () -> diaryService.getDiaryPageByDatePeriod(LocalDate.parse("2024-06-28"), LocalDate.parse("2024-06-30"), "not-a-cursor", 2));
 
         //then
-        assertEquals(ErrorCode.DIARY_NOT_FOUND, exception.getErrorCode());
+        assertEquals(ErrorCode.INVALID_CURSOR, exception.getErrorCode());
     }
 
     /**
@@ -392,6 +756,9 @@ class DiaryServiceTest {
      * 1. 성공
      * 2. 실패 - 일기가 없는 경우
      * 3. 실패 - 일기 길이가 너무 긴 경우
+     * 4. id 로 수정 - 성공
+     * 5. id 로 수정 - 실패 - 다른 요청이 먼저 수정한 경우
+     * 6. id 로 수정 - 실패 - 일기가 없는 경우
      */
     @Test
     @DisplayName("일기 수정 - 성공")
@@ -423,48 +790,62 @@ class DiaryServiceTest {
                         .date(LocalDate.parse("2024-06-28"))
                         .weather(dateWeathers.get(0))
                         .text("오늘의 날씨는 흐림")
+                        .version(0L)
                         .build(),
                 Diary.builder()
                         .id(2L)
                         .date(LocalDate.parse("2024-06-28"))
                         .weather(dateWeathers.get(0))
                         .text("오늘의 날씨는 맑음")
+                        .version(0L)
                         .build(),
                 Diary.builder()
                         .id(3L)
                         .date(LocalDate.parse("2024-06-30"))
                         .weather(dateWeathers.get(2))
                         .text("오늘의 날씨는 비")
+                        .version(0L)
                         .build()
         );
 
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(true);
-
         Diary selectedDiary = diaryList.stream().filter(diary -> diary.getDate().equals(LocalDate.parse("2024-06-28"))).findFirst().get();
 
         given(diaryRepository.getFirstByDate(any()))
                 .willReturn(selectedDiary);
+        given(diaryRepository.updateText(1L, 0L, "업데이트"))
+                .willReturn(1);
+        given(diaryRepository.findWithWeatherById(1L))
+                .willReturn(Optional.of(Diary.builder()
+                        .id(1L)
+                        .date(LocalDate.parse("2024-06-28"))
+                        .weather(dateWeathers.get(0))
+                        .text("업데이트")
+                        .version(1L)
+                        .build()));
 
 
         //when
-        DiaryDto newDiary = diaryService.updateDiary("2024-06-28", "업데이트");
+        DiaryDto newDiary = diaryService.updateDiary(LocalDate.parse("2024-06-28"), "업데이트");
 
         //then
         assertEquals(LocalDate.parse("2024-06-28"), newDiary.getDate());
         assertEquals(dateWeathers.get(0).getWeather(), newDiary.getWeather());
         assertEquals("업데이트", newDiary.getText());
+        assertEquals(1L, newDiary.getVersion());
+        verify(diaryRepository, times(0)).existsByDate(any()); // 첫번째 일기를 읽은 결과로 있는지 확인
+        verify(diaryRepository, times(0)).save(any()); // 엔티티를 새로 만들어 merge 하지 않고 조건부 update 한번
+        verify(diaryIndex).reindexDiary(1L);
     }
 
     @Test
     @DisplayName("일기 수정 - 실패 - 일기가 없는 경우")
     void failUpdateDiary_diaryNotFound() {
         //given
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(false);
+        given(diaryRepository.getFirstByDate(any()))
+                .willReturn(null);
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.updateDiary("2020-06-28", "업데이트"));
+                , () -> diaryService.updateDiary(LocalDate.parse("2020-06-28"), "업데이트"));
 
         //then
         assertEquals(ErrorCode.DIARY_NOT_FOUND, exception.getErrorCode());
@@ -515,61 +896,122 @@ class DiaryServiceTest {
                         .build()
         );
 
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(true);
-
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.updateDiary("2024-06-28"
+                , () -> diaryService.updateDiary(LocalDate.parse("2024-06-28")
                         , "안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 안녕하세요 "));
 
         //then
         assertEquals(ErrorCode.TEXT_TOO_LONG, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("id 로 수정 - 성공")
+    void successUpdateDiaryById() {
+        //given
+        DateWeather dateWeather = DateWeather.builder()
+                .date(LocalDate.parse("2024-06-28"))
+                .weather("Clouds")
+                .icon("01d")
+                .temperature(303.91)
+                .build();
+        given(diaryRepository.updateText(1L, 3L, "업데이트"))
+                .willReturn(1);
+        given(diaryRepository.findWithWeatherById(1L))
+                .willReturn(Optional.of(Diary.builder()
+                        .id(1L)
+                        .date(LocalDate.parse("2024-06-28"))
+                        .weather(dateWeather)
+                        .text("업데이트")
+                        .version(4L)
+                        .build()));
+
+        //when
+        DiaryDto diary = diaryService.updateDiary(1L, 3L, "업데이트");
+
+        //then
+        assertEquals(1L, diary.getId());
+        assertEquals("업데이트", diary.getText());
+        assertEquals(4L, diary.getVersion());
+        verify(diaryRepository, times(0)).existsById(anyLong()); // 성공하면 원인을 확인하지 않음
+        verify(diaryIndex).reindexDiary(1L);
+    }
+
+    @Test
+    @DisplayName("id 로 수정 - 실패 - 다른 요청이 먼저 수정한 경우")
+    void failUpdateDiaryById_versionConflict() {
+        //given
+        given(diaryRepository.updateText(1L, 3L, "업데이트"))
+                .willReturn(0);
+        given(diaryRepository.existsById(1L))
+                .willReturn(true);
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> diaryService.updateDiary(1L, 3L, "업데이트"));
+
+        //then
+        assertEquals(ErrorCode.DIARY_VERSION_CONFLICT, exception.getErrorCode());
+        verify(diaryRepository, times(0)).findWithWeatherById(anyLong());
+        verify(diaryIndex, times(0)).reindexDiary(anyLong());
+    }
+
+    @Test
+    @DisplayName("id 로 수정 - 실패 - 일기가 없는 경우")
+    void failUpdateDiaryById_diaryNotFound() {
+        //given
+        given(diaryRepository.updateText(1L, 3L, "업데이트"))
+                .willReturn(0);
+        given(diaryRepository.existsById(1L))
+                .willReturn(false);
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> diaryService.updateDiary(1L, 3L, "업데이트"));
+
+        //then
+        assertEquals(ErrorCode.DIARY_NOT_FOUND, exception.getErrorCode());
+    }
+
     /**
      * 해당 날짜의 모든 일기 삭제
      * 1. 성공
      * 2. 실패 - 해당 날짜에 일기 없음
-     * 3. 실패 - 잘못된 날짜 형식
      */
     @Test
     @DisplayName("해당 날짜의 모든 일기 삭제 - 성공")
     void successDeleteDiary() {
         //given
+        given(diaryRepository.deleteAllByDate(any()))
+                .willReturn(3);
 
         //when
-        diaryRepository.deleteAllByDate(any());
+        DiaryDto diaryDto = diaryService.deleteDiary(LocalDate.parse("2024-06-28"));
 
         //then
-        verify(diaryRepository, times(1)).deleteAllByDate(any());
+        verify(diaryRepository, times(1)).deleteAllByDate(LocalDate.parse("2024-06-28"));
+        verify(diaryRepository, times(0)).existsByDate(any());
+        verify(diaryInfoCache, times(1)).evict(LocalDate.parse("2024-06-28"));
+        verify(diaryIndex, times(1)).reindex(LocalDate.parse("2024-06-28"));
+        assertEquals(LocalDate.parse("2024-06-28"), diaryDto.getDate());
     }
 
     @Test
     @DisplayName("해당 날짜의 모든 일기 삭제 - 실패 - 해당 날짜에 일기 없는 경우")
     void failDeleteDiary_diaryNotFound() {
         //given
-        given(diaryRepository.existsByDate(any()))
-                .willReturn(false);
+        given(diaryRepository.deleteAllByDate(any()))
+                .willReturn(0);
         //when
         WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.deleteDiary("2020-06-28"));
+                , () -> diaryService.deleteDiary(LocalDate.parse("2020-06-28")));
 
         //then
         assertEquals(ErrorCode.DIARY_NOT_FOUND, exception.getErrorCode());
     }
 
-    @Test
-    @DisplayName("해당 날짜의 모든 일기 삭제 - 실패 - 잘못된 날짜 형식")
-    void failDeleteDiary_invalidDate() {
-        //given
-        diaryRepository.deleteAllByDate(any());
-
-        //when
-        WeatherException exception = assertThrows(WeatherException.class
-                , () -> diaryService.deleteDiary("2024/06/28"));
-
-        //then
-        assertEquals(ErrorCode.INVALID_DATE_FORMAT, exception.getErrorCode());
+    // 저장된 일기처럼 id 를 붙여서 돌려줌
+    private static Diary savedDiary(Diary diary) {
+        return Diary.builder().id(1L).date(diary.getDate()).weather(diary.getWeather()).text(diary.getText()).build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package zerobase.projectweather.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.dto.DiaryStatistics;
+import zerobase.projectweather.dto.WeatherStatistics;
+import zerobase.projectweather.repository.DateWeatherBatchRepository;
+import zerobase.projectweather.repository.RollupRepository;
+import zerobase.projectweather.search.DiaryIndex;
+import zerobase.projectweather.type.PeriodType;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// 집계 upsert (ON DUPLICATE KEY UPDATE) 를 쓰므로 H2 를 MariaDB 모드로 띄움
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollup;MODE=MariaDB;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RollupService.class, RollupRepository.class, DateWeatherBatchRepository.class})
+class RollupServiceTest {
+
+    private static final LocalDate DATE = LocalDate.parse("2024-06-29");
+
+    @Autowired
+    private RollupService rollupService;
+
+    @MockBean
+    private DiaryIndex diaryIndex;
+
+    @MockBean
+    private DiaryInfoCache diaryInfoCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("날씨 저장 - 일/월/연 집계에 더해짐")
+    void upsertWeathers_new() {
+        //given
+
+        //when
+        rollupService.upsertWeathers(List.of(weather(DATE, "Clear", "01d", 300), weather(DATE.plusDays(1), "Rain", "10d", 290)));
+
+        //then
+        WeatherStatistics month = rollupService.getWeatherStatistics("seoul", PeriodType.MONTH, DATE);
+        assertEquals(LocalDate.parse("2024-06-01"), month.getPeriodStart());
+        assertEquals(2, month.getDays());
+        assertEquals(295, month.getAverageTemperature());
+        assertEquals(Map.of("Clear", 1, "Rain", 1), month.getWeatherCounts());
+        assertEquals(Map.of("01d", 1, "10d", 1), month.getIconCounts());
+        assertEquals(2, rollupService.getWeatherStatistics("seoul", PeriodType.YEAR, DATE).getDays());
+        assertEquals(1, rollupService.getWeatherStatistics("seoul", PeriodType.DAY, DATE).getDays());
+    }
+
+    @Test
+    @DisplayName("날씨 덮어쓰기 - 이전 값을 빼고 새 값을 더함, 붙어있는 일기도 새 날씨로 옮김")
+    void upsertWeathers_replace() {
+        //given
+        rollupService.upsertWeathers(List.of(weather(DATE, "Clear", "01d", 300)));
+        jdbcTemplate.update("INSERT INTO diary (id, text, date, weather_city, weather_date) VALUES (1, '안녕', ?, 'seoul', ?)",
+                Date.valueOf(DATE), Date.valueOf(DATE));
+        jdbcTemplate.update("INSERT INTO diary (id, text, date, weather_city, weather_date) VALUES (2, '하이', ?, 'seoul', ?)",
+                Date.valueOf(DATE.plusDays(1)), Date.valueOf(DATE)); // 날씨 api 를 쓸 수 없을 때 작성한 다음날 일기
+        rollupService.addDiaries("seoul", DATE, DATE, 1);
+        rollupService.addDiaries("seoul", DATE, DATE.plusDays(1), 1);
+
+        //when
+        rollupService.upsertWeathers(List.of(weather(DATE, "Rain", "10d", 280)));
+
+        //then
+        WeatherStatistics month = rollupService.getWeatherStatistics("seoul", PeriodType.MONTH, DATE);
+        assertEquals(1, month.getDays());
+        assertEquals(280, month.getAverageTemperature());
+        assertEquals(Map.of("Rain", 1), month.getWeatherCounts());
+        assertEquals(Map.of("10d", 1), month.getIconCounts());
+        DiaryStatistics diaries = rollupService.getDiaryStatistics(PeriodType.MONTH, DATE);
+        assertEquals(2, diaries.getDiaries());
+        assertEquals(Map.of("Rain", 2), diaries.getWeatherCounts());
+        assertEquals(Map.of("Rain", 1), rollupService.getDiaryStatistics(PeriodType.DAY, DATE.plusDays(1)).getWeatherCounts());
+        verify(diaryIndex, times(1)).reindex(Set.of(DATE, DATE.plusDays(1)));
+        verify(diaryInfoCache, times(1)).evict(DATE.plusDays(1));
+    }
+
+    @Test
+    @DisplayName("없을 때만 날씨 저장 - 이미 있으면 집계에 더하지 않음")
+    void insertWeatherIfAbsent() {
+        //given
+        rollupService.insertWeatherIfAbsent(weather(DATE, "Clear", "01d", 300));
+
+        //when
+        boolean inserted = rollupService.insertWeatherIfAbsent(weather(DATE, "Rain", "10d", 280));
+
+        //then
+        assertEquals(false, inserted);
+        WeatherStatistics day = rollupService.getWeatherStatistics("seoul", PeriodType.DAY, DATE);
+        assertEquals(1, day.getDays());
+        assertEquals(Map.of("Clear", 1), day.getWeatherCounts());
+    }
+
+    @Test
+    @DisplayName("일기 추가/삭제 - 날씨 종류별 일기 수")
+    void addDiaries() {
+        //given
+        rollupService.upsertWeathers(List.of(weather(DATE, "Clear", "01d", 300), weather(DATE.plusDays(1), "Rain", "10d", 290)));
+
+        //when
+        rollupService.addDiaries("seoul", DATE, DATE, 3);
+        rollupService.addDiaries("seoul", DATE.plusDays(1), DATE.plusDays(1), 2);
+        rollupService.addDiaries("seoul", DATE.plusDays(1), DATE.plusDays(1), -2);
+
+        //then
+        DiaryStatistics year = rollupService.getDiaryStatistics(PeriodType.YEAR, DATE);
+        assertEquals(LocalDate.parse("2024-01-01"), year.getPeriodStart());
+        assertEquals(3, year.getDiaries());
+        assertEquals(Map.of("Clear", 3), year.getWeatherCounts());
+        assertTrue(rollupService.getDiaryStatistics(PeriodType.DAY, DATE.plusDays(1)).getWeatherCounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("집계가 없는 기간 - 빈 통계")
+    void emptyPeriod() {
+        //given
+
+        //when
+        WeatherStatistics statistics = rollupService.getWeatherStatistics("seoul", PeriodType.MONTH, DATE);
+
+        //then
+        assertEquals(0, statistics.getDays());
+        assertNull(statistics.getAverageTemperature());
+        assertTrue(statistics.getWeatherCounts().isEmpty());
+    }
+
+    private static DateWeather weather(LocalDate date, String weather, String icon, double temperature) {
+        return DateWeather.builder()
+                .city("seoul")
+                .date(date)
+                .weather(weather)
+                .icon(icon)
+                .temperature(temperature)
+                .build();
+    }
+}
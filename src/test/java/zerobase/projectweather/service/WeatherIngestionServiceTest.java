@@ -0,0 +1,109 @@
+package zerobase.projectweather.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+import zerobase.projectweather.cache.DateWeatherCache;
+import zerobase.projectweather.cache.DiaryInfoCache;
+import zerobase.projectweather.client.StubWeatherServer;
+import zerobase.projectweather.client.WeatherClient;
+import zerobase.projectweather.domain.DateWeather;
+import zerobase.projectweather.domain.DateWeatherId;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherIngestionServiceTest {
+
+    @Mock
+    private WeatherClient weatherClient;
+
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private DateWeatherCache dateWeatherCache;
+
+    @Mock
+    private DiaryInfoCache diaryInfoCache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WeatherIngestionService weatherIngestionService;
+
+    @AfterEach
+    void tearDown() {
+        weatherIngestionService.shutdown();
+    }
+
+    @Test
+    @DisplayName("여러 도시 날씨 수집 - 성공 - batch 단위로 저장")
+    void successIngest() {
+        //given
+        String[] cities = {"seoul", "busan", "incheon", "daegu", "daejeon"};
+        weatherIngestionService = new WeatherIngestionService(weatherClient, rollupService, dateWeatherCache, diaryInfoCache, meterRegistry,
+                cities, 4, 1000, 2, "https://api.openweathermap.org/data/2.5/weather", new MockEnvironment());
+        given(weatherClient.fetchCurrentWeather(any()))
+                .willReturn(CompletableFuture.completedFuture(StubWeatherServer.SEOUL_CLEAR));
+
+        // 호출 후 batch 리스트가 비워지므로 호출 시점의 내용을 복사해둠
+        List<List<DateWeather>> batches = new ArrayList<>();
+        doAnswer(invocation -> batches.add(new ArrayList<>(invocation.<List<DateWeather>>getArgument(0))))
+                .when(rollupService).upsertWeathers(any());
+
+        //when
+        int saved = weatherIngestionService.ingest(LocalDate.parse("2024-06-30"));
+
+        //then
+        assertEquals(5, saved);
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).collect(Collectors.toList()));
+        assertEquals(Set.of(cities), batches.stream().flatMap(List::stream)
+                .map(DateWeather::getCity).collect(Collectors.toSet()));
+        assertEquals(LocalDate.parse("2024-06-30"), batches.get(0).get(0).getDate());
+        assertEquals(1, meterRegistry.get("weather.ingestion").tag("outcome", "success").timer().count());
+        assertEquals(5, meterRegistry.get("weather.ingestion.cities").tag("result", "saved").counter().count());
+        for (String city : cities) {
+            verify(dateWeatherCache).invalidate(new DateWeatherId(city, LocalDate.parse("2024-06-30")));
+        }
+        verify(diaryInfoCache, times(3)).evict(LocalDate.parse("2024-06-30"));
+    }
+
+    @Test
+    @DisplayName("여러 도시 날씨 수집 - 일부 실패 - 성공한 도시만 저장")
+    void partialFailureIngest() {
+        //given
+        weatherIngestionService = new WeatherIngestionService(weatherClient, rollupService, dateWeatherCache, diaryInfoCache, meterRegistry,
+                new String[]{"seoul", "nowhere"}, 2, 1000, 100, "https://api.openweathermap.org/data/2.5/weather", new MockEnvironment());
+        given(weatherClient.fetchCurrentWeather(eq("seoul")))
+                .willReturn(CompletableFuture.completedFuture(StubWeatherServer.SEOUL_CLEAR));
+        given(weatherClient.fetchCurrentWeather(eq("nowhere")))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("weather api responded 404")));
+
+        //when
+        int saved = weatherIngestionService.ingest(LocalDate.parse("2024-06-30"));
+
+        //then
+        assertEquals(1, saved);
+        verify(rollupService, times(1)).upsertWeathers(any());
+        assertEquals(1, meterRegistry.get("weather.ingestion").tag("outcome", "partial").timer().count());
+        assertEquals(1, meterRegistry.get("weather.ingestion.cities").tag("result", "failed").counter().count());
+    }
+}
@@ -0,0 +1,63 @@
+package zerobase.projectweather.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zerobase.projectweather.exception.WeatherException;
+import zerobase.projectweather.type.ErrorCode;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DateParserTest {
+
+    @Test
+    @DisplayName("날짜 파싱 - 성공")
+    void successParse() {
+        //given
+
+        //when
+
+        //then
+        assertEquals(LocalDate.of(2024, 6, 29), DateParser.parse("2024-06-29"));
+        assertEquals(LocalDate.of(2024, 2, 29), DateParser.parse("2024-02-29"));
+        assertEquals(LocalDate.of(2023, 12, 31), DateParser.parse("2023-12-31"));
+    }
+
+    @Test
+    @DisplayName("날짜 파싱 - 실패 - 잘못된 날짜 형식")
+    void failParse_invalidDateFormat() {
+        //given
+
+        //when
+        WeatherException exception = assertThrows(WeatherException.class
+                , () -> DateParser.parse("2024/06/29"));
+
+        //then
+        assertEquals(ErrorCode.INVALID_DATE_FORMAT, exception.getErrorCode());
+        assertNull(DateParser.parseOrNull(null));
+        assertNull(DateParser.parseOrNull(""));
+        assertNull(DateParser.parseOrNull("2024-6-29"));
+        assertNull(DateParser.parseOrNull("2024-06-29abc"));
+        assertNull(DateParser.parseOrNull("2024-0a-29"));
+        assertNull(DateParser.parseOrNull("0000-06-29"));
+    }
+
+    @Test
+    @DisplayName("날짜 파싱 - 실패 - 없는 날짜")
+    void failParse_nonexistentDate() {
+        //given
+
+        //when
+
+        //then
+        assertNull(DateParser.parseOrNull("2023-02-29"));
+        assertNull(DateParser.parseOrNull("2024-02-30"));
+        assertNull(DateParser.parseOrNull("2024-04-31"));
+        assertNull(DateParser.parseOrNull("2024-13-01"));
+        assertNull(DateParser.parseOrNull("2024-00-10"));
+        assertNull(DateParser.parseOrNull("2024-06-00"));
+    }
+}